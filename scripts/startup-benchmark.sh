@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Time-to-first-request of the plain jar versus the fast-startup build (Spring AOT + CDS archive).
+#
+# Build first, with the database of the training run reachable:
+#   ./mvnw -Pfast-startup package -DskipTests -Dfast-startup.training.url=<throwaway database URL>
+# then run:
+#   scripts/startup-benchmark.sh [runs]
+#
+# Each run starts the application, polls GET /topicos until it answers 200 and stops it again.
+# The database settings are taken from the environment (SPRING_DATASOURCE_URL, DB_USERNAME, ...).
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+FAST_DIR="$ROOT/target/fast-startup"
+JAR="$(ls "$ROOT"/target/forum-*.jar | grep -v '\.original$' | head -n 1)"
+FAST_JAR="$FAST_DIR/$(basename "$JAR")"
+ARCHIVE="$FAST_DIR/forum.jsa"
+URL="http://localhost:$PORT/topicos"
+
+if [[ ! -f "$FAST_JAR" || ! -f "$ARCHIVE" ]]; then
+    echo "Missing $FAST_JAR or $ARCHIVE; run ./mvnw -Pfast-startup package first" >&2
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints the milliseconds from launch until the first successful request
+time_to_first_request() {
+    local workdir="$1"
+    shift
+    local start pid elapsed
+    start="$(now_ms)"
+    (cd "$workdir" && exec java "$@" --server.port="$PORT" > /dev/null 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "application exited before answering $URL" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+measure() {
+    local label="$1"
+    shift
+    local results=()
+    for ((i = 1; i <= RUNS; i++)); do
+        results+=("$(time_to_first_request "$@")")
+    done
+    printf '%-14s median %6s ms   runs: %s\n' "$label" "$(printf '%s\n' "${results[@]}" | median)" "${results[*]}"
+}
+
+echo "Time to first request ($RUNS runs each)"
+measure "plain jar" "$ROOT" -jar "$JAR"
+measure "AOT + CDS" "$FAST_DIR" -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true -jar "$FAST_JAR"
@@ -0,0 +1,110 @@
+package com.example.forum.archive;
+
+import com.example.forum.domain.TopicStatus;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary record format of an archived topic: fixed-width numbers, length-prefixed UTF-8 strings
+// (-1 for null) and a presence byte in front of nullable values
+final class ArchiveCodec {
+
+    private ArchiveCodec() {
+    }
+
+    static void write(DataOutputStream out, ArchivedTopic topic) throws IOException {
+        out.writeLong(topic.id());
+        writeString(out, topic.titulo());
+        writeString(out, topic.mensagem());
+        writeDateTime(out, topic.dataCriacao());
+        writeString(out, topic.status().name());
+        writeLong(out, topic.solucaoId());
+        writeLong(out, topic.autorId());
+        writeString(out, topic.autorNome());
+        writeLong(out, topic.cursoId());
+        writeString(out, topic.cursoNome());
+        out.writeInt(topic.respostas().size());
+        for (ArchivedResponse resposta : topic.respostas()) {
+            out.writeLong(resposta.id());
+            writeString(out, resposta.mensagem());
+            writeDateTime(out, resposta.dataCriacao());
+            out.writeBoolean(resposta.solucao());
+            writeLong(out, resposta.autorId());
+            writeString(out, resposta.autorNome());
+        }
+    }
+
+    static ArchivedTopic read(ByteBuffer in) {
+        Long id = in.getLong();
+        String titulo = readString(in);
+        String mensagem = readString(in);
+        LocalDateTime dataCriacao = readDateTime(in);
+        TopicStatus status = TopicStatus.valueOf(readString(in));
+        Long solucaoId = readLong(in);
+        Long autorId = readLong(in);
+        String autorNome = readString(in);
+        Long cursoId = readLong(in);
+        String cursoNome = readString(in);
+
+        int count = in.getInt();
+        List<ArchivedResponse> respostas = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            respostas.add(new ArchivedResponse(in.getLong(), readString(in), readDateTime(in), in.get() != 0,
+                    readLong(in), readString(in)));
+        }
+        return new ArchivedTopic(id, titulo, mensagem, dataCriacao, status, solucaoId,
+                autorId, autorNome, cursoId, cursoNome, List.copyOf(respostas));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.forum.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// One immutable archive file. Topics are stored in ascending id order in deflated blocks of
+// roughly blockSize raw bytes, followed by a sparse index holding the id range and position of
+// every block and a fixed-size trailer:
+//
+//   block*   deflated records
+//   index    per block: firstId, lastId (long), offset (long), compressed and raw length (int)
+//   trailer  index offset (long), block count (int), MAGIC (int)
+//
+// Reads map the whole file once and inflate only the block whose id range covers the lookup.
+final class ArchiveSegment {
+
+    private static final int MAGIC = 0x46415243;
+    private static final int INDEX_ENTRY_BYTES = 8 + 8 + 8 + 4 + 4;
+    private static final int TRAILER_BYTES = 8 + 4 + 4;
+
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final long[] firstIds;
+    private final long[] lastIds;
+    private final int[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+
+    private ArchiveSegment(Path path, MappedByteBuffer data, long[] firstIds, long[] lastIds,
+                           int[] offsets, int[] compressedLengths, int[] rawLengths) {
+        this.path = path;
+        this.data = data;
+        this.firstIds = firstIds;
+        this.lastIds = lastIds;
+        this.offsets = offsets;
+        this.compressedLengths = compressedLengths;
+        this.rawLengths = rawLengths;
+    }
+
+    static ArchiveSegment open(Path path) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < TRAILER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Invalid archive segment size: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int trailer = data.capacity() - TRAILER_BYTES;
+        long indexOffset = data.getLong(trailer);
+        int blocks = data.getInt(trailer + 8);
+        if (data.getInt(trailer + 12) != MAGIC || indexOffset + (long) blocks * INDEX_ENTRY_BYTES != trailer) {
+            throw new IOException("Corrupt archive segment: " + path);
+        }
+
+        long[] firstIds = new long[blocks];
+        long[] lastIds = new long[blocks];
+        int[] offsets = new int[blocks];
+        int[] compressedLengths = new int[blocks];
+        int[] rawLengths = new int[blocks];
+        for (int i = 0, entry = (int) indexOffset; i < blocks; i++, entry += INDEX_ENTRY_BYTES) {
+            firstIds[i] = data.getLong(entry);
+            lastIds[i] = data.getLong(entry + 8);
+            offsets[i] = (int) data.getLong(entry + 16);
+            compressedLengths[i] = data.getInt(entry + 24);
+            rawLengths[i] = data.getInt(entry + 28);
+        }
+        return new ArchiveSegment(path, data, firstIds, lastIds, offsets, compressedLengths, rawLengths);
+    }
+
+    // Writes and fsyncs a complete segment; topics must be sorted by id
+    static void write(Path path, List<ArchivedTopic> topics, int blockSize) throws IOException {
+        write(path, topics.iterator(), blockSize);
+    }
+
+    static void write(Path path, Iterator<ArchivedTopic> topics, int blockSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteArrayOutputStream index = new ByteArrayOutputStream();
+            DataOutputStream indexOut = new DataOutputStream(index);
+            ByteArrayOutputStream block = new ByteArrayOutputStream(blockSize * 2);
+            DataOutputStream blockOut = new DataOutputStream(block);
+            Deflater deflater = new Deflater();
+            try {
+                long firstId = 0;
+                long lastId = 0;
+                int blocks = 0;
+                while (topics.hasNext()) {
+                    ArchivedTopic topic = topics.next();
+                    if (block.size() == 0) {
+                        firstId = topic.id();
+                    }
+                    ArchiveCodec.write(blockOut, topic);
+                    lastId = topic.id();
+                    if (block.size() >= blockSize) {
+                        writeBlock(channel, deflater, block, firstId, lastId, indexOut);
+                        blocks++;
+                    }
+                }
+                if (block.size() > 0) {
+                    writeBlock(channel, deflater, block, firstId, lastId, indexOut);
+                    blocks++;
+                }
+
+                long indexOffset = channel.position();
+                ByteBuffer tail = ByteBuffer.allocate(index.size() + TRAILER_BYTES);
+                tail.put(index.toByteArray()).putLong(indexOffset).putInt(blocks).putInt(MAGIC).flip();
+                writeFully(channel, tail);
+                channel.force(true);
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    private static void writeBlock(FileChannel channel, Deflater deflater, ByteArrayOutputStream block,
+                                   long firstId, long lastId, DataOutputStream index) throws IOException {
+        byte[] raw = block.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+
+        long offset = channel.position();
+        if (offset + compressed.size() > Integer.MAX_VALUE) {
+            throw new IOException("Archive segment exceeds 2 GB");
+        }
+        writeFully(channel, ByteBuffer.wrap(compressed.toByteArray()));
+        index.writeLong(firstId);
+        index.writeLong(lastId);
+        index.writeLong(offset);
+        index.writeInt(compressed.size());
+        index.writeInt(raw.length);
+        block.reset();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    // Size of the file in bytes
+    long size() {
+        return data.capacity();
+    }
+
+    Optional<ArchivedTopic> find(long id) {
+        if (firstIds.length == 0 || id < firstIds[0] || id > lastIds[lastIds.length - 1]) {
+            return Optional.empty();
+        }
+        // Last block starting at or before the id
+        int search = Arrays.binarySearch(firstIds, id);
+        int block = search >= 0 ? search : -search - 2;
+        if (block < 0 || id > lastIds[block]) {
+            return Optional.empty();
+        }
+
+        ByteBuffer records = inflate(block);
+        while (records.hasRemaining()) {
+            ArchivedTopic topic = ArchiveCodec.read(records);
+            if (topic.id() == id) {
+                return Optional.of(topic);
+            }
+            if (topic.id() > id) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Every topic in the segment, for tooling and tests
+    List<ArchivedTopic> readAll() {
+        List<ArchivedTopic> topics = new ArrayList<>();
+        iterator().forEachRemaining(topics::add);
+        return topics;
+    }
+
+    // Topics in id order, inflating one block at a time
+    Iterator<ArchivedTopic> iterator() {
+        return new Iterator<>() {
+            private int block = 0;
+            private ByteBuffer records = ByteBuffer.allocate(0);
+
+            @Override
+            public boolean hasNext() {
+                while (!records.hasRemaining() && block < firstIds.length) {
+                    records = inflate(block++);
+                }
+                return records.hasRemaining();
+            }
+
+            @Override
+            public ArchivedTopic next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return ArchiveCodec.read(records);
+            }
+        };
+    }
+
+    private ByteBuffer inflate(int block) {
+        Inflater inflater = new Inflater();
+        try {
+            // slice() leaves the shared buffer's position untouched, so concurrent lookups are safe
+            inflater.setInput(data.slice(offsets[block], compressedLengths[block]));
+            byte[] raw = new byte[rawLengths[block]];
+            int read = 0;
+            while (read < raw.length) {
+                int inflated = inflater.inflate(raw, read, raw.length - read);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != raw.length) {
+                throw new IllegalStateException("Truncated block " + block + " in archive segment " + path);
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block " + block + " in archive segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.forum.archive;
+
+import com.example.forum.domain.Response;
+
+import java.time.LocalDateTime;
+
+public record ArchivedResponse(
+        Long id,
+        String mensagem,
+        LocalDateTime dataCriacao,
+        boolean solucao,
+        Long autorId,
+        String autorNome
+) {
+    public ArchivedResponse(Response response) {
+        this(
+                response.getId(),
+                response.getMensagem(),
+                response.getDataCriacao(),
+                Boolean.TRUE.equals(response.getSolucao()),
+                response.getAutor().getId(),
+                response.getAutor().getNome()
+        );
+    }
+}
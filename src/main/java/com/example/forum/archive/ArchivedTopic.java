@@ -0,0 +1,61 @@
+package com.example.forum.archive;
+
+import com.example.forum.domain.Course;
+import com.example.forum.domain.Response;
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.domain.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// A topic and its responses as stored in the cold archive. Author and course names are
+// copied in, so an archived thread renders without touching the database.
+public record ArchivedTopic(
+        Long id,
+        String titulo,
+        String mensagem,
+        LocalDateTime dataCriacao,
+        TopicStatus status,
+        Long solucaoId,
+        Long autorId,
+        String autorNome,
+        Long cursoId,
+        String cursoNome,
+        List<ArchivedResponse> respostas
+) {
+    public ArchivedTopic(Topic topic, List<Response> respostas) {
+        this(
+                topic.getId(),
+                topic.getTitulo(),
+                topic.getMensagem(),
+                topic.getDataCriacao(),
+                topic.getStatus(),
+                topic.getSolucaoId(),
+                topic.getAutor().getId(),
+                topic.getAutor().getNome(),
+                topic.getCurso().getId(),
+                topic.getCurso().getNome(),
+                respostas.stream().map(ArchivedResponse::new).toList()
+        );
+    }
+
+    // Rebuilds detached, read-only entities so callers can render the thread like a live one.
+    // They must never be handed back to a repository.
+    public Topic toTopic() {
+        List<Response> responses = new ArrayList<>(respostas.size());
+        Topic topic = new Topic(id, titulo, mensagem, dataCriacao, null, 0, status, solucaoId,
+                user(autorId, autorNome), new Course(cursoId, cursoNome, null, List.of()), responses, null);
+        for (ArchivedResponse resposta : respostas) {
+            responses.add(new Response(resposta.id(), resposta.mensagem(), resposta.dataCriacao(), null, 0, resposta.solucao(),
+                    topic, user(resposta.autorId(), resposta.autorNome()), null));
+        }
+        return topic;
+    }
+
+    private static User user(Long id, String nome) {
+        return new User(id, nome, null, null, null, false, Set.of(), List.of(), List.of());
+    }
+}
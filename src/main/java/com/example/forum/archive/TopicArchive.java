@@ -0,0 +1,218 @@
+package com.example.forum.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Cold tier for old closed threads: a directory of append-only segment files on local disk.
+// Every write produces a new segment that becomes visible only once it is complete and fsynced,
+// so a crash mid-write leaves at most a temporary file that is discarded on the next start.
+//
+// Segments are merged size-tiered: after a write, the newest segments are merged into one while
+// the segment before them is no larger than their total. Each segment then outweighs all newer
+// ones together, so a lookup (and every miss) checks a number of segments logarithmic in the
+// archive size.
+@Slf4j
+@Component
+public class TopicArchive {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.seg");
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final int blockSize;
+    // Oldest first; replaced as a whole so lookups always walk a consistent snapshot
+    private volatile List<ArchiveSegment> segments = List.of();
+    private long nextSequence = 1;
+
+    public TopicArchive(@Value("${forum.archive.dir:data/archive}") Path directory,
+                        @Value("${forum.archive.block-size:32768}") int blockSize) {
+        this.directory = directory;
+        this.blockSize = blockSize;
+        load();
+    }
+
+    public Optional<ArchivedTopic> find(Long id) {
+        // Newest first: a thread archived twice (crash between write and delete) resolves to the latest copy
+        List<ArchiveSegment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            Optional<ArchivedTopic> topic = current.get(i).find(id);
+            if (topic.isPresent()) {
+                return topic;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean contains(Long id) {
+        return find(id).isPresent();
+    }
+
+    // Persists the topics as a new segment; returns only after the segment is durable on disk
+    public synchronized void write(List<ArchivedTopic> topics) {
+        if (topics.isEmpty()) {
+            return;
+        }
+        List<ArchivedTopic> sorted = new ArrayList<>(topics);
+        sorted.sort(Comparator.comparing(ArchivedTopic::id));
+
+        ArchiveSegment segment = writeSegment(sorted.iterator());
+        segments = append(segments, segment);
+        log.info("Archived {} topics into {}", sorted.size(), segment.getPath().getFileName());
+
+        // The topics are durable already; a failed merge only leaves more segments to check
+        try {
+            merge();
+        } catch (RuntimeException e) {
+            log.warn("Failed to merge archive segments", e);
+        }
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    // Merges the newest run of segments whose predecessor is no larger than the run itself
+    private void merge() {
+        List<ArchiveSegment> current = segments;
+        int from = current.size() - 1;
+        long runSize = current.get(from).size();
+        while (from > 0 && current.get(from - 1).size() <= runSize) {
+            from--;
+            runSize += current.get(from).size();
+        }
+        if (from == current.size() - 1) {
+            return;
+        }
+
+        List<ArchiveSegment> run = current.subList(from, current.size());
+        ArchiveSegment merged = writeSegment(new MergingIterator(run));
+        segments = append(current.subList(0, from), merged);
+        // A crash before these deletes leaves the sources behind the merged copy, which wins lookups
+        for (ArchiveSegment source : run) {
+            try {
+                Files.deleteIfExists(source.getPath());
+            } catch (IOException e) {
+                log.warn("Could not delete merged archive segment {}", source.getPath(), e);
+            }
+        }
+        log.info("Merged {} archive segments into {}", run.size(), merged.getPath().getFileName());
+    }
+
+    // Writes the next numbered segment through a temporary file and opens it
+    private ArchiveSegment writeSegment(Iterator<ArchivedTopic> topics) {
+        Path target = directory.resolve("segment-%010d.seg".formatted(nextSequence));
+        Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            ArchiveSegment.write(temp, topics, blockSize);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+            nextSequence++;
+            return ArchiveSegment.open(target);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException("Failed to write archive segment " + target, e);
+        }
+    }
+
+    private static List<ArchiveSegment> append(List<ArchiveSegment> segments, ArchiveSegment segment) {
+        List<ArchiveSegment> next = new ArrayList<>(segments);
+        next.add(segment);
+        return List.copyOf(next);
+    }
+
+    // K-way merge of segments in id order. A topic present in several of them comes from the newest.
+    private static final class MergingIterator implements Iterator<ArchivedTopic> {
+
+        private record Head(ArchivedTopic topic, int age, Iterator<ArchivedTopic> rest) {}
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(
+                Comparator.comparingLong((Head head) -> head.topic().id()).thenComparingInt(Head::age));
+
+        MergingIterator(List<ArchiveSegment> segments) {
+            for (int i = 0; i < segments.size(); i++) {
+                advance(segments.get(i).iterator(), segments.size() - 1 - i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public ArchivedTopic next() {
+            Head newest = heads.poll();
+            if (newest == null) {
+                throw new NoSuchElementException();
+            }
+            advance(newest.rest(), newest.age());
+            while (!heads.isEmpty() && heads.peek().topic().id() == newest.topic().id()) {
+                Head older = heads.poll();
+                advance(older.rest(), older.age());
+            }
+            return newest.topic();
+        }
+
+        private void advance(Iterator<ArchivedTopic> topics, int age) {
+            if (topics.hasNext()) {
+                heads.add(new Head(topics.next(), age, topics));
+            }
+        }
+    }
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<ArchiveSegment> opened = new ArrayList<>();
+            for (Path file : files.sorted().toList()) {
+                String name = file.getFileName().toString();
+                Matcher matcher = SEGMENT_NAME.matcher(name);
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file);
+                } else if (matcher.matches()) {
+                    opened.add(ArchiveSegment.open(file));
+                    nextSequence = Math.max(nextSequence, Long.parseLong(matcher.group(1)) + 1);
+                }
+            }
+            segments = List.copyOf(opened);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open topic archive at " + directory, e);
+        }
+        log.info("Opened topic archive at {} with {} segments", directory, segments.size());
+    }
+
+    // Makes the rename itself durable; not every platform allows opening a directory for this
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Could not fsync archive directory {}", directory, e);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.forum.attachment;
+
+import com.example.forum.exception.AttachmentTooLargeException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Content-addressed file store for attachments. A file lives at <dir>/<aa>/<bb>/<sha256>, so identical
+// uploads share one file and a path never changes content. Uploads are streamed through a fixed buffer
+// into a temporary file while hashing and then renamed into place; nothing holds a whole file in heap.
+// Files are never deleted on request: several attachments may share one, so unreferenced files are
+// removed by deleteUnreferenced once they are older than a grace period.
+//
+// Every node must see every file, so with several nodes the directory has to be shared storage:
+// forum.attachments.single-node=false makes startup fail unless it is an absolute path.
+@Slf4j
+@Component
+public class AttachmentStore {
+
+    public record StoredFile(String sha256, long size) {}
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final String INCOMING = "incoming";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SWEEP_BATCH_SIZE = 500;
+    // Left-over temporary files from a crash; younger ones may belong to an upload on another node
+    private static final Duration STALE_UPLOAD = Duration.ofDays(1);
+
+    private final Path directory;
+    private final Path incoming;
+
+    // false when several nodes serve the forum
+    @Value("${forum.attachments.single-node:true}")
+    private boolean singleNode;
+
+    public AttachmentStore(@Value("${forum.attachments.dir:data/attachments}") Path directory) {
+        this.directory = directory;
+        this.incoming = directory.resolve(INCOMING);
+        deleteStaleUploads();
+    }
+
+    // A relative path resolves to each node's own working directory
+    @PostConstruct
+    void checkDirectory() {
+        if (!singleNode && !directory.isAbsolute()) {
+            throw new IllegalStateException(
+                    "forum.attachments.single-node=false requires forum.attachments.dir to be an absolute path on storage shared by all nodes");
+        }
+    }
+
+    // Streams the content into the store; returns only after the file is durable on disk
+    public StoredFile store(InputStream content, long maxBytes) {
+        Path temp = null;
+        try {
+            Files.createDirectories(incoming);
+            temp = Files.createTempFile(incoming, "upload-", ".tmp");
+            MessageDigest digest = sha256Digest();
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new AttachmentTooLargeException(maxBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    wrapped.clear().limit(read);
+                    while (wrapped.hasRemaining()) {
+                        channel.write(wrapped);
+                    }
+                }
+                channel.force(true);
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = path(sha256);
+            if (Files.exists(target)) {
+                // Dedup: keep the existing file and mark it as recently used for the orphan sweep
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    temp = null;
+                } catch (FileAlreadyExistsException e) {
+                    // The same content was stored concurrently
+                    log.debug("Attachment {} stored concurrently", sha256);
+                }
+            }
+            return new StoredFile(sha256, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store attachment", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    public Path path(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid attachment hash: " + sha256);
+        }
+        return directory.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public boolean exists(String sha256) {
+        return Files.isRegularFile(path(sha256));
+    }
+
+    // Deletes files last used before the cutoff that no attachment row references. The referenced
+    // function receives hashes in batches and returns those still in use.
+    public int deleteUnreferenced(Instant cutoff, Function<Collection<String>, Collection<String>> referenced) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int deleted = 0;
+        List<Path> candidates = new ArrayList<>();
+        try (Stream<Path> files = Files.find(directory, 3, (file, attributes) -> attributes.isRegularFile()
+                && SHA256.matcher(file.getFileName().toString()).matches()
+                && attributes.lastModifiedTime().toInstant().isBefore(cutoff))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                candidates.add(file);
+                if (candidates.size() == SWEEP_BATCH_SIZE) {
+                    deleted += deleteUnreferenced(candidates, cutoff, referenced);
+                    candidates.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan attachment store at " + directory, e);
+        }
+        if (!candidates.isEmpty()) {
+            deleted += deleteUnreferenced(candidates, cutoff, referenced);
+        }
+        return deleted;
+    }
+
+    private int deleteUnreferenced(List<Path> candidates, Instant cutoff,
+                                   Function<Collection<String>, Collection<String>> referenced) {
+        Collection<String> inUse = referenced.apply(candidates.stream()
+                .map(file -> file.getFileName().toString())
+                .toList());
+        int deleted = 0;
+        for (Path file : candidates) {
+            if (inUse.contains(file.getFileName().toString())) {
+                continue;
+            }
+            try {
+                // A dedup hit since the scan touched the file and is about to reference it again
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            } catch (NoSuchFileException e) {
+                // Deleted concurrently
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced attachment {}: {}", file, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    private void deleteStaleUploads() {
+        if (!Files.isDirectory(incoming)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(STALE_UPLOAD);
+        try (Stream<Path> files = Files.list(incoming)) {
+            for (Path file : files.toList()) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up incoming attachments in {}: {}", incoming, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete temporary attachment {}", file, e);
+        }
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
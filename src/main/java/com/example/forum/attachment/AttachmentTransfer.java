@@ -0,0 +1,122 @@
+package com.example.forum.attachment;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+// Writes a stored attachment as the HTTP response. The ETag is the content hash, so it is strong and
+// the same on every node; a single byte range is answered with 206, several ranges with the whole file.
+// On Tomcat the body goes through the connector's sendfile, which copies from the page cache to the
+// socket with FileChannel.transferTo; elsewhere transferTo writes into the servlet output stream.
+@Component
+public class AttachmentTransfer {
+
+    public record StoredAttachment(Path file, String sha256, String nome, String contentType) {}
+
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Tomcat's own threshold: below it a plain copy is cheaper than handing the file to the poller
+    static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    public void send(StoredAttachment attachment, CacheControl cacheControl,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = "\"" + attachment.sha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(attachment.file(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+            List<HttpRange> ranges = requestedRanges(request, etag);
+            if (ranges.size() == 1 && length > 0) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+
+            long count = end - start + 1;
+            response.setContentType(attachment.contentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(attachment.nome(), StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+            response.setContentLengthLong(count);
+            if (count == 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) && count >= SENDFILE_MIN_SIZE) {
+                // Tomcat sends the file after the servlet returns; the end offset is exclusive
+                request.setAttribute(SENDFILE_FILENAME, attachment.file().toRealPath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (count > 0) {
+                long sent = channel.transferTo(position, count, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                count -= sent;
+            }
+        }
+    }
+
+    // A Range is only honoured if If-Range is absent or still names the current content
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String etag) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range == null || (ifRange != null && !ifRange.trim().equals(etag))) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            // A malformed Range header is ignored and the whole file is sent
+            return List.of();
+        }
+    }
+
+    private boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+}
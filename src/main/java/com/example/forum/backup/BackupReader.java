@@ -0,0 +1,205 @@
+package com.example.forum.backup;
+
+import com.example.forum.exception.BackupFormatException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Reads an archive written by BackupWriter one table and one chunk at a time. Every chunk is inflated
+// and checked against its CRC and row count before any of its rows is handed out; any damage, including
+// an archive that stops before its END marker, surfaces as BackupFormatException.
+public final class BackupReader implements AutoCloseable {
+
+    public record Table(String name, List<String> columns) {}
+
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater();
+    private final Instant createdAt;
+    private byte[] compressed = new byte[0];
+    private byte[] raw = new byte[0];
+
+    private Table table;
+    private long tableRowCount;
+    private boolean finished;
+
+    public BackupReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        try {
+            if (this.in.readInt() != BackupWriter.MAGIC) {
+                throw new BackupFormatException("o arquivo não é um backup do fórum");
+            }
+            int version = this.in.readInt();
+            if (version != BackupWriter.VERSION) {
+                throw new BackupFormatException("versão " + version + " não suportada");
+            }
+            this.createdAt = Instant.ofEpochMilli(this.in.readLong());
+        } catch (EOFException e) {
+            throw new BackupFormatException("o arquivo está incompleto");
+        }
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    // Returns the next table, or null once the END marker has been read
+    public Table nextTable() throws IOException {
+        if (table != null) {
+            throw new IllegalStateException("Chunks of " + table.name() + " were not fully read");
+        }
+        if (finished) {
+            return null;
+        }
+        try {
+            byte marker = in.readByte();
+            if (marker == BackupWriter.END) {
+                finished = true;
+                return null;
+            }
+            expect(marker, BackupWriter.TABLE);
+            String name = in.readUTF();
+            int count = in.readInt();
+            if (count <= 0 || count > 1024) {
+                throw new BackupFormatException("número de colunas inválido na tabela " + name);
+            }
+            List<String> columns = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                columns.add(in.readUTF());
+            }
+            table = new Table(name, List.copyOf(columns));
+            tableRowCount = 0;
+            return table;
+        } catch (EOFException e) {
+            throw new BackupFormatException("o arquivo está incompleto");
+        }
+    }
+
+    // Returns the rows of the next chunk of the current table, or null at the end of the table
+    public List<Object[]> nextChunk() throws IOException {
+        if (table == null) {
+            throw new IllegalStateException("No table is being read");
+        }
+        try {
+            byte marker = in.readByte();
+            if (marker == BackupWriter.TABLE_END) {
+                long expected = in.readLong();
+                if (expected != tableRowCount) {
+                    throw new BackupFormatException("a tabela " + table.name() + " tem " + tableRowCount
+                            + " linhas, mas o arquivo declara " + expected);
+                }
+                table = null;
+                return null;
+            }
+            expect(marker, BackupWriter.CHUNK);
+            int rowCount = in.readInt();
+            int rawLength = in.readInt();
+            int compressedLength = in.readInt();
+            long checksum = in.readLong();
+            if (rowCount <= 0 || rawLength <= 0 || rawLength > BackupWriter.MAX_CHUNK_BYTES
+                    || compressedLength <= 0 || compressedLength > BackupWriter.MAX_CHUNK_BYTES + 1024) {
+                throw new BackupFormatException("bloco inválido na tabela " + table.name());
+            }
+            if (compressed.length < compressedLength) {
+                compressed = new byte[compressedLength];
+            }
+            in.readFully(compressed, 0, compressedLength);
+
+            if (raw.length < rawLength) {
+                raw = new byte[rawLength];
+            }
+            inflate(compressedLength, rawLength);
+            CRC32C crc = new CRC32C();
+            crc.update(raw, 0, rawLength);
+            if (crc.getValue() != checksum) {
+                throw new BackupFormatException("checksum divergente na tabela " + table.name());
+            }
+
+            DataInputStream rows = new DataInputStream(new ByteArrayInputStream(raw, 0, rawLength));
+            List<Object[]> chunk = new ArrayList<>(rowCount);
+            int columns = table.columns().size();
+            for (int i = 0; i < rowCount; i++) {
+                Object[] row = new Object[columns];
+                for (int c = 0; c < columns; c++) {
+                    row[c] = readValue(rows);
+                }
+                chunk.add(row);
+            }
+            if (rows.available() != 0) {
+                throw new BackupFormatException("bloco com bytes excedentes na tabela " + table.name());
+            }
+            tableRowCount += rowCount;
+            return chunk;
+        } catch (EOFException e) {
+            throw new BackupFormatException("o arquivo está incompleto");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    private void inflate(int compressedLength, int rawLength) {
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength || !inflater.finished()) {
+                throw new BackupFormatException("bloco corrompido na tabela " + table.name());
+            }
+        } catch (DataFormatException e) {
+            throw new BackupFormatException("bloco corrompido na tabela " + table.name());
+        }
+    }
+
+    private Object readValue(DataInputStream rows) throws IOException {
+        byte type = rows.readByte();
+        return switch (type) {
+            case BackupWriter.NULL -> null;
+            case BackupWriter.LONG -> rows.readLong();
+            case BackupWriter.BOOLEAN -> rows.readBoolean();
+            case BackupWriter.DOUBLE -> rows.readDouble();
+            case BackupWriter.TIMESTAMP -> LocalDateTime.ofEpochSecond(rows.readLong(), rows.readInt(), ZoneOffset.UTC);
+            case BackupWriter.STRING -> new String(readBytes(rows), StandardCharsets.UTF_8);
+            case BackupWriter.BYTES -> readBytes(rows);
+            default -> throw new BackupFormatException("tipo de valor " + type + " desconhecido na tabela " + table.name());
+        };
+    }
+
+    private byte[] readBytes(DataInputStream rows) throws IOException {
+        int length = rows.readInt();
+        if (length < 0 || length > rows.available()) {
+            throw new BackupFormatException("tamanho de valor inválido na tabela " + table.name());
+        }
+        byte[] bytes = new byte[length];
+        rows.readFully(bytes);
+        return bytes;
+    }
+
+    private void expect(byte marker, byte expected) {
+        if (marker != expected) {
+            throw new BackupFormatException("marcador " + marker + " inesperado");
+        }
+    }
+}
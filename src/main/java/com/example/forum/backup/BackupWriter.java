@@ -0,0 +1,183 @@
+package com.example.forum.backup;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+// Writes a backup archive. Tables follow one another; the rows of each are cut into chunks that are
+// deflated and checksummed on their own, so neither side ever holds more than one chunk in memory and
+// a reader rejects a damaged chunk before inserting anything from it:
+//
+//   archive  MAGIC (int), VERSION (int), created at (epoch millis), table*, END (byte)
+//   table    TABLE (byte), name (UTF), column count (int), column names (UTF)*, chunk*,
+//            TABLE_END (byte), row count (long)
+//   chunk    CHUNK (byte), row count (int), raw length (int), compressed length (int),
+//            CRC32C of the raw bytes (long), deflated rows
+//   row      per column a type tag (byte) followed by the value
+//
+// An archive cut short (for example a download that failed mid-stream) has no END marker and is
+// rejected as a whole.
+public final class BackupWriter {
+
+    static final int MAGIC = 0x46484250;
+    static final int VERSION = 1;
+
+    static final byte TABLE = 1;
+    static final byte CHUNK = 2;
+    static final byte TABLE_END = 3;
+    static final byte END = 4;
+
+    static final byte NULL = 0;
+    static final byte LONG = 1;
+    static final byte BOOLEAN = 2;
+    static final byte STRING = 3;
+    static final byte TIMESTAMP = 4;
+    static final byte DOUBLE = 5;
+    static final byte BYTES = 6;
+
+    // Upper bound for one chunk, also enforced by the reader
+    static final int MAX_CHUNK_BYTES = 16 * 1024 * 1024;
+
+    private final DataOutputStream out;
+    private final int chunkRows;
+    private final int chunkBytes;
+    private final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+    private final DataOutputStream rows = new DataOutputStream(raw);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] compressed = new byte[0];
+
+    private String table;
+    private int columns;
+    private int chunkRowCount;
+    private long tableRowCount;
+
+    public BackupWriter(OutputStream out, int chunkRows, int chunkBytes) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.chunkRows = chunkRows;
+        this.chunkBytes = Math.min(chunkBytes, MAX_CHUNK_BYTES / 2);
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+        this.out.writeLong(System.currentTimeMillis());
+    }
+
+    public void startTable(String name, List<String> columnNames) throws IOException {
+        if (table != null) {
+            throw new IllegalStateException("Table " + table + " was not ended");
+        }
+        table = name;
+        columns = columnNames.size();
+        tableRowCount = 0;
+        out.writeByte(TABLE);
+        out.writeUTF(name);
+        out.writeInt(columns);
+        for (String column : columnNames) {
+            out.writeUTF(column);
+        }
+    }
+
+    public void writeRow(Object[] values) throws IOException {
+        if (values.length != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " values for " + table + ", got " + values.length);
+        }
+        for (Object value : values) {
+            writeValue(value);
+        }
+        chunkRowCount++;
+        tableRowCount++;
+        if (chunkRowCount >= chunkRows || raw.size() >= chunkBytes) {
+            flushChunk();
+        }
+    }
+
+    // Returns the number of rows written for the table
+    public long endTable() throws IOException {
+        flushChunk();
+        out.writeByte(TABLE_END);
+        out.writeLong(tableRowCount);
+        table = null;
+        return tableRowCount;
+    }
+
+    public void finish() throws IOException {
+        if (table != null) {
+            throw new IllegalStateException("Table " + table + " was not ended");
+        }
+        out.writeByte(END);
+        out.flush();
+        deflater.end();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            rows.writeByte(NULL);
+        } else if (value instanceof Boolean bool) {
+            rows.writeByte(BOOLEAN);
+            rows.writeBoolean(bool);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            rows.writeByte(LONG);
+            rows.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            rows.writeByte(DOUBLE);
+            rows.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof LocalDateTime timestamp) {
+            rows.writeByte(TIMESTAMP);
+            rows.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            rows.writeInt(timestamp.getNano());
+        } else if (value instanceof byte[] bytes) {
+            rows.writeByte(BYTES);
+            rows.writeInt(bytes.length);
+            rows.write(bytes);
+        } else {
+            // TEXT columns may exceed writeUTF's 64 KB limit
+            byte[] utf8 = value.toString().getBytes(StandardCharsets.UTF_8);
+            rows.writeByte(STRING);
+            rows.writeInt(utf8.length);
+            rows.write(utf8);
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        if (chunkRowCount == 0) {
+            return;
+        }
+        byte[] bytes = raw.toByteArray();
+        if (bytes.length > MAX_CHUNK_BYTES) {
+            throw new IOException("Row too large for a backup chunk in table " + table);
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes);
+
+        deflater.reset();
+        deflater.setInput(bytes);
+        deflater.finish();
+        if (compressed.length < bytes.length + 64) {
+            compressed = new byte[bytes.length + 64];
+        }
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        out.writeByte(CHUNK);
+        out.writeInt(chunkRowCount);
+        out.writeInt(bytes.length);
+        out.writeInt(length);
+        out.writeLong(checksum.getValue());
+        out.write(compressed, 0, length);
+
+        raw.reset();
+        chunkRowCount = 0;
+    }
+}
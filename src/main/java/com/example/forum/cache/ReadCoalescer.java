@@ -0,0 +1,103 @@
+package com.example.forum.cache;
+
+import com.example.forum.config.ReadYourWritesTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Single-flight for hot reads: while a load for a key is running, concurrent callers for the same
+// key wait for its result instead of issuing the same queries. Results are shared between threads,
+// so loaders must return fully initialized values that callers only read.
+//
+// Each load runs in a read-only transaction of its own, so callers must not be transactional: a
+// caller waiting on someone else's load then holds no pooled connection. Callers with a recent write
+// pending on the read-your-writes tracker always load for themselves, since a load already in
+// flight may have started before their write committed.
+@Component
+public class ReadCoalescer {
+
+    private record Key(String read, Object id) {}
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+
+    @Value("${forum.read-coalescing.enabled:true}")
+    private boolean enabled;
+
+    // How long a caller waits on someone else's load before running its own
+    @Value("${forum.read-coalescing.timeout:PT2S}")
+    private Duration timeout;
+
+    public ReadCoalescer(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                         ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String read, Object id, Supplier<T> loader) {
+        Supplier<T> transactional = () -> readOnlyTransaction.execute(status -> loader.get());
+        if (!enabled || hasPendingWrite()) {
+            return transactional.get();
+        }
+        Key key = new Key(read, id);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return (T) await(read, running, transactional);
+        }
+
+        try {
+            T value = transactional.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private boolean hasPendingWrite() {
+        ReadYourWritesTracker tracker = readYourWritesTracker.getIfAvailable();
+        return tracker != null && tracker.isPinned();
+    }
+
+    private Object await(String read, CompletableFuture<Object> running, Supplier<?> loader) {
+        meterRegistry.counter("forum.reads.coalesced", "read", read).increment();
+        try {
+            return running.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            meterRegistry.counter("forum.reads.coalesce_timeouts", "read", read).increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        }
+    }
+}
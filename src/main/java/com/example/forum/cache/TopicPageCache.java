@@ -0,0 +1,162 @@
+package com.example.forum.cache;
+
+import com.example.forum.service.TopicsChanged;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rendered topic list pages, tagged with the ids of the topics they show. Reads are lock-free;
+// stores and invalidations are serialized so an entry rendered before an invalidation can never
+// be stored after it. When full, a store drops expired entries and then the least recently used.
+@Component
+public class TopicPageCache {
+
+    public record Entry(byte[] gzippedBody, String contentType, String cacheControl,
+                        Set<Long> topicIds, Instant expiresAt) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> keysByTopic = new HashMap<>();
+    // Tick of the last read or store of each entry
+    private final Map<String, Long> lastUsed = new ConcurrentHashMap<>();
+    private final AtomicLong ticks = new AtomicLong();
+    private volatile long generation;
+
+    @Value("${forum.http.page-cache.ttl:PT60S}")
+    private Duration ttl;
+
+    @Value("${forum.http.page-cache.max-entries:1000}")
+    private int maxEntries;
+
+    public Optional<Entry> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt().isBefore(Instant.now())) {
+            remove(key, entry);
+            return Optional.empty();
+        }
+        if (entry != null) {
+            lastUsed.computeIfPresent(key, (ignored, tick) -> ticks.incrementAndGet());
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    // Taken before rendering a page; put() discards the page if anything was invalidated since
+    public long generation() {
+        return generation;
+    }
+
+    public synchronized boolean put(String key, byte[] gzippedBody, String contentType, String cacheControl,
+                                    Set<Long> topicIds, long renderedAtGeneration) {
+        if (renderedAtGeneration != generation) {
+            return false;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            Instant now = Instant.now();
+            entries.forEach((existingKey, existing) -> {
+                if (existing.expiresAt().isBefore(now)) {
+                    remove(existingKey, existing);
+                }
+            });
+            while (entries.size() >= maxEntries) {
+                if (!evictLeastRecentlyUsed()) {
+                    break;
+                }
+            }
+        }
+
+        Entry previous = entries.put(key, new Entry(gzippedBody, contentType, cacheControl,
+                Set.copyOf(topicIds), Instant.now().plus(ttl)));
+        lastUsed.put(key, ticks.incrementAndGet());
+        if (previous != null) {
+            untag(key, previous);
+        }
+        topicIds.forEach(id -> keysByTopic.computeIfAbsent(id, ignored -> new HashSet<>()).add(key));
+        return true;
+    }
+
+    public synchronized void invalidate(Set<Long> topicIds) {
+        generation++;
+        for (Long topicId : topicIds) {
+            Set<String> keys = keysByTopic.remove(topicId);
+            if (keys != null) {
+                keys.forEach(key -> {
+                    Entry entry = entries.remove(key);
+                    if (entry != null) {
+                        lastUsed.remove(key);
+                        untag(key, entry);
+                    }
+                });
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        keysByTopic.clear();
+        lastUsed.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicsChanged(TopicsChanged event) {
+        if (event.listingChanged()) {
+            invalidateAll();
+        } else {
+            invalidate(event.topicIds());
+        }
+    }
+
+    private synchronized void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            lastUsed.remove(key);
+            untag(key, entry);
+        }
+    }
+
+    // A linear scan, run only when a store finds the cache full
+    private boolean evictLeastRecentlyUsed() {
+        String oldest = null;
+        long oldestTick = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> used : lastUsed.entrySet()) {
+            if (used.getValue() < oldestTick) {
+                oldest = used.getKey();
+                oldestTick = used.getValue();
+            }
+        }
+        if (oldest == null) {
+            return false;
+        }
+        Entry entry = entries.get(oldest);
+        if (entry != null) {
+            remove(oldest, entry);
+        } else {
+            lastUsed.remove(oldest);
+        }
+        return true;
+    }
+
+    private void untag(String key, Entry entry) {
+        for (Long topicId : entry.topicIds()) {
+            Set<String> keys = keysByTopic.get(topicId);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTopic.remove(topicId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.forum.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "forum.http.page-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class TopicPageCacheConfig {
+
+    // Registered ahead of Spring Security: the cached pages are public reads, so hits skip the
+    // security chain altogether.
+    @Bean
+    public FilterRegistrationBean<TopicPageCacheFilter> topicPageCacheFilter(
+            TopicPageCache topicPageCache,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${forum.http.page-cache.max-pages:3}") int maxPages) {
+        FilterRegistrationBean<TopicPageCacheFilter> registration = new FilterRegistrationBean<>(
+                new TopicPageCacheFilter(topicPageCache, objectMapper, maxPages, meterRegistry));
+        registration.addUrlPatterns(TopicPageCacheFilter.PATH);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.forum.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Serves the first pages of GET /topicos from TopicPageCache, already gzipped, without reaching
+// Spring Security, the controller or the database. Only the first pages of the plain listing, by
+// status and with the usual page sizes and sorts, are cached, so the key space stays bounded; date
+// filters and anything else go straight to the controller.
+public class TopicPageCacheFilter extends OncePerRequestFilter {
+
+    static final String PATH = "/topicos";
+    static final String CACHE_HEADER = "X-Page-Cache";
+
+    private static final Set<String> KEY_PARAMS = Set.of("status", "page", "size", "sort");
+    private static final Set<String> STATUSES = Set.of("", "OPEN", "CLOSED");
+    private static final Set<String> SIZES = Set.of("10", "20", "50");
+    private static final Set<String> SORTS = Set.of("dataCriacao,desc", "dataCriacao,asc");
+    private static final String DEFAULT_SIZE = "10";
+    private static final String DEFAULT_SORT = "dataCriacao,desc";
+
+    private final TopicPageCache cache;
+    private final ObjectMapper objectMapper;
+    private final int maxPages;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TopicPageCacheFilter(TopicPageCache cache, ObjectMapper objectMapper, int maxPages, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.objectMapper = objectMapper;
+        this.maxPages = maxPages;
+        this.hits = Counter.builder("forum.http.page_cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("forum.http.page_cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = cacheKey(request.getParameterMap());
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TopicPageCache.Entry cached = cache.get(key).orElse(null);
+        if (cached != null) {
+            hits.increment();
+            write(request, response, cached.gzippedBody(), cached.contentType(), cached.cacheControl(), "HIT");
+            return;
+        }
+
+        misses.increment();
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || contentType == null
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        byte[] gzipped = gzip(body);
+        String cacheControl = wrapper.getHeader(HttpHeaders.CACHE_CONTROL);
+        cache.put(key, gzipped, contentType, cacheControl, topicIds(body), generation);
+
+        // The controller's headers are already on the response; only the body is replaced
+        wrapper.resetBuffer();
+        write(request, response, gzipped, contentType, cacheControl, "MISS");
+    }
+
+    // Returns null when the request cannot be cached: unknown parameters or values, unparseable or deep pages
+    String cacheKey(Map<String, String[]> params) {
+        if (!KEY_PARAMS.containsAll(params.keySet())
+                || params.values().stream().anyMatch(values -> values.length > 1)) {
+            return null;
+        }
+        int page;
+        try {
+            page = Integer.parseInt(single(params, "page", "0"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        String status = single(params, "status", "");
+        String size = single(params, "size", DEFAULT_SIZE);
+        String sort = single(params, "sort", DEFAULT_SORT);
+        if (page < 0 || page >= maxPages || !STATUSES.contains(status) || !SIZES.contains(size)
+                || !SORTS.contains(sort)) {
+            return null;
+        }
+        return String.join("|", status, String.valueOf(page), size, sort);
+    }
+
+    private String single(Map<String, String[]> params, String name, String defaultValue) {
+        String[] values = params.get(name);
+        return values == null || values.length == 0 ? defaultValue : values[0].trim();
+    }
+
+    private Set<Long> topicIds(byte[] body) throws IOException {
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode topic : objectMapper.readTree(body).path("content")) {
+            if (topic.hasNonNull("id")) {
+                ids.add(topic.get("id").asLong());
+            }
+        }
+        return ids;
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, byte[] gzipped,
+                       String contentType, String cacheControl, String result) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(contentType);
+        if (cacheControl != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(CACHE_HEADER, result);
+
+        byte[] body = gzipped;
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        } else {
+            body = gunzip(gzipped);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip") || parts[0].trim().equals("*")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.forum.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    // BCrypt is CPU-bound, so bulk hashing gets its own pool sized to the cores it may use; 0 means
+    // half of the available processors, leaving the rest to request threads
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool passwordHashingPool(@Value("${forum.users.import.hash-parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0
+                ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.forum.config;
+
+import org.springdoc.core.configuration.SpringDocConfiguration;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springdoc.core.properties.SwaggerUiConfigProperties;
+import org.springdoc.webmvc.core.configuration.SpringDocWebMvcConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+// Renders the OpenAPI document at build time. The Maven build runs this in prepare-package, writing
+// static/api-docs.json (plus a gzipped copy) into the jar, so production can serve the document
+// without springdoc scanning controllers at runtime.
+//
+// Only the web layer is started, on a loopback port: controllers and exception handlers, with every
+// service they depend on replaced by a lazy proxy that is never called, so no database is needed.
+@ComponentScan(basePackages = "com.example.forum", useDefaultFilters = false, includeFilters =
+        @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = {Controller.class, ControllerAdvice.class}))
+@Import(OpenApiConfig.class)
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, JacksonAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class, ValidationAutoConfiguration.class,
+        ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class, SpringDocConfiguration.class, SpringDocConfigProperties.class,
+        SwaggerUiConfigProperties.class, SpringDocWebMvcConfiguration.class})
+public class OpenApiDocumentGenerator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: OpenApiDocumentGenerator <output directory>");
+        }
+        generate(Path.of(args[0]));
+    }
+
+    public static void generate(Path directory) throws IOException, InterruptedException {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(OpenApiDocumentGenerator.class)
+                        .web(WebApplicationType.SERVLET)
+                        .initializers(applicationContext -> ((DefaultListableBeanFactory) applicationContext
+                                .getBeanFactory()).setAutowireCandidateResolver(new LazyControllerDependencies()))
+                        .run("--server.address=127.0.0.1", "--server.port=0", "--springdoc.api-docs.enabled=true",
+                                "--spring.main.banner-mode=off")) {
+            String apiDocs = context.getEnvironment().getProperty("springdoc.api-docs.path", "/v3/api-docs");
+            HttpResponse<byte[]> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + context.getWebServer().getPort() + apiDocs)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("OpenAPI document request failed with status " + response.statusCode());
+            }
+            write(directory, response.body());
+        }
+    }
+
+    private static void write(Path directory, byte[] document) throws IOException {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("api-docs.json"), document);
+        try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(directory.resolve("api-docs.json.gz")))) {
+            gzip.write(document);
+        }
+    }
+
+    // Injects proxies for the collaborators of controllers and exception handlers; springdoc only
+    // inspects their mappings and never calls them. @Value parameters are resolved as usual.
+    private static class LazyControllerDependencies extends ContextAnnotationAutowireCandidateResolver {
+
+        @Override
+        protected boolean isLazy(DependencyDescriptor descriptor) {
+            Class<?> declaringClass = descriptor.getMember().getDeclaringClass();
+            boolean webLayer = AnnotatedElementUtils.hasAnnotation(declaringClass, Controller.class)
+                    || AnnotatedElementUtils.hasAnnotation(declaringClass, ControllerAdvice.class);
+            if (webLayer && descriptor.getAnnotation(Value.class) == null) {
+                return true;
+            }
+            return super.isLazy(descriptor);
+        }
+    }
+}
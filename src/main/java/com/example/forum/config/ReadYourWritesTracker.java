@@ -0,0 +1,140 @@
+package com.example.forum.config;
+
+import com.example.forum.domain.User;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Remembers which users committed a write recently so their reads stay on the primary until the
+// replicas have had time to apply it. Topic reads go through the anonymous chain and carry no user,
+// so a committed write also sets a short-lived cookie holding the end of the window, and any read
+// that sends it back is pinned as well, on whichever node serves it.
+public class ReadYourWritesTracker {
+
+    static final String COOKIE = "forum_rw";
+
+    private static final Object REGISTERED = ReadYourWritesTracker.class.getName() + ".REGISTERED";
+    private static final int CLEANUP_EVERY = 1024;
+
+    private final long windowNanos;
+    private final Map<Long, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final AtomicInteger pins = new AtomicInteger();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    // Called when a read-write transaction touches the primary; pins the user once it commits
+    public void recordWrite() {
+        Long userId = currentUserId();
+        HttpServletResponse response = currentResponse();
+        if ((userId == null && response == null) || windowNanos <= 0
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REGISTERED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REGISTERED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (userId != null) {
+                    pin(userId);
+                }
+                if (response != null) {
+                    setCookie(response);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REGISTERED);
+            }
+        });
+    }
+
+    public boolean isPinned() {
+        return isUserPinned() || hasPinCookie();
+    }
+
+    private boolean isUserPinned() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(userId, until);
+        return false;
+    }
+
+    void pin(Long userId) {
+        long now = System.nanoTime();
+        pinnedUntil.put(userId, now + windowNanos);
+        if (pins.incrementAndGet() % CLEANUP_EVERY == 0) {
+            pinnedUntil.values().removeIf(until -> until - now <= 0);
+        }
+    }
+
+    // The cookie holds the end of the window in epoch milliseconds. A value further out than one
+    // window was not set by us and is ignored, so a client cannot pin its reads indefinitely.
+    private void setCookie(HttpServletResponse response) {
+        Duration window = Duration.ofNanos(windowNanos);
+        ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(System.currentTimeMillis() + window.toMillis()))
+                .path("/")
+                .maxAge(Duration.ofSeconds(window.toSeconds() + 1))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private boolean hasPinCookie() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        Cookie cookie = WebUtils.getCookie(attributes.getRequest(), COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            long until = Long.parseLong(cookie.getValue());
+            return until > now && until - now <= Duration.ofNanos(windowNanos).toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private HttpServletResponse currentResponse() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getResponse();
+        }
+        return null;
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
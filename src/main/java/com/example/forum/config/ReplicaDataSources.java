@@ -0,0 +1,40 @@
+package com.example.forum.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One read-only pool per configured replica, shared by the router and the lag monitor
+public class ReplicaDataSources implements AutoCloseable {
+
+    private final Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+
+    public ReplicaDataSources(ReplicaProperties properties, DataSourceProperties primary) {
+        List<ReplicaProperties.Replica> replicas = properties.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaProperties.Replica replica = replicas.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setDriverClassName(primary.determineDriverClassName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+            dataSource.setReadOnly(true);
+            pools.put(dataSource.getPoolName(), dataSource);
+        }
+    }
+
+    public Map<String, DataSource> asMap() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
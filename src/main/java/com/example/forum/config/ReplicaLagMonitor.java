@@ -0,0 +1,80 @@
+package com.example.forum.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Polls each replica's replication status. A replica is only eligible for reads while its last
+// measured lag is known and within the configured maximum.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final long UNKNOWN = -1;
+
+    private final Map<String, JdbcTemplate> replicas;
+    private final long maxLagMillis;
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicas = new ConcurrentHashMap<>();
+        this.maxLagMillis = maxLag.toMillis();
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.put(name, new JdbcTemplate(dataSource));
+            lagMillis.put(name, UNKNOWN);
+            Gauge.builder("forum.datasource.replica.lag", lagMillis, lags -> lags.getOrDefault(name, UNKNOWN) / 1000.0)
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${forum.datasource.replica-lag-check-interval:PT5S}")
+    public void measure() {
+        replicas.forEach((name, jdbcTemplate) -> {
+            long lag = UNKNOWN;
+            try {
+                lag = readLagMillis(jdbcTemplate);
+            } catch (RuntimeException e) {
+                log.warn("Could not read replication status of {}: {}", name, e.getMessage());
+            }
+            Long previous = lagMillis.put(name, lag);
+            if (previous != null && isAcceptable(previous) != isAcceptable(lag)) {
+                log.info("Replica {} is now {} (lag {} ms)", name, isAcceptable(lag) ? "in rotation" : "out of rotation", lag);
+            }
+        });
+    }
+
+    public boolean isWithinLag(String name) {
+        return isAcceptable(lagMillis.getOrDefault(name, UNKNOWN));
+    }
+
+    long getLagMillis(String name) {
+        return lagMillis.getOrDefault(name, UNKNOWN);
+    }
+
+    void recordLag(String name, long lag) {
+        lagMillis.put(name, lag);
+    }
+
+    private boolean isAcceptable(long lag) {
+        return lag != UNKNOWN && lag <= maxLagMillis;
+    }
+
+    // Seconds_Behind_Source is NULL while replication is stopped, which keeps the replica out
+    private long readLagMillis(JdbcTemplate jdbcTemplate) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SHOW REPLICA STATUS");
+        if (rows.isEmpty()) {
+            return UNKNOWN;
+        }
+        Object seconds = rows.get(0).get("Seconds_Behind_Source");
+        return seconds instanceof Number number ? number.longValue() * 1000 : UNKNOWN;
+    }
+}
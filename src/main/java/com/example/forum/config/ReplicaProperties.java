@@ -0,0 +1,31 @@
+package com.example.forum.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "forum.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Replicas further behind than this are skipped until they catch up
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+
+    // How long a user's reads stay on the primary after one of their writes commits
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
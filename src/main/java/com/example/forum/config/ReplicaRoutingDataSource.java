@@ -0,0 +1,45 @@
+package com.example.forum.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to a replica in rotation and everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy so the key is resolved after the transaction
+// has declared itself read-only.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicas;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(List<String> replicas, ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = List.copyOf(replicas);
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.isPinned()) {
+            return PRIMARY;
+        }
+        List<String> eligible = replicas.stream().filter(lagMonitor::isWithinLag).toList();
+        if (eligible.isEmpty()) {
+            return PRIMARY;
+        }
+        return eligible.get(Math.floorMod(next.getAndIncrement(), eligible.size()));
+    }
+}
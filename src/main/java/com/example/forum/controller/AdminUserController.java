@@ -0,0 +1,113 @@
+package com.example.forum.controller;
+
+import com.example.forum.domain.UserPurgeJob;
+import com.example.forum.dto.ErrorResponse;
+import com.example.forum.dto.UserImportResponse;
+import com.example.forum.dto.UserPurgeJobResponse;
+import com.example.forum.service.UserImportService;
+import com.example.forum.service.UserPurgeService;
+import com.example.forum.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/admin/usuarios")
+@RequiredArgsConstructor
+@Tag(name = "Administração de Usuários", description = "Endpoints administrativos de usuários")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AdminUserController {
+
+    private final UserService userService;
+    private final UserPurgeService userPurgeService;
+    private final UserImportService userImportService;
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Excluir usuário",
+               description = "Desativa a conta imediatamente e agenda a exclusão do seu conteúdo em segundo plano")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Exclusão agendada",
+                    content = @Content(schema = @Schema(implementation = UserPurgeJobResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Acesso restrito a administradores",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<UserPurgeJobResponse> deleteUser(
+            @Parameter(description = "ID do usuário") @PathVariable Long id) {
+        
+        UserPurgeJob job = userService.deleteUser(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new UserPurgeJobResponse(job));
+    }
+
+    @GetMapping("/exclusoes")
+    @Operation(summary = "Listar exclusões de usuários", description = "Lista os jobs de exclusão mais recentes")
+    public ResponseEntity<Page<UserPurgeJobResponse>> listPurgeJobs(
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<UserPurgeJobResponse> response = userPurgeService.findJobs(pageable).map(UserPurgeJobResponse::new);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/exclusoes/{jobId}")
+    @Operation(summary = "Progresso da exclusão", description = "Retorna o progresso de um job de exclusão de usuário")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Progresso retornado com sucesso",
+                    content = @Content(schema = @Schema(implementation = UserPurgeJobResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<UserPurgeJobResponse> getPurgeJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(new UserPurgeJobResponse(userPurgeService.findJob(jobId)));
+    }
+
+    @PostMapping("/importacao")
+    @Operation(summary = "Importar usuários",
+               description = "Envia um arquivo CSV (text/csv, com cabeçalho nome,email,senha[,perfis]) ou NDJSON "
+                       + "(application/x-ndjson) como corpo da requisição; retorna os erros por linha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída, com as linhas rejeitadas",
+                    content = @Content(schema = @Schema(implementation = UserImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Formato do arquivo não suportado ou cabeçalho inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Acesso restrito a administradores",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest request) throws IOException {
+        UserImportResponse response = userImportService.importUsers(request.getInputStream(),
+                importFormat(request.getContentType()));
+        return ResponseEntity.ok(response);
+    }
+
+    private UserImportService.Format importFormat(String contentType) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType == null ? "" : contentType);
+            if ("csv".equals(mediaType.getSubtype())) {
+                return UserImportService.Format.CSV;
+            }
+            if (mediaType.getSubtype().endsWith("ndjson") || MediaType.APPLICATION_JSON.includes(mediaType)) {
+                return UserImportService.Format.NDJSON;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Reported below like any other unsupported type
+        }
+        throw new IllegalArgumentException("Envie o arquivo como text/csv ou application/x-ndjson");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.forum.controller;
+
+import com.example.forum.attachment.AttachmentTransfer;
+import com.example.forum.domain.User;
+import com.example.forum.dto.AttachmentResponse;
+import com.example.forum.dto.ErrorResponse;
+import com.example.forum.service.AttachmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+// Uploads take the file as the raw request body (not multipart), so it is streamed straight into the
+// attachment store instead of being spooled by the container first
+@RestController
+@RequestMapping("/topicos")
+@RequiredArgsConstructor
+@Tag(name = "Anexos", description = "Endpoints para envio e download de anexos de tópicos e respostas")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AttachmentController {
+
+    private final AttachmentService attachmentService;
+    private final AttachmentTransfer attachmentTransfer;
+
+    @Value("${forum.http.public-read-max-age:PT30S}")
+    private Duration publicReadMaxAge;
+
+    @PostMapping("/{topicId}/anexos")
+    @Operation(summary = "Anexar arquivo ao tópico",
+               description = "Envia o arquivo como corpo da requisição, com o Content-Type do arquivo e o nome no parâmetro nome")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Anexo criado com sucesso",
+                    content = @Content(schema = @Schema(implementation = AttachmentResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Usuário não é o autor do tópico",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Tópico não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "413", description = "Arquivo maior que o permitido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<AttachmentResponse> attachToTopic(
+            @Parameter(description = "ID do tópico") @PathVariable Long topicId,
+            @Parameter(description = "Nome do arquivo") @RequestParam String nome,
+            HttpServletRequest request,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+
+        AttachmentResponse attachment = attachmentService.attachToTopic(topicId, nome, request.getContentType(),
+                request.getContentLengthLong(), request.getInputStream(), currentUser);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    @PostMapping("/respostas/{responseId}/anexos")
+    @Operation(summary = "Anexar arquivo à resposta",
+               description = "Envia o arquivo como corpo da requisição, com o Content-Type do arquivo e o nome no parâmetro nome")
+    public ResponseEntity<AttachmentResponse> attachToResponse(
+            @Parameter(description = "ID da resposta") @PathVariable Long responseId,
+            @Parameter(description = "Nome do arquivo") @RequestParam String nome,
+            HttpServletRequest request,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+
+        AttachmentResponse attachment = attachmentService.attachToResponse(responseId, nome, request.getContentType(),
+                request.getContentLengthLong(), request.getInputStream(), currentUser);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    @GetMapping("/{topicId}/anexos")
+    @Operation(summary = "Listar anexos", description = "Lista os anexos do tópico e de suas respostas")
+    public ResponseEntity<List<AttachmentResponse>> listTopicAttachments(@PathVariable Long topicId) {
+        return ResponseEntity.ok()
+                .cacheControl(publicReadCacheControl())
+                .body(attachmentService.findByTopic(topicId));
+    }
+
+    @GetMapping("/anexos/{attachmentId}")
+    @Operation(summary = "Baixar anexo", description = "Suporta Range (um intervalo de bytes) e If-None-Match")
+    public void downloadAttachment(
+            @PathVariable Long attachmentId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        attachmentTransfer.send(attachmentService.open(attachmentId), publicReadCacheControl(), request, response);
+    }
+
+    @DeleteMapping("/anexos/{attachmentId}")
+    public ResponseEntity<Void> deleteAttachment(
+            @PathVariable Long attachmentId,
+            @AuthenticationPrincipal User currentUser) {
+
+        attachmentService.delete(attachmentId, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+
+    private CacheControl publicReadCacheControl() {
+        return CacheControl.maxAge(publicReadMaxAge).cachePublic();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.forum.controller;
+
+import com.example.forum.dto.BackupSummaryResponse;
+import com.example.forum.dto.ErrorResponse;
+import com.example.forum.service.BackupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// The archive is written straight into the response on the request thread; a failure midway leaves
+// the download without its END marker, which a restore rejects
+@RestController
+@RequestMapping("/admin/backup")
+@RequiredArgsConstructor
+@Tag(name = "Backup", description = "Backup e restauração completos dos dados do fórum")
+@SecurityRequirement(name = "Bearer Authentication")
+public class BackupController {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final BackupService backupService;
+
+    @GetMapping
+    @Operation(summary = "Gerar backup",
+               description = "Baixa um arquivo com usuários, perfis, cursos, tópicos e respostas lidos de um único snapshot")
+    public void backup(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("forum-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".fhbk")
+                .build()
+                .toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        backupService.backup(response.getOutputStream());
+    }
+
+    @PostMapping("/restauracao")
+    @Operation(summary = "Restaurar backup",
+               description = "Envia o arquivo de backup como corpo da requisição; a restauração é atômica")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Backup restaurado",
+                    content = @Content(schema = @Schema(implementation = BackupSummaryResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Arquivo de backup inválido ou corrompido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Acesso restrito a administradores",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "409", description = "O banco já contém dados e substituir não foi informado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BackupSummaryResponse> restore(
+            @Parameter(description = "Apaga os dados atuais antes de restaurar")
+            @RequestParam(defaultValue = "false") boolean substituir,
+            HttpServletRequest request) throws IOException {
+
+        return ResponseEntity.ok(backupService.restore(request.getInputStream(), substituir));
+    }
+}
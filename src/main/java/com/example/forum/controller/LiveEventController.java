@@ -0,0 +1,78 @@
+package com.example.forum.controller;
+
+import com.example.forum.dto.ErrorResponse;
+import com.example.forum.live.LiveEventHub;
+import com.example.forum.service.TopicService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Live feeds replacing the polling of GET /topicos/{id}/respostas. Public like the topic reads;
+// EventSource clients reconnect on their own and send Last-Event-ID to resume.
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Eventos ao vivo", description = "Server-Sent Events com a atividade de um tópico ou de um curso")
+public class LiveEventController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final LiveEventHub liveEventHub;
+    private final TopicService topicService;
+
+    @GetMapping(value = "/topicos/{topicId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar tópico ao vivo",
+               description = "Eventos response_created, solution_marked e status_changed do tópico; reinicio " +
+                             "indica que eventos foram perdidos e o tópico deve ser recarregado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fluxo de eventos aberto"),
+        @ApiResponse(responseCode = "404", description = "Tópico não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "409", description = "Tópico arquivado, sem atividade ao vivo",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "503", description = "Limite de conexões atingido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<SseEmitter> followTopic(
+            @Parameter(description = "ID do tópico") @PathVariable Long topicId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+
+        topicService.requireLiveTopic(topicId);
+        return stream(liveEventHub.subscribe(LiveEventHub.topicChannel(topicId), lastEventId));
+    }
+
+    @GetMapping(value = "/cursos/{cursoId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar curso ao vivo",
+               description = "Os mesmos eventos, para todos os tópicos do curso")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fluxo de eventos aberto"),
+        @ApiResponse(responseCode = "404", description = "Curso não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "503", description = "Limite de conexões atingido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<SseEmitter> followCourse(
+            @Parameter(description = "ID do curso") @PathVariable Long cursoId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+
+        topicService.requireCourse(cursoId);
+        return stream(liveEventHub.subscribe(LiveEventHub.courseChannel(cursoId), lastEventId));
+    }
+
+    // X-Accel-Buffering stops nginx-style proxies from holding events back
+    private ResponseEntity<SseEmitter> stream(SseEmitter emitter) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.forum.controller;
 
-import com.example.forum.domain.Response;
 import com.example.forum.domain.User;
 import com.example.forum.dto.CreateResponseRequest;
 import com.example.forum.dto.ErrorResponse;
@@ -16,11 +15,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -32,6 +34,9 @@ public class ResponseController {
 
     private final ResponseService responseService;
 
+    @Value("${forum.http.public-read-max-age:PT30S}")
+    private Duration publicReadMaxAge;
+
     @PostMapping("/{topicId}/respostas")
     @Operation(summary = "Criar resposta", 
                description = "Cria uma nova resposta para um tópico específico")
@@ -50,20 +55,18 @@ public class ResponseController {
             @Valid @RequestBody CreateResponseRequest request,
             @AuthenticationPrincipal User currentUser) {
         
-        Response response = responseService.createResponse(topicId, request, currentUser);
-        ResponseResponse responseDto = new ResponseResponse(response);
+        ResponseResponse responseDto = responseService.createResponse(topicId, request, currentUser);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
     @GetMapping("/{topicId}/respostas")
     public ResponseEntity<List<ResponseResponse>> listTopicResponses(@PathVariable Long topicId) {
-        List<Response> responses = responseService.findByTopic(topicId);
-        List<ResponseResponse> responseDtos = responses.stream()
-                .map(ResponseResponse::new)
-                .toList();
+        List<ResponseResponse> responseDtos = responseService.findByTopic(topicId);
         
-        return ResponseEntity.ok(responseDtos);
+        return ResponseEntity.ok()
+                .cacheControl(publicReadCacheControl())
+                .body(responseDtos);
     }
 
     @PutMapping("/respostas/{responseId}/solucao")
@@ -71,8 +74,7 @@ public class ResponseController {
             @PathVariable Long responseId,
             @AuthenticationPrincipal User currentUser) {
         
-        Response response = responseService.markAsSolution(responseId, currentUser);
-        ResponseResponse responseDto = new ResponseResponse(response);
+        ResponseResponse responseDto = responseService.markAsSolution(responseId, currentUser);
         
         return ResponseEntity.ok(responseDto);
     }
@@ -82,8 +84,7 @@ public class ResponseController {
             @PathVariable Long responseId,
             @AuthenticationPrincipal User currentUser) {
         
-        Response response = responseService.unmarkAsSolution(responseId, currentUser);
-        ResponseResponse responseDto = new ResponseResponse(response);
+        ResponseResponse responseDto = responseService.unmarkAsSolution(responseId, currentUser);
         
         return ResponseEntity.ok(responseDto);
     }
@@ -100,7 +101,13 @@ public class ResponseController {
     @GetMapping("/{topicId}/solucao")
     public ResponseEntity<ResponseResponse> getTopicSolution(@PathVariable Long topicId) {
         return responseService.findSolutionByTopic(topicId)
-                .map(response -> ResponseEntity.ok(new ResponseResponse(response)))
+                .map(response -> ResponseEntity.ok()
+                        .cacheControl(publicReadCacheControl())
+                        .body(response))
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    private CacheControl publicReadCacheControl() {
+        return CacheControl.maxAge(publicReadMaxAge).cachePublic();
+    }
+}
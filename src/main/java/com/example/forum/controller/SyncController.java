@@ -0,0 +1,47 @@
+package com.example.forum.controller;
+
+import com.example.forum.dto.ErrorResponse;
+import com.example.forum.dto.SyncResponse;
+import com.example.forum.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Public like the topic reads: it returns the same content, only as changes since the client's token
+@RestController
+@RequestMapping("/sync")
+@RequiredArgsConstructor
+@Tag(name = "Sincronização", description = "Sincronização incremental de tópicos, respostas e remoções")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    @Operation(summary = "Buscar alterações desde a última sincronização",
+               description = "Sem since, retorna todos os tópicos e respostas; com o token proximo da chamada anterior, " +
+                             "apenas o que foi criado, alterado ou removido desde então. Repita enquanto maisResultados for true.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Alterações retornadas com sucesso",
+                    content = @Content(schema = @Schema(implementation = SyncResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Token de sincronização inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "410", description = "Token expirado; sincronize novamente sem since",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<SyncResponse> sync(
+            @Parameter(description = "Token proximo da sincronização anterior") @RequestParam(required = false) String since,
+            @Parameter(description = "Máximo de itens por tipo (até 1000)") @RequestParam(defaultValue = "200") int limite) {
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(syncService.sync(since, limite));
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.forum.controller;
 
-import com.example.forum.domain.Topic;
 import com.example.forum.domain.TopicStatus;
 import com.example.forum.domain.User;
 import com.example.forum.dto.CreateTopicRequest;
@@ -18,15 +17,22 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/topicos")
 @RequiredArgsConstructor
@@ -36,6 +42,10 @@ public class TopicController {
 
     private final TopicService topicService;
 
+    // Reads are served anonymously and are the same for every caller, so shared caches may keep them
+    @Value("${forum.http.public-read-max-age:PT30S}")
+    private Duration publicReadMaxAge;
+
     @PostMapping
     @Operation(summary = "Criar novo tópico", 
                description = "Cria um novo tópico no fórum")
@@ -53,52 +63,74 @@ public class TopicController {
             @Valid @RequestBody CreateTopicRequest request,
             @AuthenticationPrincipal User currentUser) {
         
-        Topic topic = topicService.createTopic(request, currentUser);
-        TopicResponse response = new TopicResponse(topic);
+        TopicResponse response = topicService.createTopic(request, currentUser);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping
     @Operation(summary = "Listar tópicos", 
-               description = "Lista todos os tópicos com paginação e filtro opcional por status")
+               description = "Lista todos os tópicos com paginação e filtros opcionais por status e período de criação")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de tópicos retornada com sucesso")
     })
     public ResponseEntity<Page<TopicResponse>> listTopics(
             @Parameter(description = "Filtrar por status do tópico")
             @RequestParam(required = false) TopicStatus status,
+            @Parameter(description = "Criados a partir desta data (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Criados até esta data, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
             @Parameter(description = "Parâmetros de paginação")
             @PageableDefault(size = 10, sort = "dataCriacao", direction = Sort.Direction.DESC) Pageable pageable) {
         
-        Page<Topic> topics;
-        if (status != null) {
-            topics = topicService.findByStatus(status, pageable);
+        Page<TopicResponse> response;
+        if (desde != null || ate != null) {
+            response = topicService.findCreatedBetween(status, desde, ate, pageable);
+        } else if (status != null) {
+            response = topicService.findByStatus(status, pageable);
         } else {
-            topics = topicService.findAll(pageable);
+            response = topicService.findAll(pageable);
         }
         
-        Page<TopicResponse> response = topics.map(TopicResponse::new);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .cacheControl(publicReadCacheControl())
+                .body(response);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TopicResponse> getTopicById(@PathVariable Long id) {
-        Topic topic = topicService.findById(id);
-        TopicResponse response = new TopicResponse(topic);
-        return ResponseEntity.ok(response);
+        TopicResponse response = topicService.findById(id);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(response.version()))
+                .cacheControl(publicReadCacheControl())
+                .body(response);
     }
 
     @PutMapping("/{id}")
+    @Operation(summary = "Atualizar tópico",
+               description = "Atualiza título e mensagem. Envie o ETag recebido no header If-Match " +
+                             "para evitar sobrescrever alterações concorrentes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tópico atualizado com sucesso",
+                    content = @Content(schema = @Schema(implementation = TopicResponse.class))),
+        @ApiResponse(responseCode = "409", description = "Tópico alterado concorrentemente",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
     public ResponseEntity<TopicResponse> updateTopic(
             @PathVariable Long id,
             @Valid @RequestBody UpdateTopicRequest request,
+            @Parameter(description = "ETag da versão editada")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User currentUser) {
         
-        Topic topic = topicService.updateTopic(id, request, currentUser);
-        TopicResponse response = new TopicResponse(topic);
+        TopicResponse response = topicService.updateTopic(id, request, parseVersion(ifMatch), currentUser);
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(response.version()))
+                .body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -115,8 +147,7 @@ public class TopicController {
             @PathVariable Long id,
             @AuthenticationPrincipal User currentUser) {
         
-        Topic topic = topicService.closeTopic(id, currentUser);
-        TopicResponse response = new TopicResponse(topic);
+        TopicResponse response = topicService.closeTopic(id, currentUser);
         
         return ResponseEntity.ok(response);
     }
@@ -126,8 +157,7 @@ public class TopicController {
             @PathVariable Long id,
             @AuthenticationPrincipal User currentUser) {
         
-        Topic topic = topicService.openTopic(id, currentUser);
-        TopicResponse response = new TopicResponse(topic);
+        TopicResponse response = topicService.openTopic(id, currentUser);
         
         return ResponseEntity.ok(response);
     }
@@ -138,9 +168,27 @@ public class TopicController {
             @RequestParam TopicStatus status,
             @AuthenticationPrincipal User currentUser) {
         
-        Topic topic = topicService.updateTopicStatus(id, status, currentUser);
-        TopicResponse response = new TopicResponse(topic);
+        TopicResponse response = topicService.updateTopicStatus(id, status, currentUser);
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.split(",")[0].trim();
+        if (etag.startsWith("W/")) {
+            etag = etag.substring(2);
+        }
+        try {
+            return Long.valueOf(etag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match inválido: " + ifMatch);
+        }
+    }
+
+    private CacheControl publicReadCacheControl() {
+        return CacheControl.maxAge(publicReadMaxAge).cachePublic();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.forum.controller;
+
+import com.example.forum.domain.User;
+import com.example.forum.dto.BulkModerationRequest;
+import com.example.forum.dto.BulkModerationResponse;
+import com.example.forum.dto.ErrorResponse;
+import com.example.forum.service.TopicModerationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/topicos/moderacao")
+@RequiredArgsConstructor
+@Tag(name = "Moderação", description = "Ações de moderação em lote")
+@SecurityRequirement(name = "Bearer Authentication")
+public class TopicModerationController {
+
+    private final TopicModerationService topicModerationService;
+
+    @PostMapping
+    @Operation(summary = "Moderar tópicos em lote",
+               description = "Fecha, reabre, exclui ou move vários tópicos em uma única requisição " +
+                             "e retorna o resultado de cada id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ação aplicada",
+                    content = @Content(schema = @Schema(implementation = BulkModerationResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Usuário não é moderador",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Curso de destino não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BulkModerationResponse> moderate(
+            @Valid @RequestBody BulkModerationRequest request,
+            @AuthenticationPrincipal User currentUser) {
+        
+        return ResponseEntity.ok(topicModerationService.apply(request, currentUser));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.forum.controller;
+
+import com.example.forum.dto.CreateWebhookRequest;
+import com.example.forum.dto.ErrorResponse;
+import com.example.forum.dto.WebhookDeadLetterResponse;
+import com.example.forum.dto.WebhookSubscriptionResponse;
+import com.example.forum.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/webhooks")
+@RequiredArgsConstructor
+@Tag(name = "Webhooks", description = "Notificações de tópicos criados e resolvidos para integrações")
+@SecurityRequirement(name = "Bearer Authentication")
+public class WebhookController {
+
+    private final WebhookService webhookService;
+
+    @PostMapping
+    @Operation(summary = "Cadastrar webhook",
+               description = "Registra uma URL que recebe os eventos escolhidos; o segredo de assinatura só é retornado aqui")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Webhook cadastrado",
+                    content = @Content(schema = @Schema(implementation = WebhookSubscriptionResponse.class))),
+        @ApiResponse(responseCode = "400", description = "URL ou eventos inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Acesso restrito a administradores",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<WebhookSubscriptionResponse> createWebhook(@Valid @RequestBody CreateWebhookRequest request) {
+        WebhookSubscriptionResponse response = new WebhookSubscriptionResponse(webhookService.create(request), true);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar webhooks", description = "Lista os webhooks cadastrados")
+    public ResponseEntity<List<WebhookSubscriptionResponse>> listWebhooks() {
+        return ResponseEntity.ok(webhookService.findAll().stream().map(WebhookSubscriptionResponse::new).toList());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Remover webhook", description = "Remove o webhook e descarta as entregas pendentes e com falha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Webhook removido"),
+        @ApiResponse(responseCode = "404", description = "Webhook não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> deleteWebhook(@Parameter(description = "ID do webhook") @PathVariable Long id) {
+        webhookService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/falhas")
+    @Operation(summary = "Listar entregas com falha",
+               description = "Eventos que esgotaram as tentativas de entrega, dos mais recentes para os mais antigos")
+    public ResponseEntity<Page<WebhookDeadLetterResponse>> listDeadLetters(@PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(webhookService.findDeadLetters(pageable).map(WebhookDeadLetterResponse::new));
+    }
+
+    @PostMapping("/falhas/{id}/reenvio")
+    @Operation(summary = "Reenviar entrega com falha", description = "Devolve o evento à fila de entrega com as tentativas zeradas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Evento devolvido à fila"),
+        @ApiResponse(responseCode = "404", description = "Entrega não encontrada",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> retryDeadLetter(@Parameter(description = "ID da entrega com falha") @PathVariable Long id) {
+        webhookService.retryDeadLetter(id);
+        return ResponseEntity.accepted().build();
+    }
+}
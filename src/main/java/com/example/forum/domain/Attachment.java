@@ -0,0 +1,61 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Metadata of a file attached to a topic or to one of its responses; the content is in the
+// AttachmentStore under sha256
+@Entity
+@Table(name = "attachments")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class Attachment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "topico_id")
+    private Long topicoId;
+    
+    // Null for files attached to the topic itself
+    @Column(name = "resposta_id")
+    private Long respostaId;
+    
+    @Column(name = "autor_id")
+    private Long autorId;
+    
+    private String nome;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    private long tamanho;
+    
+    private String sha256;
+    
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+    
+    public Attachment(Long topicoId, Long respostaId, Long autorId, String nome, String contentType,
+                      long tamanho, String sha256) {
+        this.topicoId = topicoId;
+        this.respostaId = respostaId;
+        this.autorId = autorId;
+        this.nome = nome;
+        this.contentType = contentType;
+        this.tamanho = tamanho;
+        this.sha256 = sha256;
+        this.dataCriacao = LocalDateTime.now();
+    }
+    
+    public boolean isAuthor(User user) {
+        return user != null && Objects.equals(autorId, user.getId());
+    }
+}
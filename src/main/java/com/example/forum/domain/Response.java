@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 @Entity
 @Table(name = "responses")
@@ -26,16 +27,28 @@ public class Response {
     @Column(name = "data_criacao")
     private LocalDateTime dataCriacao;
     
+    // Maintained by the database on every update, bulk updates included; read by delta sync
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime dataAtualizacao;
+    
+    // Commit order of the last change, stamped by SyncChangeSequencer; 0 while the write is pending
+    @Column(name = "change_seq", columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long changeSeq;
+    
     private Boolean solucao = false;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "topico_id")
     private Topic topico;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "autor_id")
     private User autor;
     
+    @Version
+    private Long version;
+    
     public Response(String mensagem, Topic topico, User autor) {
         this.mensagem = mensagem;
         this.topico = topico;
@@ -52,7 +65,14 @@ public class Response {
         this.solucao = false;
     }
     
+    // Compares ids so a lazy author proxy is not initialized
     public boolean isAuthor(User user) {
-        return this.autor.equals(user);
+        return user != null && Objects.equals(this.autor.getId(), user.getId());
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void markChanged() {
+        this.changeSeq = 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scheduler_leases")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "name")
+public class SchedulerLease {
+    
+    @Id
+    private String name;
+    
+    private String owner;
+    
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
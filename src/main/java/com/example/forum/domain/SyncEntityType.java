@@ -0,0 +1,8 @@
+package com.example.forum.domain;
+
+public enum SyncEntityType {
+    TOPIC,
+    RESPONSE,
+    // A disabled author: everything they wrote is being purged
+    USER
+}
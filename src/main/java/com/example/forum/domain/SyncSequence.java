@@ -0,0 +1,26 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The single row SyncChangeSequencer draws change sequence values from. Mapped so that schemas
+// built by Hibernate have the table too; the sequencer itself updates it with plain SQL.
+@Entity
+@Table(name = "sync_sequence")
+@Getter
+@NoArgsConstructor
+public class SyncSequence {
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "current_seq")
+    private long currentSeq;
+    
+    // Set by a replacing restore; older sync tokens are expired
+    @Column(name = "reset_at", columnDefinition = "TIMESTAMP(6) NULL")
+    private LocalDateTime resetAt;
+}
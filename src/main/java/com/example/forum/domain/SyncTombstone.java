@@ -0,0 +1,60 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A deletion reported by GET /sync, so clients can drop what they copied earlier. Removing a topic
+// also removes its responses; removing a user removes every topic and response they wrote.
+@Entity
+@Table(name = "sync_tombstones")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class SyncTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    private SyncEntityType tipo;
+    
+    @Column(name = "entidade_id")
+    private Long entidadeId;
+    
+    // Set for responses only
+    @Column(name = "topico_id")
+    private Long topicoId;
+    
+    // Database time, like the retention cleanup's cutoff
+    @Column(name = "removido_em", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6)")
+    private LocalDateTime removidoEm;
+    
+    // Stamped by SyncChangeSequencer when the deleting transaction commits; 0 until then
+    @Column(name = "change_seq", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long changeSeq;
+    
+    public SyncTombstone(SyncEntityType tipo, Long entidadeId, Long topicoId) {
+        this.tipo = tipo;
+        this.entidadeId = entidadeId;
+        this.topicoId = topicoId;
+    }
+    
+    public static SyncTombstone topic(Long topicId) {
+        return new SyncTombstone(SyncEntityType.TOPIC, topicId, null);
+    }
+    
+    public static SyncTombstone response(Long responseId, Long topicId) {
+        return new SyncTombstone(SyncEntityType.RESPONSE, responseId, topicId);
+    }
+    
+    public static SyncTombstone user(Long userId) {
+        return new SyncTombstone(SyncEntityType.USER, userId, null);
+    }
+}
@@ -5,9 +5,11 @@ import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Table(name = "topics")
@@ -29,20 +31,37 @@ public class Topic {
     @Column(name = "data_criacao")
     private LocalDateTime dataCriacao;
     
+    // Maintained by the database on every update, bulk updates included; read by delta sync
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime dataAtualizacao;
+    
+    // Commit order of the last change, stamped by SyncChangeSequencer; 0 while the write is pending
+    @Column(name = "change_seq", columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long changeSeq;
+    
     @Enumerated(EnumType.STRING)
     private TopicStatus status;
     
-    @ManyToOne
+    @Column(name = "solution_response_id")
+    private Long solucaoId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "autor_id")
     private User autor;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "curso_id")
     private Course curso;
     
-    @OneToMany(mappedBy = "topico", cascade = CascadeType.ALL)
+    // Initialized for a whole page of topics at once when listings render their responses
+    @OneToMany(mappedBy = "topico")
+    @BatchSize(size = 50)
     private List<Response> respostas;
     
+    @Version
+    private Long version;
+    
     public Topic(String titulo, String mensagem, User autor, Course curso) {
         this.titulo = titulo;
         this.mensagem = mensagem;
@@ -65,7 +84,14 @@ public class Topic {
         this.status = TopicStatus.OPEN;
     }
     
+    // Compares ids so a lazy author proxy is not initialized
     public boolean isAuthor(User user) {
-        return this.autor.equals(user);
+        return user != null && Objects.equals(this.autor.getId(), user.getId());
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void markChanged() {
+        this.changeSeq = 0;
     }
-}
\ No newline at end of file
+}
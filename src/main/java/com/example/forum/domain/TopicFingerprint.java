@@ -0,0 +1,47 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Claim on a topic's title and message, which must be unique among live topics. topics is
+// partitioned and MySQL only allows unique keys that contain the partition column, so the old
+// unique_topic constraint lives on as the primary key of this table. Rows stay behind when their
+// topic is deleted or archived; TopicService takes such a row over instead of rejecting the topic.
+//
+// Like unique_topic, the hash covers the title and the first 255 characters of the message. It
+// compares them byte for byte, not by collation.
+@Entity
+@Table(name = "topic_fingerprints")
+@Getter
+@NoArgsConstructor
+public class TopicFingerprint {
+    
+    private static final int MESSAGE_PREFIX = 255;
+    
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    @Column(name = "topico_id", nullable = false)
+    private Long topicoId;
+    
+    // V14 computes the same value in SQL for the topics that existed before the table
+    public static String hash(String titulo, String mensagem) {
+        String prefix = mensagem.codePointCount(0, mensagem.length()) > MESSAGE_PREFIX
+                ? mensagem.substring(0, mensagem.offsetByCodePoints(0, MESSAGE_PREFIX))
+                : mensagem;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((titulo + '\0' + prefix).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,5 +2,6 @@ package com.example.forum.domain;
 
 public enum TopicStatus {
     OPEN,
-    CLOSED
-}
\ No newline at end of file
+    CLOSED,
+    DELETING
+}
@@ -5,6 +5,11 @@ import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +22,7 @@ import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
+@BatchSize(size = 50)
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,7 +43,15 @@ public class User implements UserDetails {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    private Boolean ativo = true;
+    
+    // Loaded by a separate select instead of a join, so it can be served from the second-level cache.
+    // Initialized when the user is loaded for authentication, since authorities are read after the
+    // transaction ends.
+    @ManyToMany
+    @Fetch(FetchMode.SELECT)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(name = "user_profiles",
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "profile_id"))
@@ -55,6 +69,11 @@ public class User implements UserDetails {
         this.senha = senha;
         this.perfis = perfis;
         this.createdAt = LocalDateTime.now();
+        this.ativo = true;
+    }
+    
+    public void disable() {
+        this.ativo = false;
     }
     
     @Override
@@ -91,7 +110,7 @@ public class User implements UserDetails {
     
     @Override
     public boolean isEnabled() {
-        return true;
+        return !Boolean.FALSE.equals(ativo);
     }
     
     public boolean hasRole(String roleName) {
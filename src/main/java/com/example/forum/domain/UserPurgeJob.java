@@ -0,0 +1,79 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_purge_jobs")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class UserPurgeJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    private UserPurgeStatus status;
+    
+    @Column(name = "topics_deleted")
+    private long topicsDeleted;
+    
+    @Column(name = "responses_deleted")
+    private long responsesDeleted;
+    
+    private String error;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    public UserPurgeJob(Long userId) {
+        this.userId = userId;
+        this.status = UserPurgeStatus.PENDING;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public void start() {
+        this.status = UserPurgeStatus.RUNNING;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public void recordProgress(long topics, long responses) {
+        this.topicsDeleted += topics;
+        this.responsesDeleted += responses;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public void complete() {
+        this.status = UserPurgeStatus.COMPLETED;
+        this.updatedAt = LocalDateTime.now();
+        this.finishedAt = this.updatedAt;
+    }
+    
+    public void fail(String error) {
+        this.status = UserPurgeStatus.FAILED;
+        this.error = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        this.updatedAt = LocalDateTime.now();
+        this.finishedAt = this.updatedAt;
+    }
+    
+    public boolean isActive() {
+        return status == UserPurgeStatus.PENDING || status == UserPurgeStatus.RUNNING;
+    }
+}
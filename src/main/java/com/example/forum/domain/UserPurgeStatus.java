@@ -0,0 +1,8 @@
+package com.example.forum.domain;
+
+public enum UserPurgeStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,51 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// An event the worker gave up on after forum.webhooks.max-attempts failed deliveries
+@Entity
+@Table(name = "webhook_dead_letters")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class WebhookDeadLetter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "subscription_id")
+    private Long subscriptionId;
+    
+    @Enumerated(EnumType.STRING)
+    private WebhookEvent evento;
+    
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+    
+    private int tentativas;
+    
+    @Column(name = "ultimo_erro")
+    private String ultimoErro;
+    
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+    
+    @Column(name = "data_falha")
+    private LocalDateTime dataFalha;
+    
+    public WebhookDeadLetter(WebhookOutboxEntry entry) {
+        this.subscriptionId = entry.getSubscriptionId();
+        this.evento = entry.getEvento();
+        this.payload = entry.getPayload();
+        this.tentativas = entry.getTentativas();
+        this.ultimoErro = entry.getUltimoErro();
+        this.dataCriacao = entry.getDataCriacao();
+        this.dataFalha = LocalDateTime.now();
+    }
+}
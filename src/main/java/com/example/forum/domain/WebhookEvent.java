@@ -0,0 +1,6 @@
+package com.example.forum.domain;
+
+public enum WebhookEvent {
+    TOPIC_CREATED,
+    TOPIC_SOLVED
+}
@@ -0,0 +1,60 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One event waiting to be delivered to one subscription
+@Entity
+@Table(name = "webhook_outbox")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class WebhookOutboxEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "subscription_id")
+    private Long subscriptionId;
+    
+    @Enumerated(EnumType.STRING)
+    private WebhookEvent evento;
+    
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+    
+    private int tentativas;
+    
+    @Column(name = "proxima_tentativa")
+    private LocalDateTime proximaTentativa;
+    
+    @Column(name = "ultimo_erro")
+    private String ultimoErro;
+    
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+    
+    public WebhookOutboxEntry(Long subscriptionId, WebhookEvent evento, String payload) {
+        this.subscriptionId = subscriptionId;
+        this.evento = evento;
+        this.payload = payload;
+        this.dataCriacao = LocalDateTime.now();
+        this.proximaTentativa = this.dataCriacao;
+    }
+    
+    // A dead letter sent again starts over with a fresh attempt count
+    public WebhookOutboxEntry(WebhookDeadLetter deadLetter) {
+        this(deadLetter.getSubscriptionId(), deadLetter.getEvento(), deadLetter.getPayload());
+    }
+    
+    public void recordFailure(String erro, LocalDateTime proximaTentativa) {
+        this.tentativas++;
+        this.ultimoErro = erro;
+        this.proximaTentativa = proximaTentativa;
+    }
+}
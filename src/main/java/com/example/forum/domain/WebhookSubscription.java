@@ -0,0 +1,58 @@
+package com.example.forum.domain;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Entity
+@Table(name = "webhook_subscriptions")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class WebhookSubscription {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    private String url;
+    
+    // Signs every delivery (HMAC-SHA256) so the receiver can check it came from the forum
+    private String segredo;
+    
+    // Event names separated by commas
+    private String eventos;
+    
+    // Most batches in flight to this endpoint at once
+    @Column(name = "max_concorrencia")
+    private int maxConcorrencia;
+    
+    private boolean ativo;
+    
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+    
+    public WebhookSubscription(String url, String segredo, Collection<WebhookEvent> eventos, int maxConcorrencia) {
+        this.url = url;
+        this.segredo = segredo;
+        this.eventos = eventos.stream().map(WebhookEvent::name).sorted().collect(Collectors.joining(","));
+        this.maxConcorrencia = maxConcorrencia;
+        this.ativo = true;
+        this.dataCriacao = LocalDateTime.now();
+    }
+    
+    public List<WebhookEvent> getEventList() {
+        return Arrays.stream(eventos.split(",")).map(WebhookEvent::valueOf).toList();
+    }
+    
+    public boolean accepts(WebhookEvent event) {
+        return ativo && getEventList().contains(event);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.forum.dto;
+
+import com.example.forum.domain.Attachment;
+
+import java.time.LocalDateTime;
+
+public record AttachmentResponse(
+        Long id,
+        Long topicoId,
+        Long respostaId,
+        String nome,
+        String contentType,
+        long tamanho,
+        String sha256,
+        LocalDateTime dataCriacao
+) {
+    public AttachmentResponse(Attachment attachment) {
+        this(
+                attachment.getId(),
+                attachment.getTopicoId(),
+                attachment.getRespostaId(),
+                attachment.getNome(),
+                attachment.getContentType(),
+                attachment.getTamanho(),
+                attachment.getSha256(),
+                attachment.getDataCriacao()
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.forum.dto;
+
+import java.util.Map;
+
+public record BackupSummaryResponse(
+        Map<String, Long> linhas,
+        long totalLinhas,
+        long duracaoMs
+) {
+    public BackupSummaryResponse(Map<String, Long> linhas, long duracaoMs) {
+        this(linhas, linhas.values().stream().mapToLong(Long::longValue).sum(), duracaoMs);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.forum.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkModerationRequest(
+        @NotNull(message = "Ação é obrigatória")
+        Action acao,
+        
+        @NotEmpty(message = "Informe ao menos um tópico")
+        @Size(max = 5000, message = "Máximo de 5000 tópicos por requisição")
+        List<@NotNull Long> topicoIds,
+        
+        // Destination course, required for MOVE
+        Long cursoId
+) {
+    public enum Action {
+        CLOSE, REOPEN, DELETE, MOVE
+    }
+}
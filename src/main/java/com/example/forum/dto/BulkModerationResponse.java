@@ -0,0 +1,17 @@
+package com.example.forum.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record BulkModerationResponse(
+        BulkModerationRequest.Action acao,
+        int solicitados,
+        Map<Outcome, Long> totais,
+        List<Result> resultados
+) {
+    public enum Outcome {
+        UPDATED, UNCHANGED, DELETED, DELETION_QUEUED, NOT_FOUND
+    }
+
+    public record Result(Long topicoId, Outcome resultado) {}
+}
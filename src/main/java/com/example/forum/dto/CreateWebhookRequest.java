@@ -0,0 +1,23 @@
+package com.example.forum.dto;
+
+import com.example.forum.domain.WebhookEvent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+public record CreateWebhookRequest(
+        @NotBlank(message = "URL é obrigatória")
+        @Size(max = 500, message = "URL deve ter no máximo 500 caracteres")
+        String url,
+        
+        @NotEmpty(message = "Informe ao menos um evento")
+        Set<WebhookEvent> eventos,
+        
+        @Min(value = 1, message = "Concorrência máxima deve ser pelo menos 1")
+        @Max(value = 16, message = "Concorrência máxima deve ser no máximo 16")
+        Integer maxConcorrencia
+) {}
@@ -0,0 +1,83 @@
+package com.example.forum.dto;
+
+import com.example.forum.domain.Response;
+import com.example.forum.domain.SyncEntityType;
+import com.example.forum.domain.SyncTombstone;
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One page of GET /sync. Clients apply the changes, drop what remocoes lists and call again with
+// proximo; while maisResultados is true there are changes left beyond this page.
+public record SyncResponse(
+        List<Topico> topicos,
+        List<Resposta> respostas,
+        List<Remocao> remocoes,
+        String proximo,
+        boolean maisResultados
+) {
+    public record Topico(
+            Long id,
+            String titulo,
+            String mensagem,
+            LocalDateTime dataCriacao,
+            LocalDateTime dataAtualizacao,
+            TopicStatus status,
+            Long solucaoId,
+            Long autorId,
+            String autorNome,
+            Long cursoId,
+            String cursoNome,
+            Long version
+    ) {
+        public Topico(Topic topic) {
+            this(
+                    topic.getId(),
+                    topic.getTitulo(),
+                    topic.getMensagem(),
+                    topic.getDataCriacao(),
+                    topic.getDataAtualizacao(),
+                    topic.getStatus(),
+                    topic.getSolucaoId(),
+                    topic.getAutor().getId(),
+                    topic.getAutor().getNome(),
+                    topic.getCurso().getId(),
+                    topic.getCurso().getNome(),
+                    topic.getVersion()
+            );
+        }
+    }
+
+    public record Resposta(
+            Long id,
+            Long topicoId,
+            String mensagem,
+            LocalDateTime dataCriacao,
+            LocalDateTime dataAtualizacao,
+            Boolean solucao,
+            Long autorId,
+            String autorNome
+    ) {
+        public Resposta(Response response) {
+            this(
+                    response.getId(),
+                    response.getTopico().getId(),
+                    response.getMensagem(),
+                    response.getDataCriacao(),
+                    response.getDataAtualizacao(),
+                    response.getSolucao(),
+                    response.getAutor().getId(),
+                    response.getAutor().getNome()
+            );
+        }
+    }
+
+    public record Remocao(SyncEntityType tipo, Long id, Long topicoId, LocalDateTime removidoEm) {
+
+        public Remocao(SyncTombstone tombstone) {
+            this(tombstone.getTipo(), tombstone.getEntidadeId(), tombstone.getTopicoId(), tombstone.getRemovidoEm());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.forum.dto;
 
 import com.example.forum.domain.Topic;
 import com.example.forum.domain.TopicStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,7 +15,9 @@ public record TopicResponse(
         TopicStatus status,
         String autorNome,
         String cursoNome,
-        List<ResponseResponse> respostas
+        List<ResponseResponse> respostas,
+        // Sent as the ETag rather than in the body
+        @JsonIgnore Long version
 ) {
     public TopicResponse(Topic topic) {
         this(
@@ -27,7 +30,8 @@ public record TopicResponse(
                 topic.getCurso().getNome(),
                 topic.getRespostas() != null ? 
                     topic.getRespostas().stream().map(ResponseResponse::new).toList() : 
-                    List.of()
+                    List.of(),
+                topic.getVersion()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.forum.dto;
+
+import java.util.List;
+
+public record UserImportResponse(
+        int total,
+        int importados,
+        int rejeitados,
+        List<RowError> erros
+) {
+    public record RowError(int linha, String email, String erro) {}
+}
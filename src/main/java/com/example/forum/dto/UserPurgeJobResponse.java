@@ -0,0 +1,32 @@
+package com.example.forum.dto;
+
+import com.example.forum.domain.UserPurgeJob;
+import com.example.forum.domain.UserPurgeStatus;
+
+import java.time.LocalDateTime;
+
+public record UserPurgeJobResponse(
+        Long id,
+        Long userId,
+        UserPurgeStatus status,
+        long topicsDeleted,
+        long responsesDeleted,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime finishedAt
+) {
+    public UserPurgeJobResponse(UserPurgeJob job) {
+        this(
+                job.getId(),
+                job.getUserId(),
+                job.getStatus(),
+                job.getTopicsDeleted(),
+                job.getResponsesDeleted(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getUpdatedAt(),
+                job.getFinishedAt()
+        );
+    }
+}
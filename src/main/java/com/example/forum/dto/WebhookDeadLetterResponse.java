@@ -0,0 +1,28 @@
+package com.example.forum.dto;
+
+import com.example.forum.domain.WebhookDeadLetter;
+import com.example.forum.domain.WebhookEvent;
+
+import java.time.LocalDateTime;
+
+public record WebhookDeadLetterResponse(
+        Long id,
+        Long webhookId,
+        WebhookEvent evento,
+        int tentativas,
+        String ultimoErro,
+        LocalDateTime dataCriacao,
+        LocalDateTime dataFalha
+) {
+    public WebhookDeadLetterResponse(WebhookDeadLetter deadLetter) {
+        this(
+                deadLetter.getId(),
+                deadLetter.getSubscriptionId(),
+                deadLetter.getEvento(),
+                deadLetter.getTentativas(),
+                deadLetter.getUltimoErro(),
+                deadLetter.getDataCriacao(),
+                deadLetter.getDataFalha()
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.forum.dto;
+
+import com.example.forum.domain.WebhookEvent;
+import com.example.forum.domain.WebhookSubscription;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The secret is only returned when the subscription is created
+public record WebhookSubscriptionResponse(
+        Long id,
+        String url,
+        List<WebhookEvent> eventos,
+        int maxConcorrencia,
+        boolean ativo,
+        LocalDateTime dataCriacao,
+        String segredo
+) {
+    public WebhookSubscriptionResponse(WebhookSubscription subscription) {
+        this(subscription, false);
+    }
+    
+    public WebhookSubscriptionResponse(WebhookSubscription subscription, boolean withSecret) {
+        this(
+                subscription.getId(),
+                subscription.getUrl(),
+                subscription.getEventList(),
+                subscription.getMaxConcorrencia(),
+                subscription.isAtivo(),
+                subscription.getDataCriacao(),
+                withSecret ? subscription.getSegredo() : null
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.forum.exception;
+
+public class AttachmentNotFoundException extends RuntimeException {
+    
+    public AttachmentNotFoundException(String message) {
+        super(message);
+    }
+    
+    public AttachmentNotFoundException(Long id) {
+        super("Anexo com ID " + id + " não encontrado");
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.forum.exception;
+
+import org.springframework.util.unit.DataSize;
+
+public class AttachmentTooLargeException extends RuntimeException {
+    
+    public AttachmentTooLargeException(long maxBytes) {
+        super("O anexo excede o tamanho máximo de " + DataSize.ofBytes(maxBytes).toKilobytes() + " KB");
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.forum.exception;
+
+public class BackupFormatException extends RuntimeException {
+    
+    public BackupFormatException(String message) {
+        super("Arquivo de backup inválido: " + message);
+    }
+}
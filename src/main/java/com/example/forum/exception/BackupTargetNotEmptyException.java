@@ -0,0 +1,8 @@
+package com.example.forum.exception;
+
+public class BackupTargetNotEmptyException extends RuntimeException {
+    
+    public BackupTargetNotEmptyException(String table) {
+        super("A tabela " + table + " já contém dados; use substituir=true para sobrescrevê-los");
+    }
+}
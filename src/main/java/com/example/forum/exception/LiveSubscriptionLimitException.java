@@ -0,0 +1,8 @@
+package com.example.forum.exception;
+
+public class LiveSubscriptionLimitException extends RuntimeException {
+    
+    public LiveSubscriptionLimitException() {
+        super("Limite de conexões de eventos ao vivo atingido; tente novamente mais tarde");
+    }
+}
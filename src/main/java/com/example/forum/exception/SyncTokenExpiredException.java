@@ -0,0 +1,8 @@
+package com.example.forum.exception;
+
+public class SyncTokenExpiredException extends RuntimeException {
+    
+    public SyncTokenExpiredException() {
+        super("Token de sincronização expirado: remoções mais antigas já foram descartadas; sincronize novamente sem since");
+    }
+}
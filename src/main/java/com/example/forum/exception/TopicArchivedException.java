@@ -0,0 +1,12 @@
+package com.example.forum.exception;
+
+public class TopicArchivedException extends RuntimeException {
+    
+    public TopicArchivedException(String message) {
+        super(message);
+    }
+    
+    public TopicArchivedException(Long id) {
+        super("Tópico com ID " + id + " está arquivado e não pode ser alterado");
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.forum.exception;
+
+public class TopicVersionMismatchException extends RuntimeException {
+    
+    public TopicVersionMismatchException(String message) {
+        super(message);
+    }
+    
+    public TopicVersionMismatchException(Long id) {
+        super("O tópico com ID " + id + " foi modificado por outra requisição");
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.forum.exception;
+
+public class UserPurgeJobNotFoundException extends RuntimeException {
+    
+    public UserPurgeJobNotFoundException(String message) {
+        super(message);
+    }
+    
+    public UserPurgeJobNotFoundException(Long id) {
+        super("Exclusão de usuário com ID " + id + " não encontrada");
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.forum.exception;
+
+public class WebhookDeadLetterNotFoundException extends RuntimeException {
+    
+    public WebhookDeadLetterNotFoundException(Long id) {
+        super("Entrega de webhook com falha com ID " + id + " não encontrada");
+    }
+}
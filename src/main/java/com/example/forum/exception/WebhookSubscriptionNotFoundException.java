@@ -0,0 +1,8 @@
+package com.example.forum.exception;
+
+public class WebhookSubscriptionNotFoundException extends RuntimeException {
+    
+    public WebhookSubscriptionNotFoundException(Long id) {
+        super("Webhook com ID " + id + " não encontrado");
+    }
+}
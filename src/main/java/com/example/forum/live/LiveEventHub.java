@@ -0,0 +1,391 @@
+package com.example.forum.live;
+
+import com.example.forum.exception.LiveSubscriptionLimitException;
+import com.example.forum.service.TopicActivity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Fans committed topic activity out to SSE subscribers of the topic and of its course. Publishing
+// only serializes the event once and offers it to each subscriber's bounded queue; a small pool of
+// sender threads drains the queues, never a request or commit thread. Each socket write runs on a
+// writer thread and gets send-timeout to finish: a client that stops reading is evicted when it runs
+// out, and its stuck write is left behind on the writer thread, so stalled clients cannot hold the
+// senders. A subscriber whose queue is full is evicted as well, instead of slowing everyone else
+// down, and resumes from its Last-Event-ID when it reconnects.
+//
+// Each node fans out the commits it made itself: with several instances behind a load balancer,
+// subscribers only see activity written through the node they are connected to.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiveEventHub {
+
+    // Tells a resuming client that events were lost (restart or replay overflow): reload, then follow
+    static final String RESET_EVENT = "reinicio";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Event ids are "<epoch>-<sequence>"; the epoch changes on every start, so ids from before a
+    // restart are recognized as not resumable
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Value("${forum.live.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${forum.live.replay-size:256}")
+    private int replaySize;
+
+    @Value("${forum.live.replay-retention:PT5M}")
+    private Duration replayRetention;
+
+    @Value("${forum.live.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${forum.live.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${forum.live.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${forum.live.send-timeout:PT5S}")
+    private Duration sendTimeout;
+
+    private ExecutorService sender;
+    // Grows only while writes are stuck: one thread per stalled client, until its socket gives up
+    private ExecutorService writer;
+
+    record Event(String id, long sequence, String name, String data) {
+
+        static final Event HEARTBEAT = new Event(null, 0, null, null);
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("");
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(name).data(data);
+            return id != null ? builder.id(id) : builder;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-events-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writers = new AtomicInteger();
+        writer = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "live-writes-" + writers.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("forum.live.subscribers", subscriberCount);
+    }
+
+    @PreDestroy
+    void stop() {
+        sender.shutdownNow();
+        writer.shutdownNow();
+    }
+
+    public static String topicChannel(Long topicId) {
+        return "topico:" + topicId;
+    }
+
+    public static String courseChannel(Long courseId) {
+        return "curso:" + courseId;
+    }
+
+    public SseEmitter subscribe(String channelName, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new LiveSubscriptionLimitException();
+        }
+        Subscriber subscriber = new Subscriber(channelName, new SseEmitter(timeout.toMillis()), bufferSize);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+
+        // The first comment sends the response headers right away rather than with the first event
+        subscriber.queue.offer(Event.HEARTBEAT);
+        withChannel(channelName, channel -> {
+            // Replayed under the channel lock, so no event falls between the replay and the live feed
+            channel.missedSince(lastEventId).forEach(subscriber.queue::offer);
+            channel.subscribers.add(subscriber);
+        });
+        schedule(subscriber);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener
+    public void onTopicActivity(TopicActivity activity) {
+        publish(List.of(topicChannel(activity.topicoId()), courseChannel(activity.cursoId())),
+                activity.tipo().name().toLowerCase(Locale.ROOT), activity);
+    }
+
+    public void publish(List<String> channelNames, String name, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize live event {}", name, e);
+            return;
+        }
+        long seq = sequence.incrementAndGet();
+        Event event = new Event(epoch + "-" + seq, seq, name, data);
+        for (String channelName : channelNames) {
+            withChannel(channelName, channel -> {
+                channel.append(event, replaySize);
+                channel.subscribers.forEach(subscriber -> offer(subscriber, event));
+            });
+        }
+    }
+
+    // A comment line keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${forum.live.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        long idleBefore = System.nanoTime() - replayRetention.toNanos();
+        channels.forEach((name, channel) -> {
+            synchronized (channel) {
+                channel.subscribers.forEach(subscriber -> offer(subscriber, Event.HEARTBEAT));
+                // Replay is only kept while clients may still come back for it
+                if (channel.subscribers.isEmpty() && channel.lastActivity - idleBefore < 0) {
+                    channel.closed = true;
+                    channels.remove(name, channel);
+                }
+            }
+        });
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Runs the action under the channel lock, on a channel the heartbeat has not just dropped
+    private void withChannel(String channelName, Consumer<Channel> action) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(channelName, ignored -> new Channel());
+            synchronized (channel) {
+                if (!channel.closed) {
+                    action.accept(channel);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void offer(Subscriber subscriber, Event event) {
+        if (subscriber.queue.offer(event)) {
+            schedule(subscriber);
+        } else {
+            evict(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Runs on the sender pool, one drain at a time per subscriber
+    private void drain(Subscriber subscriber) {
+        try {
+            Event event;
+            while (!subscriber.evicted && (event = subscriber.queue.poll()) != null) {
+                if (!send(subscriber, event)) {
+                    return;
+                }
+            }
+            if (subscriber.evicted) {
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter already completed
+            remove(subscriber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.queue.isEmpty() && !subscriber.evicted) {
+            schedule(subscriber);
+        }
+    }
+
+    // Writes on the writer pool and waits at most send-timeout. On timeout the subscriber is evicted
+    // and false returned; whichever of this thread and the writer gets there second completes the
+    // emitter, so it is never completed while the write still holds it.
+    private boolean send(Subscriber subscriber, Event event) throws IOException, InterruptedException {
+        AtomicBoolean handedOff = new AtomicBoolean();
+        Future<?> write = writer.submit(() -> {
+            try {
+                subscriber.emitter.send(event.toSse());
+            } finally {
+                if (!handedOff.compareAndSet(false, true)) {
+                    completeQuietly(subscriber);
+                }
+            }
+            return null;
+        });
+        try {
+            write.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof IllegalStateException illegalStateException) {
+                throw illegalStateException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            if (remove(subscriber)) {
+                meterRegistry.counter("forum.live.send_timeouts").increment();
+                log.debug("Evicted stalled live subscriber of {}", subscriber.channelName);
+            }
+            subscriber.evicted = true;
+            if (!handedOff.compareAndSet(false, true)) {
+                completeQuietly(subscriber);
+            }
+            return false;
+        }
+    }
+
+    private void completeQuietly(Subscriber subscriber) {
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("Could not complete live subscriber of {}", subscriber.channelName, e);
+        }
+    }
+
+    // Never touches the emitter here: a publisher must not wait on a socket another thread is blocked on
+    private void evict(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            meterRegistry.counter("forum.live.evicted").increment();
+            log.debug("Evicted slow live subscriber of {}", subscriber.channelName);
+        }
+        subscriber.evicted = true;
+        schedule(subscriber);
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return false;
+        }
+        Channel channel = channels.get(subscriber.channelName);
+        if (channel != null) {
+            channel.subscribers.remove(subscriber);
+            channel.lastActivity = System.nanoTime();
+        }
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    private static final class Subscriber {
+
+        private final String channelName;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        private volatile boolean evicted;
+
+        private Subscriber(String channelName, SseEmitter emitter, int bufferSize) {
+            this.channelName = channelName;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    // Subscribers and the most recent events of one topic or course; the replay is guarded by the channel
+    private final class Channel {
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<Event> replay = new ArrayDeque<>();
+        // Sequence of the newest event not in the replay; clients behind it missed something. A new
+        // channel starts at the current sequence, since whatever came before it is gone.
+        private long droppedUpTo = sequence.get();
+        private volatile long lastActivity = System.nanoTime();
+        private boolean closed;
+
+        private void append(Event event, int capacity) {
+            replay.addLast(event);
+            if (replay.size() > capacity) {
+                droppedUpTo = replay.removeFirst().sequence();
+            }
+            lastActivity = System.nanoTime();
+        }
+
+        private List<Event> missedSince(String lastEventId) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return List.of();
+            }
+            long lastSequence = parseSequence(lastEventId);
+            if (lastSequence < 0 || lastSequence < droppedUpTo) {
+                return List.of(new Event(null, 0, RESET_EVENT, "{}"));
+            }
+            List<Event> missed = new ArrayList<>();
+            for (Event event : replay) {
+                if (event.sequence() > lastSequence) {
+                    missed.add(event);
+                }
+            }
+            // More than the buffer holds (after the opening comment) would only get the client evicted again
+            return missed.size() < bufferSize ? missed : List.of(new Event(null, 0, RESET_EVENT, "{}"));
+        }
+
+        // -1 for ids from another start of this node, or not issued by it
+        private long parseSequence(String lastEventId) {
+            int dash = lastEventId.lastIndexOf('-');
+            if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(lastEventId.substring(dash + 1));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.Attachment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+    
+    List<Attachment> findByTopicoIdOrderByIdAsc(Long topicoId);
+    
+    @Query("select distinct a.sha256 from Attachment a where a.sha256 in :hashes")
+    List<String> findReferencedHashes(@Param("hashes") Collection<String> hashes);
+    
+    @Query("select distinct a.topicoId from Attachment a where a.topicoId in :topicIds")
+    List<Long> findTopicIdsWithAttachments(@Param("topicIds") Collection<Long> topicIds);
+    
+    // Attachments have no foreign keys to the partitioned topics and responses tables, so every
+    // delete of those removes its attachment rows explicitly; the orphan sweep then drops the files
+    @Modifying
+    @Query("delete from Attachment a where a.topicoId in :topicIds")
+    int deleteByTopicoIds(@Param("topicIds") Collection<Long> topicIds);
+    
+    @Modifying
+    @Query("delete from Attachment a where a.respostaId = :respostaId")
+    int deleteByRespostaId(@Param("respostaId") Long respostaId);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attachments"))
+    @Query(value = "DELETE FROM attachments WHERE resposta_id IN " +
+                   "(SELECT id FROM responses WHERE autor_id = :autorId) LIMIT :limit", nativeQuery = true)
+    int deleteChunkOnResponsesOfAutor(@Param("autorId") Long autorId, @Param("limit") int limit);
+}
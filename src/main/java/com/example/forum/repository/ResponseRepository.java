@@ -2,16 +2,108 @@ package com.example.forum.repository;
 
 import com.example.forum.domain.Response;
 import com.example.forum.domain.Topic;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ResponseRepository extends JpaRepository<Response, Long> {
     
-    List<Response> findByTopicoOrderByDataCriacaoAsc(Topic topico);
+    // Responses are never older than their topic, so bounding data_criacao by the topic's creation
+    // lets MySQL skip every older monthly partition. The day of slack covers clock skew between nodes.
+    @Query("select r from Response r join fetch r.autor where r.topico = :topico " +
+           "and r.dataCriacao >= :#{#topico.dataCriacao.minusDays(1)} order by r.dataCriacao asc")
+    List<Response> findByTopicoOrderByDataCriacaoAsc(@Param("topico") Topic topico);
     
     Optional<Response> findByTopicoAndSolucaoTrue(Topic topico);
-}
\ No newline at end of file
+    
+    @Query("select count(r) from Response r where r.topico = :topico " +
+           "and r.dataCriacao >= :#{#topico.dataCriacao.minusDays(1)}")
+    long countByTopico(@Param("topico") Topic topico);
+    
+    // Flags the given response and clears any other solution of the topic in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Response r set r.solucao = case when r.id = :responseId then true else false end, " +
+           "r.version = r.version + 1, r.changeSeq = 0 " +
+           "where r.topico.id = :topicId and (r.solucao = true or r.id = :responseId)")
+    int switchSolution(@Param("topicId") Long topicId, @Param("responseId") Long responseId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Response r set r.solucao = false, r.version = r.version + 1, r.changeSeq = 0 " +
+           "where r.id = :responseId")
+    int clearSolution(@Param("responseId") Long responseId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Response r where r.topico.id = :topicId")
+    int bulkDeleteByTopicId(@Param("topicId") Long topicId);
+    
+    // The native deletes name their table so Hibernate does not evict every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "responses"))
+    @Query(value = "DELETE FROM responses WHERE topico_id = :topicId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByTopicId(@Param("topicId") Long topicId, @Param("limit") int limit);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "responses"))
+    @Query(value = "DELETE FROM responses WHERE topico_id IN (:topicIds) LIMIT :limit", nativeQuery = true)
+    int deleteChunkByTopicIds(@Param("topicIds") Collection<Long> topicIds, @Param("limit") int limit);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "responses"))
+    @Query(value = "DELETE FROM responses WHERE autor_id = :autorId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByAutorId(@Param("autorId") Long autorId, @Param("limit") int limit);
+    
+    interface TopicResponseCount {
+        Long getTopicId();
+        long getTotal();
+    }
+    
+    @Query("select r.topico.id as topicId, count(r) as total from Response r " +
+           "where r.topico.id in :topicIds group by r.topico.id")
+    List<TopicResponseCount> countByTopicIds(@Param("topicIds") Collection<Long> topicIds);
+    
+    interface ResponseVersion {
+        Long getId();
+        Long getTopicId();
+        Long getVersion();
+    }
+    
+    // Locks the responses of the topics, so none is edited between the check and the delete that follows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.id as id, r.topico.id as topicId, r.version as version from Response r " +
+           "where r.topico.id in :topicIds")
+    List<ResponseVersion> lockVersionsByTopicIds(@Param("topicIds") Collection<Long> topicIds);
+    
+    // Responses of several topics with their authors; since bounds the partitions scanned
+    @Query("select r from Response r join fetch r.autor where r.topico.id in :topicIds " +
+           "and r.dataCriacao >= :since order by r.topico.id, r.dataCriacao, r.id")
+    List<Response> findByTopicIdsWithAutor(@Param("topicIds") Collection<Long> topicIds,
+                                           @Param("since") LocalDateTime since);
+    
+    // Responses changed after the (change_seq, id) position, in keyset order, with the same
+    // exclusions as TopicRepository.findChangedAfter
+    @Query("select r from Response r join fetch r.autor a join r.topico t join t.autor ta " +
+           "where r.changeSeq >= :afterChangeSeq and (r.changeSeq > :afterChangeSeq or r.id > :afterId) " +
+           "and t.status <> com.example.forum.domain.TopicStatus.DELETING and a.ativo = true and ta.ativo = true " +
+           "order by r.changeSeq, r.id")
+    List<Response> findChangedAfter(@Param("afterChangeSeq") long afterChangeSeq,
+                                    @Param("afterId") long afterId,
+                                    Pageable pageable);
+    
+    @Modifying
+    @Query("delete from Response r where r.topico.id in :topicIds")
+    int bulkDeleteByTopicIds(@Param("topicIds") Collection<Long> topicIds);
+}
@@ -0,0 +1,37 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.SchedulerLease;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+// The native statements declare the table they touch; otherwise Hibernate evicts every second-level cache region
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    
+    // Creates the lease row already expired, so the first caller can take it
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_leases"))
+    @Query(value = "INSERT IGNORE INTO scheduler_leases (name, owner, expires_at) VALUES (:name, NULL, NOW(3))",
+           nativeQuery = true)
+    int createIfAbsent(@Param("name") String name);
+    
+    // Takes the lease if it expired or is already held by the owner; returns 0 when another node holds it
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_leases"))
+    @Query(value = "UPDATE scheduler_leases SET owner = :owner, expires_at = NOW(3) + INTERVAL :seconds SECOND " +
+                   "WHERE name = :name AND (expires_at < NOW(3) OR owner = :owner)",
+           nativeQuery = true)
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("seconds") long seconds);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_leases"))
+    @Query(value = "UPDATE scheduler_leases SET owner = NULL, expires_at = NOW(3) WHERE name = :name AND owner = :owner",
+           nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,36 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.SyncTombstone;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+    
+    // Deletions after the (change_seq, id) position, in keyset order
+    @Query("select s from SyncTombstone s " +
+           "where s.changeSeq >= :afterChangeSeq and (s.changeSeq > :afterChangeSeq or s.id > :afterId) " +
+           "order by s.changeSeq, s.id")
+    List<SyncTombstone> findRemovedAfter(@Param("afterChangeSeq") long afterChangeSeq,
+                                         @Param("afterId") long afterId,
+                                         Pageable pageable);
+    
+    // Where a first sync starts the removals: it has nothing to remove yet
+    @Query("select coalesce(max(s.changeSeq), 0) from SyncTombstone s")
+    long findLastChangeSeq();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sync_tombstones"))
+    @Query(value = "DELETE FROM sync_tombstones WHERE removido_em < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteChunkRemovedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,35 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.TopicFingerprint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TopicFingerprintRepository extends JpaRepository<TopicFingerprint, String> {
+    
+    // Returns 0 when the hash is taken. An uncommitted claim of the same hash is waited for first,
+    // so two concurrent creates of the same topic cannot both get 1.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO topic_fingerprints (hash, topico_id) VALUES (:hash, :topicoId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("topicoId") Long topicoId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select f from TopicFingerprint f where f.hash = :hash")
+    Optional<TopicFingerprint> findLockedByHash(@Param("hash") String hash);
+    
+    @Modifying
+    @Query("update TopicFingerprint f set f.topicoId = :topicoId where f.hash = :hash")
+    int reassign(@Param("hash") String hash, @Param("topicoId") Long topicoId);
+    
+    @Modifying
+    @Query("delete from TopicFingerprint f where f.hash = :hash and f.topicoId = :topicoId")
+    int release(@Param("hash") String hash, @Param("topicoId") Long topicoId);
+}
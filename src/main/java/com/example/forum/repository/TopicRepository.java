@@ -1,18 +1,191 @@
 package com.example.forum.repository;
 
+import com.example.forum.domain.Course;
 import com.example.forum.domain.Topic;
 import com.example.forum.domain.TopicStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface TopicRepository extends JpaRepository<Topic, Long> {
     
+    // Listings and the detail view render author and course, so those are fetched with the topics
+    @EntityGraph(attributePaths = {"autor", "curso"})
+    @Query("select t from Topic t where t.status <> com.example.forum.domain.TopicStatus.DELETING " +
+           "order by t.dataCriacao desc")
     Page<Topic> findAllByOrderByDataCriacaoDesc(Pageable pageable);
     
+    @EntityGraph(attributePaths = {"autor", "curso"})
     Page<Topic> findByStatusOrderByDataCriacaoDesc(TopicStatus status, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"autor", "curso"})
+    Optional<Topic> findWithAutorAndCursoById(Long id);
+    
+    // Writes that add rows under a topic (responses, attachments) hold it in share mode until they
+    // commit, and writes that delete rows under it hold it exclusively. With no foreign keys on the
+    // partitioned tables, this is what keeps rows from being added to a topic being deleted or archived.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select t from Topic t where t.id = :id")
+    Optional<Topic> findForShareById(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Topic t where t.id = :id")
+    Optional<Topic> findForUpdateById(@Param("id") Long id);
+    
+    long countByStatus(TopicStatus status);
+    
+    // Date-bounded listings; the range on data_criacao restricts the scan to the matching monthly partitions
+    @EntityGraph(attributePaths = {"autor", "curso"})
+    @Query("select t from Topic t where t.status <> com.example.forum.domain.TopicStatus.DELETING " +
+           "and t.dataCriacao >= :from and t.dataCriacao < :to order by t.dataCriacao desc")
+    Page<Topic> findCreatedBetween(@Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"autor", "curso"})
+    @Query("select t from Topic t where t.status = :status " +
+           "and t.dataCriacao >= :from and t.dataCriacao < :to order by t.dataCriacao desc")
+    Page<Topic> findByStatusCreatedBetween(@Param("status") TopicStatus status,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           Pageable pageable);
+    
     boolean existsByTituloAndMensagem(String titulo, String mensagem);
-}
\ No newline at end of file
+    
+    // Returns 0 when the topic was modified since the given version was read
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Topic t set t.solucaoId = :responseId, t.status = :status, t.version = t.version + 1, t.changeSeq = 0 " +
+           "where t.id = :topicId and t.version = :version")
+    int updateSolution(@Param("topicId") Long topicId,
+                       @Param("responseId") Long responseId,
+                       @Param("status") TopicStatus status,
+                       @Param("version") Long version);
+    
+    // Tombstoned topics whose purge has not touched them for the given time, by the database clock
+    @Query(value = "SELECT id FROM topics WHERE status = 'DELETING' " +
+                   "AND updated_at < CURRENT_TIMESTAMP(6) - INTERVAL :seconds SECOND ORDER BY id", nativeQuery = true)
+    List<Long> findDeletingIdleFor(@Param("seconds") long seconds);
+    
+    // Bumps updated_at so a purge in progress is not taken for an interrupted one
+    @Modifying
+    @Query("update Topic t set t.version = t.version + 1 " +
+           "where t.id = :id and t.status = com.example.forum.domain.TopicStatus.DELETING")
+    int touchDeleting(@Param("id") Long id);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Topic t set t.status = com.example.forum.domain.TopicStatus.DELETING, t.version = t.version + 1, " +
+           "t.changeSeq = 0 where t.id = :id")
+    int markDeleting(@Param("id") Long id);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Topic t where t.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("delete from Topic t where t.id = :id and t.status = com.example.forum.domain.TopicStatus.DELETING")
+    int deleteTombstoned(@Param("id") Long id);
+    
+    @Query("select t.id from Topic t where t.autor.id = :autorId order by t.id")
+    List<Long> findIdsByAutorId(@Param("autorId") Long autorId, Pageable pageable);
+    
+    @Modifying
+    @Query("delete from Topic t where t.id in :ids")
+    int bulkDeleteByIds(@Param("ids") Collection<Long> ids);
+    
+    // Topics whose solution was written by the given author; topics being purged are left to the purge
+    @Query("select t.id as id, t.status as status, t.curso.id as cursoId, t.version as version from Topic t " +
+           "where t.status <> com.example.forum.domain.TopicStatus.DELETING " +
+           "and t.solucaoId in (select r.id from Response r where r.autor.id = :autorId) order by t.id")
+    List<ModerationState> findSolvedByResponsesOf(@Param("autorId") Long autorId, Pageable pageable);
+    
+    // Drops the solution pointer and reopens the topic, as deleting the solution response does
+    @Modifying
+    @Query("update Topic t set t.solucaoId = null, t.status = com.example.forum.domain.TopicStatus.OPEN, " +
+           "t.version = t.version + 1, t.changeSeq = 0 " +
+           "where t.id in :ids and t.status <> com.example.forum.domain.TopicStatus.DELETING")
+    int reopenWithoutSolution(@Param("ids") Collection<Long> ids);
+    
+    interface TopicKey {
+        Long getId();
+        LocalDateTime getDataCriacao();
+    }
+    
+    // Next batch of open topics created before the cutoff, keyset-ordered on (data_criacao, id)
+    // so each page is an index range scan regardless of how far the run has progressed
+    @Query("select t.id as id, t.dataCriacao as dataCriacao from Topic t " +
+           "where t.status = com.example.forum.domain.TopicStatus.OPEN and t.dataCriacao < :cutoff " +
+           "and (t.dataCriacao > :afterDataCriacao or (t.dataCriacao = :afterDataCriacao and t.id > :afterId)) " +
+           "order by t.dataCriacao, t.id")
+    List<TopicKey> findOpenCreatedBefore(@Param("cutoff") LocalDateTime cutoff,
+                                         @Param("afterDataCriacao") LocalDateTime afterDataCriacao,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+    
+    // Next batch of closed topics created before the cutoff with author and course, keyset-ordered
+    // on (data_criacao, id) like findOpenCreatedBefore. The archive holds no files, so topics with
+    // attachments stay in the database.
+    @Query("select t from Topic t join fetch t.autor join fetch t.curso " +
+           "where t.status = com.example.forum.domain.TopicStatus.CLOSED and t.dataCriacao < :cutoff " +
+           "and not exists (select a.id from Attachment a where a.topicoId = t.id) " +
+           "and (t.dataCriacao > :afterDataCriacao or (t.dataCriacao = :afterDataCriacao and t.id > :afterId)) " +
+           "order by t.dataCriacao, t.id")
+    List<Topic> findClosedCreatedBefore(@Param("cutoff") LocalDateTime cutoff,
+                                        @Param("afterDataCriacao") LocalDateTime afterDataCriacao,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+    
+    // Topics changed after the (change_seq, id) position, in keyset order. Topics being purged and
+    // those of disabled authors are left out: sync reports them as removed.
+    @Query("select t from Topic t join fetch t.autor a join fetch t.curso " +
+           "where t.changeSeq >= :afterChangeSeq and (t.changeSeq > :afterChangeSeq or t.id > :afterId) " +
+           "and t.status <> com.example.forum.domain.TopicStatus.DELETING and a.ativo = true " +
+           "order by t.changeSeq, t.id")
+    List<Topic> findChangedAfter(@Param("afterChangeSeq") long afterChangeSeq,
+                                 @Param("afterId") long afterId,
+                                 Pageable pageable);
+    
+    // Closes the given topics unless they are no longer open or received a response since the cutoff
+    @Modifying
+    @Query("update Topic t set t.status = com.example.forum.domain.TopicStatus.CLOSED, t.version = t.version + 1, " +
+           "t.changeSeq = 0 where t.id in :ids and t.status = com.example.forum.domain.TopicStatus.OPEN " +
+           "and not exists (select r.id from Response r where r.topico = t and r.dataCriacao >= :cutoff)")
+    int closeInactive(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+    
+    interface ModerationState {
+        Long getId();
+        TopicStatus getStatus();
+        Long getCursoId();
+        Long getVersion();
+    }
+    
+    // Locks the rows so the per-id report matches what the following bulk statements change
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id as id, t.status as status, t.curso.id as cursoId, t.version as version " +
+           "from Topic t where t.id in :ids")
+    List<ModerationState> lockModerationStates(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("update Topic t set t.status = :to, t.version = t.version + 1, t.changeSeq = 0 " +
+           "where t.id in :ids and t.status = :from")
+    int bulkUpdateStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") TopicStatus from,
+                         @Param("to") TopicStatus to);
+    
+    @Modifying
+    @Query("update Topic t set t.curso = :curso, t.version = t.version + 1, t.changeSeq = 0 " +
+           "where t.id in :ids and t.curso <> :curso")
+    int bulkMove(@Param("ids") Collection<Long> ids, @Param("curso") Course curso);
+}
@@ -0,0 +1,22 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.UserPurgeJob;
+import com.example.forum.domain.UserPurgeStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserPurgeJobRepository extends JpaRepository<UserPurgeJob, Long> {
+    
+    List<UserPurgeJob> findByStatusInOrderByIdAsc(Collection<UserPurgeStatus> statuses);
+    
+    Optional<UserPurgeJob> findFirstByUserIdAndStatusIn(Long userId, Collection<UserPurgeStatus> statuses);
+    
+    Page<UserPurgeJob> findAllByOrderByIdDesc(Pageable pageable);
+}
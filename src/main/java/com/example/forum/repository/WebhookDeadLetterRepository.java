@@ -0,0 +1,13 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.WebhookDeadLetter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WebhookDeadLetterRepository extends JpaRepository<WebhookDeadLetter, Long> {
+    
+    Page<WebhookDeadLetter> findAllByOrderByIdDesc(Pageable pageable);
+}
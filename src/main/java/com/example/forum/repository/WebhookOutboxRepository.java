@@ -0,0 +1,29 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.WebhookOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookOutboxRepository extends JpaRepository<WebhookOutboxEntry, Long> {
+    
+    // Oldest entries due for delivery, across all active subscriptions. Entries of an inactive
+    // subscription wait out of the way until it is active again, instead of filling every fetch
+    @Query("select e from WebhookOutboxEntry e where e.proximaTentativa <= :now " +
+           "and exists (select s.id from WebhookSubscription s where s.id = e.subscriptionId and s.ativo = true) " +
+           "order by e.id")
+    List<WebhookOutboxEntry> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Holds entries back without counting an attempt, when an earlier batch to the endpoint failed
+    @Modifying
+    @Query("update WebhookOutboxEntry e set e.proximaTentativa = :next where e.id in :ids")
+    int postpone(@Param("ids") Collection<Long> ids, @Param("next") LocalDateTime next);
+}
@@ -0,0 +1,15 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.WebhookSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WebhookSubscriptionRepository extends JpaRepository<WebhookSubscription, Long> {
+    
+    List<WebhookSubscription> findByAtivoTrue();
+    
+    List<WebhookSubscription> findAllByOrderByIdAsc();
+}
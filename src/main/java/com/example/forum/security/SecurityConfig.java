@@ -1,8 +1,10 @@
 package com.example.forum.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -27,7 +29,30 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
+    // Anonymous topic reads. This chain has no JWT filter, so a token sent along is ignored rather
+    // than parsed and looked up; responses are identical for every caller and safe to cache publicly.
+    // With no user on these reads, read-your-writes pinning relies on the cookie ReadYourWritesTracker
+    // sets on writes.
     @Bean
+    @Order(1)
+    public SecurityFilterChain publicReadFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatchers(matchers -> matchers
+                .requestMatchers(HttpMethod.GET, "/topicos", "/topicos/{id}", "/topicos/{id}/respostas", "/topicos/{id}/solucao",
+                        "/topicos/{id}/anexos", "/topicos/anexos/{attachmentId}", "/sync",
+                        "/topicos/{id}/eventos", "/cursos/{id}/eventos"))
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .requestCache(cache -> cache.disable())
+            // The controllers set Cache-Control for these responses
+            .headers(headers -> headers.cacheControl(cacheControl -> cacheControl.disable()))
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
@@ -35,14 +60,11 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints
                 .requestMatchers("/auth/**").permitAll()
-                .requestMatchers(HttpMethod.GET, "/topics").permitAll()
-                .requestMatchers(HttpMethod.GET, "/topics/**").permitAll()
                 // Protected endpoints
-                .requestMatchers(HttpMethod.POST, "/topics").authenticated()
-                .requestMatchers(HttpMethod.PUT, "/topics/**").authenticated()
-                .requestMatchers(HttpMethod.DELETE, "/topics/**").authenticated()
-                .requestMatchers("/topics/**/responses").authenticated()
-                .requestMatchers("/responses/**").authenticated()
+                .requestMatchers("/topicos/**").authenticated()
+                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
@@ -53,6 +75,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // The filter is a bean for injection only; it must run inside the authenticated chain, not for every request
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(jwtAuthenticationFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder(12);
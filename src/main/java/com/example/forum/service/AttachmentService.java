@@ -0,0 +1,174 @@
+package com.example.forum.service;
+
+import com.example.forum.archive.TopicArchive;
+import com.example.forum.attachment.AttachmentStore;
+import com.example.forum.attachment.AttachmentTransfer.StoredAttachment;
+import com.example.forum.domain.Attachment;
+import com.example.forum.domain.Response;
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.domain.User;
+import com.example.forum.dto.AttachmentResponse;
+import com.example.forum.exception.AttachmentNotFoundException;
+import com.example.forum.exception.AttachmentTooLargeException;
+import com.example.forum.exception.ResponseNotFoundException;
+import com.example.forum.exception.TopicNotFoundException;
+import com.example.forum.exception.UnauthorizedOperationException;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.TopicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Uploads are not transactional on purpose: the file is streamed into the store first, without
+// holding a database connection, and only the metadata row is written afterwards, in a short
+// transaction that holds the topic in share mode. A row that fails to insert, or a topic or response
+// deleted during the upload, leaves an unreferenced file behind, which the orphan sweep removes.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttachmentService {
+
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    private final AttachmentRepository attachmentRepository;
+    private final TopicRepository topicRepository;
+    private final ResponseRepository responseRepository;
+    private final AttachmentStore attachmentStore;
+    private final TopicArchive topicArchive;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${forum.attachments.max-size:10MB}")
+    private DataSize maxSize;
+
+    // Files are only swept once unreferenced and untouched for this long, so an upload whose row is
+    // still being written, or a dedup hit on an old file, is never deleted under it
+    @Value("${forum.attachments.orphan-grace:P1D}")
+    private Duration orphanGrace;
+
+    public AttachmentResponse attachToTopic(Long topicId, String nome, String contentType, long contentLength,
+                                            InputStream content, User author) {
+        Topic topic = topicRepository.findById(topicId)
+                .filter(live -> live.getStatus() != TopicStatus.DELETING)
+                .orElseThrow(() -> new TopicNotFoundException(topicId));
+        if (!topic.isAuthor(author)) {
+            throw new UnauthorizedOperationException("Você só pode anexar arquivos aos seus próprios tópicos");
+        }
+        return store(topicId, null, nome, contentType, contentLength, content, author);
+    }
+
+    public AttachmentResponse attachToResponse(Long responseId, String nome, String contentType, long contentLength,
+                                               InputStream content, User author) {
+        Response response = responseRepository.findById(responseId)
+                .orElseThrow(() -> new ResponseNotFoundException(responseId));
+        if (!response.isAuthor(author)) {
+            throw new UnauthorizedOperationException("Você só pode anexar arquivos às suas próprias respostas");
+        }
+        return store(response.getTopico().getId(), responseId, nome, contentType, contentLength, content, author);
+    }
+
+    // Archiving a topic removes its rows, attachments included, so archived topics list none
+    public List<AttachmentResponse> findByTopic(Long topicId) {
+        if (!topicRepository.existsById(topicId) && !topicArchive.contains(topicId)) {
+            throw new TopicNotFoundException(topicId);
+        }
+        return attachmentRepository.findByTopicoIdOrderByIdAsc(topicId).stream()
+                .map(AttachmentResponse::new)
+                .toList();
+    }
+
+    public StoredAttachment open(Long attachmentId) {
+        Attachment attachment = attachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new AttachmentNotFoundException(attachmentId));
+        if (!attachmentStore.exists(attachment.getSha256())) {
+            log.error("Attachment {} references missing file {}", attachmentId, attachment.getSha256());
+            throw new AttachmentNotFoundException(attachmentId);
+        }
+        return new StoredAttachment(attachmentStore.path(attachment.getSha256()), attachment.getSha256(),
+                attachment.getNome(), attachment.getContentType());
+    }
+
+    // The file stays until the sweep finds it unreferenced: other attachments may share it
+    public void delete(Long attachmentId, User currentUser) {
+        Attachment attachment = attachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new AttachmentNotFoundException(attachmentId));
+        if (!attachment.isAuthor(currentUser) && !userService.isUserModerator(currentUser)) {
+            throw new UnauthorizedOperationException("Você só pode remover seus próprios anexos");
+        }
+        attachmentRepository.delete(attachment);
+    }
+
+    // Each node sweeps the store it is configured with, so no scheduler lease is taken
+    @Scheduled(cron = "${forum.attachments.sweep-cron:0 45 4 * * *}")
+    public void sweepOrphans() {
+        int deleted = attachmentStore.deleteUnreferenced(Instant.now().minus(orphanGrace),
+                attachmentRepository::findReferencedHashes);
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced attachment files", deleted);
+        }
+    }
+
+    private AttachmentResponse store(Long topicId, Long responseId, String nome, String contentType,
+                                     long contentLength, InputStream content, User author) {
+        String fileName = fileName(nome);
+        String mediaType = mediaType(contentType);
+        // Reject before reading anything when the client declared the size up front
+        if (contentLength > maxSize.toBytes()) {
+            throw new AttachmentTooLargeException(maxSize.toBytes());
+        }
+        AttachmentStore.StoredFile file = attachmentStore.store(content, maxSize.toBytes());
+        Attachment attachment = new Attachment(topicId, responseId, author.getId(), fileName, mediaType,
+                file.size(), file.sha256());
+        return new AttachmentResponse(transactionTemplate.execute(status -> {
+            topicRepository.findForShareById(topicId)
+                    .filter(live -> live.getStatus() != TopicStatus.DELETING)
+                    .orElseThrow(() -> new TopicNotFoundException(topicId));
+            // Deleting a response locks its topic exclusively, so this sees any deletion that got there first
+            if (responseId != null && !responseRepository.existsById(responseId)) {
+                throw new ResponseNotFoundException(responseId);
+            }
+            return attachmentRepository.save(attachment);
+        }));
+    }
+
+    // Keeps only the last path segment of the name a client sent and drops control characters
+    private String fileName(String nome) {
+        String name = nome == null ? "" : nome.replaceAll("\\p{Cntrl}", "");
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1).trim();
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Nome do arquivo é obrigatório");
+        }
+        return name.length() > MAX_COLUMN_LENGTH ? name.substring(name.length() - MAX_COLUMN_LENGTH) : name;
+    }
+
+    // The body is the file itself; a form would already have been consumed by the servlet container
+    private String mediaType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        if (MediaType.APPLICATION_FORM_URLENCODED.includes(mediaType) || MediaType.MULTIPART_FORM_DATA.includes(mediaType)) {
+            throw new IllegalArgumentException("Envie o arquivo como corpo da requisição, não como formulário");
+        }
+        String value = mediaType.toString();
+        return value.length() > MAX_COLUMN_LENGTH ? MediaType.APPLICATION_OCTET_STREAM_VALUE : value;
+    }
+}
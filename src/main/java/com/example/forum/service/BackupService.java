@@ -0,0 +1,263 @@
+package com.example.forum.service;
+
+import com.example.forum.backup.BackupReader;
+import com.example.forum.backup.BackupWriter;
+import com.example.forum.domain.TopicFingerprint;
+import com.example.forum.dto.BackupSummaryResponse;
+import com.example.forum.exception.BackupFormatException;
+import com.example.forum.exception.BackupTargetNotEmptyException;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Full backup and restore of users, profiles, courses, topics and responses. Both directions stream:
+// the backup reads each table through a forward-only cursor into the archive, and the restore inserts
+// the archive chunk by chunk with JDBC batches, so memory use does not grow with the database.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackupService {
+
+    // Parents before children; a restore deletes in the reverse order
+    static final List<String> TABLES = List.of("profiles", "courses", "users", "user_profiles", "topics", "responses");
+
+    // Rows that reference restored tables but are not part of the archive; cleared by a replacing restore
+    static final List<String> DEPENDENT_TABLES = List.of("attachments");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the table
+    @Value("${forum.backup.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    @Value("${forum.backup.chunk-rows:1000}")
+    private int chunkRows;
+
+    @Value("${forum.backup.chunk-bytes:1048576}")
+    private int chunkBytes;
+
+    // All tables are read in one repeatable-read transaction: InnoDB serves every SELECT from the
+    // snapshot taken by the first one, so the archive is consistent without locking writers out
+    public BackupSummaryResponse backup(OutputStream out) {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        long started = System.nanoTime();
+        Map<String, Long> rows = snapshot.execute(status -> {
+            try {
+                BackupWriter writer = new BackupWriter(out, chunkRows, chunkBytes);
+                Map<String, Long> counts = new LinkedHashMap<>();
+                for (String table : TABLES) {
+                    counts.put(table, writeTable(writer, table));
+                }
+                writer.finish();
+                return counts;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write backup", e);
+            }
+        });
+        BackupSummaryResponse summary = new BackupSummaryResponse(rows, elapsedMillis(started));
+        log.info("Backup finished: {} rows in {} ms", summary.totalLinhas(), summary.duracaoMs());
+        return summary;
+    }
+
+    // Restores an archive in a single transaction, so a damaged archive leaves the database as it was.
+    // Foreign key checks are off for the session while loading: the archive holds a consistent
+    // snapshot, and checking every row against its parents would dominate the load time.
+    public BackupSummaryResponse restore(InputStream in, boolean replace) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        long started = System.nanoTime();
+        Map<String, Long> rows = transaction.execute(status -> {
+            jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 0");
+            try (BackupReader reader = new BackupReader(in)) {
+                prepareTarget(replace);
+                Map<String, Long> counts = new LinkedHashMap<>();
+                BackupReader.Table table;
+                while ((table = reader.nextTable()) != null) {
+                    if (!TABLES.contains(table.name()) || counts.containsKey(table.name())) {
+                        throw new BackupFormatException("tabela " + table.name() + " inesperada");
+                    }
+                    counts.put(table.name(), readTable(reader, table));
+                }
+                // Clears the page cache once the restored rows are visible
+                eventPublisher.publishEvent(TopicsChanged.listing(Set.of()));
+                return counts;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read backup", e);
+            } finally {
+                // The setting belongs to the pooled connection, not to the transaction
+                jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+        });
+
+        // Cached entities and collections still describe the replaced rows
+        entityManagerFactory.getCache().evictAll();
+        if (replace) {
+            // Clients may have synced against the old rows while the restore ran
+            resetSync();
+        }
+
+        BackupSummaryResponse summary = new BackupSummaryResponse(rows, elapsedMillis(started));
+        log.info("Restore finished: {} rows in {} ms", summary.totalLinhas(), summary.duracaoMs());
+        return summary;
+    }
+
+    private long writeTable(BackupWriter writer, String table) {
+        Long count = jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT * FROM " + table,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, resultSet -> {
+            try {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columns = metaData.getColumnCount();
+                List<String> names = new ArrayList<>(columns);
+                for (int i = 1; i <= columns; i++) {
+                    names.add(metaData.getColumnName(i).toLowerCase(Locale.ROOT));
+                }
+                writer.startTable(table, names);
+                Object[] row = new Object[columns];
+                while (resultSet.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        row[i - 1] = readColumn(resultSet, i, metaData.getColumnType(i));
+                    }
+                    writer.writeRow(row);
+                }
+                return writer.endTable();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write table " + table, e);
+            }
+        });
+        return count != null ? count : 0;
+    }
+
+    private long readTable(BackupReader reader, BackupReader.Table table) throws IOException {
+        Set<String> targetColumns = columnsOf(table.name());
+        for (String column : table.columns()) {
+            if (!targetColumns.contains(column)) {
+                throw new BackupFormatException("coluna " + column + " não existe na tabela " + table.name());
+            }
+        }
+        String sql = "INSERT INTO " + table.name() + " (" + String.join(", ", table.columns()) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.columns().size(), "?")) + ")";
+
+        // Restored rows are new to every sync client, so they take a change sequence of this commit
+        int changeSeq = table.columns().indexOf("change_seq");
+
+        long count = 0;
+        List<Object[]> chunk;
+        while ((chunk = reader.nextChunk()) != null) {
+            if (changeSeq >= 0) {
+                chunk.forEach(row -> row[changeSeq] = 0L);
+            }
+            jdbcTemplate.batchUpdate(sql, chunk);
+            if (table.name().equals("topics")) {
+                insertFingerprints(table.columns(), chunk);
+            }
+            count += chunk.size();
+        }
+        return count;
+    }
+
+    private void insertFingerprints(List<String> columns, List<Object[]> topics) {
+        int id = columns.indexOf("id");
+        int titulo = columns.indexOf("titulo");
+        int mensagem = columns.indexOf("mensagem");
+        if (id < 0 || titulo < 0 || mensagem < 0) {
+            throw new BackupFormatException("tabela topics sem id, titulo ou mensagem");
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO topic_fingerprints (hash, topico_id) VALUES (?, ?)",
+                topics.stream()
+                        .map(row -> new Object[]{TopicFingerprint.hash((String) row[titulo], (String) row[mensagem]), row[id]})
+                        .toList());
+    }
+
+    private void prepareTarget(boolean replace) {
+        if (replace) {
+            for (String table : DEPENDENT_TABLES) {
+                jdbcTemplate.update("DELETE FROM " + table);
+            }
+            for (int i = TABLES.size() - 1; i >= 0; i--) {
+                jdbcTemplate.update("DELETE FROM " + TABLES.get(i));
+            }
+            // The deletions above leave no tombstones and the old ones describe rows that are gone,
+            // so sync clients are sent back to a full copy instead
+            jdbcTemplate.update("DELETE FROM sync_tombstones");
+            resetSync();
+        } else {
+            for (String table : TABLES) {
+                if (!jdbcTemplate.queryForList("SELECT 1 FROM " + table + " LIMIT 1").isEmpty()) {
+                    throw new BackupTargetNotEmptyException(table);
+                }
+            }
+        }
+        // Derived from topics and rebuilt as they are loaded; rows left over would block restored topics
+        jdbcTemplate.update("DELETE FROM topic_fingerprints");
+    }
+
+    // SyncService answers tokens issued before reset_at with 410
+    private void resetSync() {
+        if (jdbcTemplate.update("UPDATE sync_sequence SET reset_at = CURRENT_TIMESTAMP(6) WHERE id = 1") == 0) {
+            jdbcTemplate.update("INSERT INTO sync_sequence (id, current_seq, reset_at) VALUES (1, 1, CURRENT_TIMESTAMP(6))");
+        }
+    }
+
+    private Set<String> columnsOf(String table) {
+        return jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", resultSet -> {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            Set<String> columns = new HashSet<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnName(i).toLowerCase(Locale.ROOT));
+            }
+            return columns;
+        });
+    }
+
+    private Object readColumn(ResultSet resultSet, int column, int type) throws SQLException {
+        Object value = switch (type) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> resultSet.getLong(column);
+            case Types.BIT, Types.BOOLEAN -> resultSet.getBoolean(column);
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> resultSet.getDouble(column);
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE ->
+                    resultSet.getObject(column, LocalDateTime.class);
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> resultSet.getBytes(column);
+            default -> resultSet.getString(column);
+        };
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.SyncEntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+
+// Keeps the monthly partitions of topics and responses ahead of the calendar and retires the
+// ones past retention. Expired topic months are retired together with all their responses,
+// wherever those were partitioned, before the (then empty) response months are dropped. Their
+// attachment rows are deleted, leaving the files to the attachment orphan sweep. Retired topics
+// get sync tombstones like any other deletion, so sync clients drop them too.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartitionMaintenanceService {
+
+    static final String LEASE_NAME = "partition-maintenance";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String MAX_PARTITION = "pmax";
+
+    public enum ExpiredAction {
+        // Swap the partition out into a standalone <table>_archive_pYYYYMM table, then drop it
+        ARCHIVE,
+        DROP
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLeaseService leaseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${forum.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 keeps every month
+    @Value("${forum.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${forum.partitions.expired-action:ARCHIVE}")
+    private ExpiredAction expiredAction;
+
+    @Value("${forum.partitions.delete-chunk-size:1000}")
+    private int deleteChunkSize;
+
+    @Scheduled(cron = "${forum.partitions.cron:0 30 2 * * *}")
+    public void scheduledMaintenance() {
+        if (!leaseService.tryAcquire(LEASE_NAME, Duration.ofHours(1))) {
+            return;
+        }
+        try {
+            maintain(YearMonth.now());
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    public void maintain(YearMonth today) {
+        ensureFuturePartitions("topics", today);
+        ensureFuturePartitions("responses", today);
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = today.minusMonths(retentionMonths);
+            if (expireTopics(oldestKept)) {
+                // Retired topics can be on any cached page
+                eventPublisher.publishEvent(TopicsChanged.listing(Set.of()));
+            }
+            expireResponses(oldestKept);
+        }
+    }
+
+    void ensureFuturePartitions(String table, YearMonth today) {
+        List<YearMonth> months = monthlyPartitions(table);
+        if (months.isEmpty()) {
+            return;
+        }
+        YearMonth last = months.get(months.size() - 1);
+        for (YearMonth month = last.plusMonths(1); !month.isAfter(today.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                    "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00'), " +
+                    "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            log.info("Added partition {} to {}", month.format(PARTITION_NAME), table);
+        }
+    }
+
+    // Returns whether any topic month was retired
+    private boolean expireTopics(YearMonth oldestKept) {
+        boolean retired = false;
+        for (YearMonth month : monthlyPartitions("topics")) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            String partition = month.format(PARTITION_NAME);
+            String topicIds = "SELECT id FROM topics PARTITION (" + partition + ")";
+
+            tombstoneTopics(partition);
+            if (expiredAction == ExpiredAction.ARCHIVE) {
+                String responsesArchive = createArchiveTable("responses", partition);
+                jdbcTemplate.update("INSERT IGNORE INTO " + responsesArchive + " SELECT * FROM responses WHERE topico_id IN (" + topicIds + ")");
+            }
+            deleteInChunks("DELETE FROM attachments WHERE topico_id IN (" + topicIds + ") LIMIT ?");
+            deleteInChunks("DELETE FROM responses WHERE topico_id IN (" + topicIds + ") LIMIT ?");
+
+            retire("topics", partition);
+            retired = true;
+        }
+        return retired;
+    }
+
+    // A topic's tombstone covers its responses. Written in chunked transactions, each stamped by
+    // SyncChangeSequencer on commit; a run interrupted before the partition is gone writes some
+    // again next time, which clients treat like any repeated removal.
+    private void tombstoneTopics(String partition) {
+        Long afterId = 0L;
+        while (afterId != null) {
+            long from = afterId;
+            afterId = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM topics PARTITION (" + partition + ") " +
+                        "WHERE id > ? ORDER BY id LIMIT ?", Long.class, from, deleteChunkSize);
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO sync_tombstones (tipo, entidade_id) VALUES ('" + SyncEntityType.TOPIC + "', ?)",
+                        ids.stream().map(id -> new Object[]{id}).toList());
+                return ids.get(ids.size() - 1);
+            });
+        }
+    }
+
+    private void deleteInChunks(String sql) {
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, deleteChunkSize);
+        } while (deleted > 0);
+    }
+
+    // Responses left in expired months belonged to topics retired above, so these are empty or
+    // hold only orphans
+    private void expireResponses(YearMonth oldestKept) {
+        for (YearMonth month : monthlyPartitions("responses")) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            retire("responses", month.format(PARTITION_NAME));
+        }
+    }
+
+    private void retire(String table, String partition) {
+        if (expiredAction == ExpiredAction.ARCHIVE) {
+            // Swapping the partition out is instant; an archive that already holds rows (responses
+            // moved with their topics, or an interrupted earlier run) is appended to instead
+            String archive = createArchiveTable(table, partition);
+            if (isEmpty(archive)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " EXCHANGE PARTITION " + partition + " WITH TABLE " + archive);
+            } else {
+                jdbcTemplate.update("INSERT IGNORE INTO " + archive + " SELECT * FROM " + table + " PARTITION (" + partition + ")");
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partition);
+        log.info("Retired partition {} of {} ({})", partition, table, expiredAction);
+    }
+
+    private String createArchiveTable(String table, String partition) {
+        String archive = table + "_archive_" + partition;
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archive + " LIKE " + table);
+        if (isPartitioned(archive)) {
+            jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+        }
+        return archive;
+    }
+
+    private boolean isEmpty(String table) {
+        return jdbcTemplate.queryForList("SELECT 1 FROM " + table + " LIMIT 1").isEmpty();
+    }
+
+    private boolean isPartitioned(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    // Monthly partitions in ascending order, without pmax; empty if the table is not partitioned
+    List<YearMonth> monthlyPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                        "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION", String.class, table)
+                .stream()
+                .filter(name -> !MAX_PARTITION.equals(name))
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .toList();
+    }
+}
@@ -1,95 +1,129 @@
 package com.example.forum.service;
 
+import com.example.forum.archive.TopicArchive;
+import com.example.forum.cache.ReadCoalescer;
 import com.example.forum.domain.Response;
+import com.example.forum.domain.SyncTombstone;
 import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
 import com.example.forum.domain.User;
 import com.example.forum.dto.CreateResponseRequest;
+import com.example.forum.dto.ResponseResponse;
 import com.example.forum.exception.ResponseNotFoundException;
+import com.example.forum.exception.TopicArchivedException;
 import com.example.forum.exception.TopicNotFoundException;
 import com.example.forum.exception.UnauthorizedOperationException;
+import com.example.forum.repository.AttachmentRepository;
 import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.SyncTombstoneRepository;
 import com.example.forum.repository.TopicRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class ResponseService {
 
+    private static final int MAX_SOLUTION_ATTEMPTS = 3;
+
     private final ResponseRepository responseRepository;
     private final TopicRepository topicRepository;
     private final UserService userService;
-
-    public List<Response> findByTopic(Long topicId) {
-        Topic topic = topicRepository.findById(topicId)
-                .orElseThrow(() -> new TopicNotFoundException(topicId));
-        return responseRepository.findByTopicoOrderByDataCriacaoAsc(topic);
+    private final TransactionTemplate transactionTemplate;
+    private final TopicArchive topicArchive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadCoalescer readCoalescer;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final AttachmentRepository attachmentRepository;
+
+    // Falls back to the cold archive for threads no longer in the database. Concurrent reads of the
+    // same thread share one load, run by the coalescer in its own read-only transaction.
+    public List<ResponseResponse> findByTopic(Long topicId) {
+        return readCoalescer.load("responses", topicId, () -> {
+            Optional<Topic> topic = findLiveTopic(topicId);
+            List<Response> responses = topic.isPresent()
+                    ? responseRepository.findByTopicoOrderByDataCriacaoAsc(topic.get())
+                    : findArchivedResponses(topicId);
+            return responses.stream().map(ResponseResponse::new).toList();
+        });
     }
 
+    @Transactional(readOnly = true)
     public Response findById(Long id) {
         return responseRepository.findById(id)
                 .orElseThrow(() -> new ResponseNotFoundException(id));
     }
 
     @Transactional
-    public Response createResponse(Long topicId, CreateResponseRequest request, User author) {
-        Topic topic = topicRepository.findById(topicId)
-                .orElseThrow(() -> new TopicNotFoundException(topicId));
+    public ResponseResponse createResponse(Long topicId, CreateResponseRequest request, User author) {
+        // Share lock until commit: the topic cannot be deleted or archived under the new response
+        Topic topic = topicRepository.findForShareById(topicId)
+                .filter(live -> live.getStatus() != TopicStatus.DELETING)
+                .orElseThrow(() -> topicArchive.contains(topicId)
+                        ? new TopicArchivedException(topicId)
+                        : new TopicNotFoundException(topicId));
 
         Response response = new Response(request.mensagem(), topic, author);
-        return responseRepository.save(response);
+        eventPublisher.publishEvent(TopicsChanged.content(topicId));
+        ResponseResponse created = new ResponseResponse(responseRepository.save(response));
+        eventPublisher.publishEvent(TopicActivity.responseCreated(topic, created));
+        return created;
     }
 
-    @Transactional
-    public Response markAsSolution(Long responseId, User currentUser) {
-        Response response = findById(responseId);
-        Topic topic = response.getTopico();
-
-        // Only topic author can mark solutions
-        if (!topic.isAuthor(currentUser)) {
-            throw new UnauthorizedOperationException("Apenas o autor do tópico pode marcar uma resposta como solução");
-        }
-
-        // Unmark previous solution if exists
-        Optional<Response> currentSolution = responseRepository.findByTopicoAndSolucaoTrue(topic);
-        if (currentSolution.isPresent()) {
-            currentSolution.get().unmarkAsSolution();
-            responseRepository.save(currentSolution.get());
-        }
-
-        // Mark new solution
-        response.markAsSolution();
-        Response savedResponse = responseRepository.save(response);
-
-        // Close the topic when a solution is marked
-        topic.close();
-        topicRepository.save(topic);
+    public ResponseResponse markAsSolution(Long responseId, User currentUser) {
+        return withSolutionRetry(() -> {
+            Response response = findById(responseId);
+            Topic topic = response.getTopico();
 
-        return savedResponse;
+            // Only topic author can mark solutions
+            if (!topic.isAuthor(currentUser)) {
+                throw new UnauthorizedOperationException("Apenas o autor do tópico pode marcar uma resposta como solução");
+            }
+
+            // Point the topic at the new solution and close it, then flip the solution flags.
+            // The version guard makes a concurrent switch on the same topic fail and retry.
+            updateSolutionPointer(topic, responseId, TopicStatus.CLOSED);
+            responseRepository.switchSolution(topic.getId(), responseId);
+            eventPublisher.publishEvent(TopicsChanged.listing(topic.getId()));
+
+            ResponseResponse solution = new ResponseResponse(findById(responseId));
+            eventPublisher.publishEvent(TopicActivity.solutionMarked(topic, solution));
+            return solution;
+        });
     }
 
-    @Transactional
-    public Response unmarkAsSolution(Long responseId, User currentUser) {
-        Response response = findById(responseId);
-        Topic topic = response.getTopico();
+    public ResponseResponse unmarkAsSolution(Long responseId, User currentUser) {
+        return withSolutionRetry(() -> {
+            Response response = findById(responseId);
+            Topic topic = response.getTopico();
 
-        // Only topic author can unmark solutions
-        if (!topic.isAuthor(currentUser)) {
-            throw new UnauthorizedOperationException("Apenas o autor do tópico pode desmarcar uma resposta como solução");
-        }
+            // Only topic author can unmark solutions
+            if (!topic.isAuthor(currentUser)) {
+                throw new UnauthorizedOperationException("Apenas o autor do tópico pode desmarcar uma resposta como solução");
+            }
 
-        response.unmarkAsSolution();
-        Response savedResponse = responseRepository.save(response);
+            // Only the topic's current solution can be unmarked; anything else is left as it is
+            if (!responseId.equals(topic.getSolucaoId())) {
+                return new ResponseResponse(response);
+            }
 
-        // Reopen the topic when solution is unmarked
-        topic.open();
-        topicRepository.save(topic);
+            // Reopen the topic when solution is unmarked
+            updateSolutionPointer(topic, null, TopicStatus.OPEN);
+            responseRepository.clearSolution(responseId);
+            eventPublisher.publishEvent(TopicsChanged.listing(topic.getId()));
+            eventPublisher.publishEvent(TopicActivity.statusChanged(topic, TopicStatus.OPEN));
 
-        return savedResponse;
+            return new ResponseResponse(findById(responseId));
+        });
     }
 
     @Transactional
@@ -101,38 +135,92 @@ public class ResponseService {
             throw new UnauthorizedOperationException("Você só pode deletar suas próprias respostas");
         }
 
+        // Exclusive lock first, so an attachment being added to the response either commits before
+        // its rows are deleted or finds the response gone
+        Topic topic = response.getTopico();
+        topicRepository.findForUpdateById(topic.getId());
+        attachmentRepository.deleteByRespostaId(responseId);
+        responseRepository.delete(response);
+        syncTombstoneRepository.save(SyncTombstone.response(response.getId(), topic.getId()));
+
         // If deleting a solution, reopen the topic
         if (response.getSolucao()) {
-            Topic topic = response.getTopico();
-            topic.open();
-            topicRepository.save(topic);
+            updateSolutionPointer(topic, null, TopicStatus.OPEN);
+            eventPublisher.publishEvent(TopicsChanged.listing(topic.getId()));
+        } else {
+            eventPublisher.publishEvent(TopicsChanged.content(topic.getId()));
         }
-
-        responseRepository.delete(response);
     }
 
-    public Optional<Response> findSolutionByTopic(Long topicId) {
-        Topic topic = topicRepository.findById(topicId)
-                .orElseThrow(() -> new TopicNotFoundException(topicId));
-        return responseRepository.findByTopicoAndSolucaoTrue(topic);
+    @Transactional(readOnly = true)
+    public Optional<ResponseResponse> findSolutionByTopic(Long topicId) {
+        Optional<Topic> live = findLiveTopic(topicId);
+        if (live.isEmpty()) {
+            return findArchivedResponses(topicId).stream()
+                    .filter(Response::getSolucao)
+                    .findFirst()
+                    .map(ResponseResponse::new);
+        }
+        Topic topic = live.get();
+        if (topic.getSolucaoId() == null) {
+            return Optional.empty();
+        }
+        return responseRepository.findById(topic.getSolucaoId()).map(ResponseResponse::new);
     }
 
+    @Transactional(readOnly = true)
     public long countResponsesByTopic(Long topicId) {
-        Topic topic = topicRepository.findById(topicId)
-                .orElseThrow(() -> new TopicNotFoundException(topicId));
-        return responseRepository.findByTopicoOrderByDataCriacaoAsc(topic).size();
+        Optional<Topic> topic = findLiveTopic(topicId);
+        if (topic.isPresent()) {
+            return responseRepository.countByTopico(topic.get());
+        }
+        return findArchivedResponses(topicId).size();
     }
 
+    @Transactional(readOnly = true)
     public boolean isResponseAuthor(Long responseId, User user) {
         Response response = findById(responseId);
         return response.isAuthor(user);
     }
 
+    @Transactional(readOnly = true)
     public boolean canMarkAsSolution(Long responseId, User user) {
         Response response = findById(responseId);
         return response.getTopico().isAuthor(user);
     }
 
+    private Optional<Topic> findLiveTopic(Long topicId) {
+        return topicRepository.findById(topicId)
+                .filter(topic -> topic.getStatus() != TopicStatus.DELETING);
+    }
+
+    private List<Response> findArchivedResponses(Long topicId) {
+        return topicArchive.find(topicId)
+                .map(archived -> archived.toTopic().getRespostas())
+                .orElseThrow(() -> new TopicNotFoundException(topicId));
+    }
+
+    private void updateSolutionPointer(Topic topic, Long responseId, TopicStatus status) {
+        int updated = topicRepository.updateSolution(topic.getId(), responseId, status, topic.getVersion());
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Topic.class, topic.getId());
+        }
+    }
+
+    // Runs a solution switch in its own transaction, retrying a bounded number of times
+    // when it loses a race against another write on the same topic
+    private ResponseResponse withSolutionRetry(Supplier<ResponseResponse> solutionSwitch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> solutionSwitch.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_SOLUTION_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
     private boolean canModifyResponse(Response response, User user) {
         return response.isAuthor(user) || userService.isUserModerator(user);
     }
@@ -0,0 +1,46 @@
+package com.example.forum.service;
+
+import com.example.forum.repository.SchedulerLeaseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+// Database-backed leases that keep a scheduled job on a single node. A lease expires on its own
+// if the holder dies, and the holder extends it by acquiring again before it runs out.
+@Service
+@RequiredArgsConstructor
+public class SchedulerLeaseService {
+
+    private final SchedulerLeaseRepository leaseRepository;
+
+    private final String owner = hostName() + ":" + UUID.randomUUID();
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String name, Duration duration) {
+        leaseRepository.createIfAbsent(name);
+        return leaseRepository.acquire(name, owner, Math.max(1, duration.toSeconds())) > 0;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String name) {
+        leaseRepository.release(name, owner);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.forum.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Assigns delta sync's change sequence at commit. Writes leave change_seq at 0, which sync never
+// reads past; just before a read-write transaction commits, its pending rows get the next value of
+// sync_sequence. The sequence row stays locked until the commit, so values are handed out in
+// commit order and no transaction can commit rows below a value a client has already read.
+//
+// Spring Boot registers the listener with the transaction manager, so every transaction goes
+// through here, whichever repository, bulk statement or TransactionTemplate wrote the rows.
+@Component
+@RequiredArgsConstructor
+public class SyncChangeSequencer implements TransactionExecutionListener {
+
+    static final List<String> TABLES = List.of("topics", "responses", "sync_tombstones");
+    static final int STAMP_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void beforeCommit(TransactionExecution transaction) {
+        if (transaction.isReadOnly()) {
+            return;
+        }
+        // Entity changes still waiting in the persistence context must reach the tables first
+        if (transaction instanceof TransactionStatus status) {
+            status.flush();
+        }
+
+        // A plain read sees this transaction's own pending rows but not those of transactions still
+        // running, so the sequence row is only locked by transactions that wrote something to sync
+        Map<String, List<Long>> pending = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE change_seq = 0", Long.class);
+            if (!ids.isEmpty()) {
+                pending.put(table, ids);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long changeSeq = next();
+        pending.forEach((table, ids) -> {
+            for (int from = 0; from < ids.size(); from += STAMP_CHUNK_SIZE) {
+                String chunk = ids.subList(from, Math.min(from + STAMP_CHUNK_SIZE, ids.size())).stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(","));
+                jdbcTemplate.update("UPDATE " + table + " SET change_seq = ? WHERE id IN (" + chunk + ") AND change_seq = 0",
+                        changeSeq);
+            }
+        });
+    }
+
+    // Flyway creates the row; a schema built by Hibernate starts without one
+    private long next() {
+        if (jdbcTemplate.update("UPDATE sync_sequence SET current_seq = current_seq + 1 WHERE id = 1") == 0) {
+            jdbcTemplate.update("INSERT INTO sync_sequence (id, current_seq) VALUES (1, 1)");
+        }
+        Long changeSeq = jdbcTemplate.queryForObject("SELECT current_seq FROM sync_sequence WHERE id = 1", Long.class);
+        if (changeSeq == null) {
+            throw new IllegalStateException("sync_sequence has no row");
+        }
+        return changeSeq;
+    }
+}
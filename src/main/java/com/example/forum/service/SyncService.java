@@ -0,0 +1,155 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.Response;
+import com.example.forum.domain.SyncTombstone;
+import com.example.forum.domain.Topic;
+import com.example.forum.dto.SyncResponse;
+import com.example.forum.exception.SyncTokenExpiredException;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.SyncTombstoneRepository;
+import com.example.forum.repository.TopicRepository;
+import com.example.forum.service.SyncToken.Position;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Delta sync for offline and mirroring clients. Topics and responses are read in (change_seq, id)
+// order from the position in the client's token, and deletions from the sync tombstones, so each
+// call is three index range scans however large the forum is.
+//
+// SyncChangeSequencer hands out change_seq in commit order, so a row that commits after a client
+// read past its neighbours still lands above the client's position, however long its transaction
+// ran. Replicas apply transactions in the primary's commit order (replica_preserve_commit_order,
+// on by default), so a lagging replica serves an older prefix of the sequence, never one with gaps.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    static final String LEASE_NAME = "sync-tombstone-cleanup";
+    static final int MAX_LIMIT = 1000;
+
+    private final TopicRepository topicRepository;
+    private final ResponseRepository responseRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${forum.sync.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    @Value("${forum.sync.tombstone-cleanup.chunk-size:1000}")
+    private int cleanupChunkSize;
+
+    @Value("${forum.sync.tombstone-cleanup.lease:PT10M}")
+    private Duration cleanupLease;
+
+    private record Batch<T>(List<T> rows, Position next, boolean truncated) {}
+
+    // Each stream returns at most limit rows; without since, the client gets every live topic and response
+    @Transactional(readOnly = true)
+    public SyncResponse sync(String since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        LocalDateTime now = databaseNow();
+        SyncToken token = since == null || since.isBlank()
+                ? SyncToken.initial(syncTombstoneRepository.findLastChangeSeq(), now)
+                : SyncToken.decode(since);
+        // Removals older than the retention may already be gone, so this client could miss some
+        if (token.removalsSyncedAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new SyncTokenExpiredException();
+        }
+        // A replacing restore removed rows without tombstones, so older tokens would miss them
+        LocalDateTime resetAt = resetAt();
+        if (resetAt != null && token.removalsSyncedAt().isBefore(resetAt)) {
+            throw new SyncTokenExpiredException();
+        }
+
+        Batch<Topic> topics = batch(token.topics(), pageSize,
+                (after, page) -> topicRepository.findChangedAfter(after.changeSeq(), after.id(), page),
+                Topic::getChangeSeq, Topic::getId);
+        Batch<Response> responses = batch(token.responses(), pageSize,
+                (after, page) -> responseRepository.findChangedAfter(after.changeSeq(), after.id(), page),
+                Response::getChangeSeq, Response::getId);
+        Batch<SyncTombstone> removals = batch(token.removals(), pageSize,
+                (after, page) -> syncTombstoneRepository.findRemovedAfter(after.changeSeq(), after.id(), page),
+                SyncTombstone::getChangeSeq, SyncTombstone::getId);
+        // Only a drained removal stream moves the retention check forward
+        LocalDateTime removalsSyncedAt = removals.truncated() ? token.removalsSyncedAt() : now;
+
+        return new SyncResponse(
+                topics.rows().stream().map(SyncResponse.Topico::new).toList(),
+                responses.rows().stream().map(SyncResponse.Resposta::new).toList(),
+                removals.rows().stream().map(SyncResponse.Remocao::new).toList(),
+                new SyncToken(topics.next(), responses.next(), removals.next(), removalsSyncedAt).encode(),
+                topics.truncated() || responses.truncated() || removals.truncated());
+    }
+
+    // Removals are only needed by clients that synced within the retention; older tokens get 410
+    @Scheduled(cron = "${forum.sync.tombstone-cleanup.cron:0 15 5 * * *}")
+    public void purgeExpiredTombstones() {
+        if (!leaseService.tryAcquire(LEASE_NAME, cleanupLease)) {
+            return;
+        }
+        try {
+            LocalDateTime cutoff = databaseNow().minus(tombstoneRetention);
+            long total = 0;
+            Integer deleted;
+            do {
+                deleted = transactionTemplate.execute(status ->
+                        syncTombstoneRepository.deleteChunkRemovedBefore(cutoff, cleanupChunkSize));
+                total += deleted != null ? deleted : 0;
+            } while (deleted != null && deleted > 0);
+            log.info("Removed {} sync tombstones older than {}", total, cutoff);
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeysetQuery<T> {
+        List<T> after(Position position, PageRequest page);
+    }
+
+    // Reads one row more than the page to tell a full page from a drained stream
+    private static <T> Batch<T> batch(Position after, int pageSize, KeysetQuery<T> query,
+                                      Function<T, Long> changeSeq, Function<T, Long> id) {
+        List<T> rows = query.after(after, PageRequest.of(0, pageSize + 1));
+        List<T> page = rows.size() <= pageSize ? rows : rows.subList(0, pageSize);
+        if (page.isEmpty()) {
+            return new Batch<>(page, after, false);
+        }
+        T last = page.get(page.size() - 1);
+        return new Batch<>(page, new Position(changeSeq.apply(last), id.apply(last)), rows.size() > pageSize);
+    }
+
+    private LocalDateTime resetAt() {
+        return jdbcTemplate.queryForList("SELECT reset_at FROM sync_sequence WHERE id = 1", Timestamp.class).stream()
+                .filter(Objects::nonNull)
+                .map(Timestamp::toLocalDateTime)
+                .findFirst()
+                .orElse(null);
+    }
+
+    // Tombstones are stamped by the database, so retention is measured on its clock too
+    private LocalDateTime databaseNow() {
+        Timestamp now = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(6)", Timestamp.class);
+        if (now == null) {
+            throw new IllegalStateException("Database returned no current timestamp");
+        }
+        return now.toLocalDateTime();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.forum.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+// Where a sync client stands in each of the three change streams (topics, responses, removals),
+// as the (change_seq, id) of the last row it received, plus when it last read every removal.
+// Opaque to clients: base64url of "2:<topics>:<responses>:<removals>:<epoch micros>", each
+// position written as "<change_seq>.<id>".
+record SyncToken(Position topics, Position responses, Position removals, LocalDateTime removalsSyncedAt) {
+
+    private static final String VERSION = "2";
+
+    record Position(long changeSeq, long id) {
+
+        static final Position START = new Position(0, 0);
+
+        private String encode() {
+            return changeSeq + "." + id;
+        }
+
+        private static Position decode(String text) {
+            int dot = text.indexOf('.');
+            return new Position(Long.parseLong(text.substring(0, dot)), Long.parseLong(text.substring(dot + 1)));
+        }
+    }
+
+    // A first sync gets every live topic and response, but no removals of things it never had
+    static SyncToken initial(long lastRemovalSeq, LocalDateTime now) {
+        return new SyncToken(Position.START, Position.START, new Position(lastRemovalSeq, Long.MAX_VALUE), now);
+    }
+
+    String encode() {
+        String text = String.join(":", VERSION, topics.encode(), responses.encode(), removals.encode(),
+                Long.toString(toMicros(removalsSyncedAt)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length == 5 && VERSION.equals(parts[0])) {
+                return new SyncToken(Position.decode(parts[1]), Position.decode(parts[2]), Position.decode(parts[3]),
+                        fromMicros(Long.parseLong(parts[4])));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // Not base64, or a position that is not two numbers
+        }
+        throw new IllegalArgumentException("Token de sincronização inválido");
+    }
+
+    private static long toMicros(LocalDateTime at) {
+        return at.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + at.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
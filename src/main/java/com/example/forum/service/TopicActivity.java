@@ -0,0 +1,38 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.dto.ResponseResponse;
+import com.example.forum.dto.TopicResponse;
+
+// Published by writes that clients following a topic or a course see live, and that webhook
+// subscribers are told about. Live listeners act on it only once the transaction that published it
+// has committed; the webhook outbox is written inside that transaction.
+public record TopicActivity(Type tipo, Long topicoId, Long cursoId, TopicStatus status, ResponseResponse resposta,
+                            TopicResponse topico) {
+
+    public enum Type {
+        TOPIC_CREATED, RESPONSE_CREATED, SOLUTION_MARKED, STATUS_CHANGED
+    }
+
+    public static TopicActivity topicCreated(Topic topic, TopicResponse created) {
+        return new TopicActivity(Type.TOPIC_CREATED, topic.getId(), topic.getCurso().getId(), topic.getStatus(), null, created);
+    }
+
+    public static TopicActivity responseCreated(Topic topic, ResponseResponse response) {
+        return new TopicActivity(Type.RESPONSE_CREATED, topic.getId(), topic.getCurso().getId(), topic.getStatus(), response, null);
+    }
+
+    public static TopicActivity solutionMarked(Topic topic, ResponseResponse response) {
+        return new TopicActivity(Type.SOLUTION_MARKED, topic.getId(), topic.getCurso().getId(), TopicStatus.CLOSED, response, null);
+    }
+
+    public static TopicActivity statusChanged(Topic topic, TopicStatus status) {
+        return statusChanged(topic.getId(), topic.getCurso().getId(), status);
+    }
+
+    // For bulk statements that change topics without loading them
+    public static TopicActivity statusChanged(Long topicoId, Long cursoId, TopicStatus status) {
+        return new TopicActivity(Type.STATUS_CHANGED, topicoId, cursoId, status, null, null);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.forum.service;
+
+import com.example.forum.archive.ArchivedTopic;
+import com.example.forum.archive.TopicArchive;
+import com.example.forum.domain.Response;
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.TopicRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Moves closed topics older than the configured age, with their responses, from MySQL into the
+// cold archive. Each batch is written to a durable segment first and only then deleted from the
+// database, skipping any topic that was reopened, edited or answered, or received an attachment,
+// while the segment was being written. Every node serves archived topics from forum.archive.dir,
+// so the archive only runs against an explicitly configured, absolute (shared) directory.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TopicArchiveService {
+
+    static final String LEASE_NAME = "topic-archive";
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TopicRepository topicRepository;
+    private final ResponseRepository responseRepository;
+    private final TopicArchive topicArchive;
+    private final SchedulerLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttachmentRepository attachmentRepository;
+
+    @Value("${forum.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${forum.archive.dir:}")
+    private String directory;
+
+    @Value("${forum.archive.min-age:P365D}")
+    private Duration minAge;
+
+    @Value("${forum.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${forum.archive.lease:PT30M}")
+    private Duration lease;
+
+    public record RunResult(String outcome, int batches, long archived, long skipped) {}
+
+    // What was written to the segment, with the versions it was read at
+    private record Snapshot(ArchivedTopic topic, Long version, Map<Long, Long> responseVersions) {}
+
+    @PostConstruct
+    void checkDirectory() {
+        if (enabled && (directory.isBlank() || !Path.of(directory).isAbsolute())) {
+            throw new IllegalStateException(
+                    "forum.archive.enabled requires forum.archive.dir to be an absolute path on storage shared by all nodes");
+        }
+    }
+
+    @Scheduled(cron = "${forum.archive.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public RunResult run() {
+        RunResult result;
+        if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+            result = new RunResult("skipped", 0, 0, 0);
+        } else {
+            try {
+                result = archiveClosedTopics(LocalDateTime.now().minus(minAge));
+            } catch (RuntimeException e) {
+                log.error("Topic archive run failed", e);
+                result = new RunResult("failed", 0, 0, 0);
+            } finally {
+                leaseService.release(LEASE_NAME);
+            }
+        }
+        meterRegistry.counter("forum.topics.archived").increment(result.archived());
+        log.info("Topic archive {}: {} batches, {} archived, {} skipped",
+                result.outcome(), result.batches(), result.archived(), result.skipped());
+        return result;
+    }
+
+    private RunResult archiveClosedTopics(LocalDateTime cutoff) {
+        LocalDateTime afterDataCriacao = KEYSET_START;
+        Long afterId = 0L;
+        int batches = 0;
+        long archived = 0;
+        long skipped = 0;
+
+        List<Snapshot> batch;
+        while (!(batch = loadBatch(cutoff, afterDataCriacao, afterId)).isEmpty()) {
+            topicArchive.write(batch.stream().map(Snapshot::topic).toList());
+            List<Snapshot> written = batch;
+            Integer deleted = transactionTemplate.execute(status -> deleteUnchanged(written));
+
+            ArchivedTopic last = batch.get(batch.size() - 1).topic();
+            afterDataCriacao = last.dataCriacao();
+            afterId = last.id();
+            batches++;
+            archived += deleted != null ? deleted : 0;
+            skipped += batch.size() - (deleted != null ? deleted : 0);
+
+            // Stop if another node took over after our lease ran out
+            if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+                return new RunResult("lease_lost", batches, archived, skipped);
+            }
+        }
+        return new RunResult("completed", batches, archived, skipped);
+    }
+
+    private List<Snapshot> loadBatch(LocalDateTime cutoff, LocalDateTime afterDataCriacao, Long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<Topic> topics = topicRepository.findClosedCreatedBefore(
+                    cutoff, afterDataCriacao, afterId, PageRequest.of(0, batchSize));
+            if (topics.isEmpty()) {
+                return List.of();
+            }
+            // Partition pruning bound, with the same day of slack as ResponseRepository
+            LocalDateTime since = topics.get(0).getDataCriacao().minusDays(1);
+            Map<Long, List<Response>> responses = responseRepository
+                    .findByTopicIdsWithAutor(topics.stream().map(Topic::getId).toList(), since).stream()
+                    .collect(Collectors.groupingBy(response -> response.getTopico().getId()));
+            return topics.stream()
+                    .map(topic -> snapshot(topic, responses.getOrDefault(topic.getId(), List.of())))
+                    .toList();
+        });
+    }
+
+    private Snapshot snapshot(Topic topic, List<Response> responses) {
+        return new Snapshot(new ArchivedTopic(topic, responses), topic.getVersion(), responses.stream()
+                .collect(Collectors.toMap(Response::getId, Response::getVersion)));
+    }
+
+    // Locks the archived topics and their responses, and deletes the topics still closed, at the
+    // archived version, with exactly the archived responses at theirs and without attachments.
+    // Holding the topics exclusively keeps new responses and attachments out until the delete commits.
+    private int deleteUnchanged(List<Snapshot> batch) {
+        Map<Long, Snapshot> byId = batch.stream()
+                .collect(Collectors.toMap(snapshot -> snapshot.topic().id(), Function.identity()));
+        List<Long> closed = topicRepository.lockModerationStates(byId.keySet()).stream()
+                .filter(state -> state.getStatus() == TopicStatus.CLOSED)
+                .filter(state -> state.getVersion().equals(byId.get(state.getId()).version()))
+                .map(TopicRepository.ModerationState::getId)
+                .toList();
+        if (closed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Map<Long, Long>> responseVersions = responseRepository.lockVersionsByTopicIds(closed).stream()
+                .collect(Collectors.groupingBy(ResponseRepository.ResponseVersion::getTopicId,
+                        Collectors.toMap(ResponseRepository.ResponseVersion::getId,
+                                ResponseRepository.ResponseVersion::getVersion)));
+        Set<Long> withAttachments = Set.copyOf(attachmentRepository.findTopicIdsWithAttachments(closed));
+        List<Long> unchanged = closed.stream()
+                .filter(id -> responseVersions.getOrDefault(id, Map.of()).equals(byId.get(id).responseVersions()))
+                .filter(id -> !withAttachments.contains(id))
+                .toList();
+        if (!unchanged.isEmpty()) {
+            responseRepository.bulkDeleteByTopicIds(unchanged);
+            topicRepository.bulkDeleteByIds(unchanged);
+            eventPublisher.publishEvent(TopicsChanged.listing(unchanged));
+        }
+        return unchanged.size();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.forum.service;
+
+import com.example.forum.repository.TopicRepository;
+import com.example.forum.repository.TopicRepository.TopicKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Closes open topics with no new responses for the configured number of days. Runs on a single
+// node at a time, walks the open set in keyset order and closes each batch with one UPDATE,
+// pacing batches so the run never exceeds the configured rows per second.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TopicAutoCloseService {
+
+    static final String LEASE_NAME = "topic-auto-close";
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TopicRepository topicRepository;
+    private final SchedulerLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${forum.topics.auto-close.enabled:true}")
+    private boolean enabled;
+
+    @Value("${forum.topics.auto-close.inactive-days:30}")
+    private int inactiveDays;
+
+    @Value("${forum.topics.auto-close.batch-size:500}")
+    private int batchSize;
+
+    @Value("${forum.topics.auto-close.max-rows-per-second:2000}")
+    private int maxRowsPerSecond;
+
+    @Value("${forum.topics.auto-close.lease:PT10M}")
+    private Duration lease;
+
+    public record RunResult(String outcome, int batches, long scanned, long closed) {}
+
+    @Scheduled(cron = "${forum.topics.auto-close.cron:0 15 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public RunResult run() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        RunResult result;
+        if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+            result = new RunResult("skipped", 0, 0, 0);
+        } else {
+            try {
+                result = closeStaleTopics();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result = new RunResult("interrupted", 0, 0, 0);
+            } catch (RuntimeException e) {
+                log.error("Topic auto-close run failed", e);
+                result = new RunResult("failed", 0, 0, 0);
+            } finally {
+                leaseService.release(LEASE_NAME);
+            }
+        }
+        sample.stop(meterRegistry.timer("forum.topics.auto_close.run", "outcome", result.outcome()));
+        meterRegistry.counter("forum.topics.auto_close.closed").increment(result.closed());
+        meterRegistry.counter("forum.topics.auto_close.scanned").increment(result.scanned());
+        log.info("Topic auto-close {}: {} batches, {} scanned, {} closed",
+                result.outcome(), result.batches(), result.scanned(), result.closed());
+        return result;
+    }
+
+    private RunResult closeStaleTopics() throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(inactiveDays);
+        LocalDateTime afterDataCriacao = KEYSET_START;
+        Long afterId = 0L;
+        int batches = 0;
+        long scanned = 0;
+        long closed = 0;
+
+        List<TopicKey> batch;
+        while (!(batch = topicRepository.findOpenCreatedBefore(
+                cutoff, afterDataCriacao, afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            long started = System.nanoTime();
+            List<Long> ids = batch.stream().map(TopicKey::getId).toList();
+            Integer updated = transactionTemplate.execute(status -> {
+                int closedNow = topicRepository.closeInactive(ids, cutoff);
+                if (closedNow > 0) {
+                    eventPublisher.publishEvent(TopicsChanged.listing(ids));
+                }
+                return closedNow;
+            });
+
+            TopicKey last = batch.get(batch.size() - 1);
+            afterDataCriacao = last.getDataCriacao();
+            afterId = last.getId();
+            batches++;
+            scanned += batch.size();
+            closed += updated != null ? updated : 0;
+
+            // Stop if another node took over after our lease ran out
+            if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+                return new RunResult("lease_lost", batches, scanned, closed);
+            }
+            throttle(batch.size(), started);
+        }
+        return new RunResult("completed", batches, scanned, closed);
+    }
+
+    private void throttle(int rows, long startedNanos) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long budgetMillis = rows * 1000L / maxRowsPerSecond;
+        long elapsedMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+        if (budgetMillis > elapsedMillis) {
+            Thread.sleep(budgetMillis - elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.Course;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.domain.User;
+import com.example.forum.dto.BulkModerationRequest;
+import com.example.forum.dto.BulkModerationResponse;
+import com.example.forum.dto.BulkModerationResponse.Outcome;
+import com.example.forum.exception.CourseNotFoundException;
+import com.example.forum.exception.UnauthorizedOperationException;
+import com.example.forum.repository.CourseRepository;
+import com.example.forum.repository.TopicRepository;
+import com.example.forum.repository.TopicRepository.ModerationState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Applies one moderation action to many topics: a single authorization check, one locking read of
+// the current state and set-based statements for the change, with an outcome reported per id.
+@Service
+@RequiredArgsConstructor
+public class TopicModerationService {
+
+    private final TopicRepository topicRepository;
+    private final CourseRepository courseRepository;
+    private final UserService userService;
+    private final TopicPurgeService topicPurgeService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public BulkModerationResponse apply(BulkModerationRequest request, User moderator) {
+        if (!userService.isUserModerator(moderator)) {
+            throw new UnauthorizedOperationException("Apenas moderadores podem executar ações em lote");
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(request.topicoIds());
+        Map<Long, ModerationState> states = topicRepository.lockModerationStates(ids).stream()
+                .filter(state -> state.getStatus() != TopicStatus.DELETING)
+                .collect(Collectors.toMap(ModerationState::getId, Function.identity()));
+
+        Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+        ids.forEach(id -> outcomes.put(id, states.containsKey(id) ? Outcome.UNCHANGED : Outcome.NOT_FOUND));
+
+        switch (request.acao()) {
+            case CLOSE -> changeStatus(states, outcomes, TopicStatus.OPEN, TopicStatus.CLOSED);
+            case REOPEN -> changeStatus(states, outcomes, TopicStatus.CLOSED, TopicStatus.OPEN);
+            case MOVE -> move(states, outcomes, request.cursoId());
+            case DELETE -> delete(states, outcomes);
+        }
+
+        if (!states.isEmpty()) {
+            eventPublisher.publishEvent(TopicsChanged.listing(states.keySet()));
+        }
+
+        List<BulkModerationResponse.Result> results = new ArrayList<>(outcomes.size());
+        Map<Outcome, Long> totals = new EnumMap<>(Outcome.class);
+        outcomes.forEach((id, outcome) -> {
+            results.add(new BulkModerationResponse.Result(id, outcome));
+            totals.merge(outcome, 1L, Long::sum);
+        });
+        return new BulkModerationResponse(request.acao(), request.topicoIds().size(), totals, results);
+    }
+
+    private void changeStatus(Map<Long, ModerationState> states, Map<Long, Outcome> outcomes,
+                              TopicStatus from, TopicStatus to) {
+        List<Long> targets = states.values().stream()
+                .filter(state -> state.getStatus() == from)
+                .map(ModerationState::getId)
+                .toList();
+        if (!targets.isEmpty()) {
+            topicRepository.bulkUpdateStatus(targets, from, to);
+            targets.forEach(id -> outcomes.put(id, Outcome.UPDATED));
+        }
+    }
+
+    private void move(Map<Long, ModerationState> states, Map<Long, Outcome> outcomes, Long cursoId) {
+        if (cursoId == null) {
+            throw new IllegalArgumentException("Curso de destino é obrigatório para mover tópicos");
+        }
+        Course course = courseRepository.findById(cursoId)
+                .orElseThrow(() -> new CourseNotFoundException(cursoId));
+
+        List<Long> targets = states.values().stream()
+                .filter(state -> !cursoId.equals(state.getCursoId()))
+                .map(ModerationState::getId)
+                .toList();
+        if (!targets.isEmpty()) {
+            topicRepository.bulkMove(targets, course);
+            targets.forEach(id -> outcomes.put(id, Outcome.UPDATED));
+        }
+    }
+
+    private void delete(Map<Long, ModerationState> states, Map<Long, Outcome> outcomes) {
+        if (states.isEmpty()) {
+            return;
+        }
+        Set<Long> deferred = topicPurgeService.deleteAll(states.keySet());
+        states.keySet().forEach(id -> outcomes.put(id, deferred.contains(id) ? Outcome.DELETION_QUEUED : Outcome.DELETED));
+    }
+}
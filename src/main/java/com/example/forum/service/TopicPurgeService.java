@@ -0,0 +1,154 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.SyncTombstone;
+import com.example.forum.domain.Topic;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.SyncTombstoneRepository;
+import com.example.forum.repository.TopicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TopicPurgeService {
+
+    static final String LEASE_NAME = "topic-purge-resume";
+
+    private final TopicRepository topicRepository;
+    private final ResponseRepository responseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final SchedulerLeaseService leaseService;
+    private final AttachmentRepository attachmentRepository;
+
+    @Value("${forum.topics.purge.async-threshold:500}")
+    private long asyncThreshold;
+
+    @Value("${forum.topics.purge.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${forum.topics.purge.stale-after:PT30M}")
+    private Duration staleAfter;
+
+    @Value("${forum.topics.purge.lease:PT30M}")
+    private Duration lease;
+
+    public record PurgeRequested(Long topicId) {}
+
+    // Small threads are removed with two set-based deletes. Large ones are tombstoned and
+    // purged in chunks after the caller's transaction commits, so the request returns immediately.
+    // Either way sync clients see the topic removed from now on.
+    @Transactional
+    public void delete(Topic topic) {
+        // Waits for responses and attachments being added to commit, so the deletes below see them
+        topicRepository.findForUpdateById(topic.getId());
+        syncTombstoneRepository.save(SyncTombstone.topic(topic.getId()));
+        if (responseRepository.countByTopico(topic) <= asyncThreshold) {
+            attachmentRepository.deleteByTopicoIds(List.of(topic.getId()));
+            responseRepository.bulkDeleteByTopicId(topic.getId());
+            topicRepository.bulkDeleteById(topic.getId());
+        } else {
+            topicRepository.markDeleting(topic.getId());
+            eventPublisher.publishEvent(new PurgeRequested(topic.getId()));
+        }
+    }
+
+    // Batch form of delete(Topic). Threads are deleted in place, smallest first, while the responses
+    // this request deletes stay within the async threshold in total; the rest are tombstoned and
+    // purged individually. Returns the ids whose purge was deferred. The caller holds the topics
+    // exclusively, as TopicModerationService does.
+    @Transactional
+    public Set<Long> deleteAll(Collection<Long> topicIds) {
+        Map<Long, Long> counts = responseRepository.countByTopicIds(topicIds).stream()
+                .collect(Collectors.toMap(ResponseRepository.TopicResponseCount::getTopicId,
+                        ResponseRepository.TopicResponseCount::getTotal));
+        Set<Long> deferred = new HashSet<>();
+        long budget = asyncThreshold;
+        for (Long topicId : topicIds.stream().sorted(Comparator.comparing(id -> counts.getOrDefault(id, 0L))).toList()) {
+            long count = counts.getOrDefault(topicId, 0L);
+            if (count <= budget) {
+                budget -= count;
+            } else {
+                deferred.add(topicId);
+            }
+        }
+        List<Long> immediate = topicIds.stream().filter(id -> !deferred.contains(id)).toList();
+        syncTombstoneRepository.saveAll(topicIds.stream().map(SyncTombstone::topic).toList());
+
+        if (!immediate.isEmpty()) {
+            attachmentRepository.deleteByTopicoIds(immediate);
+            responseRepository.bulkDeleteByTopicIds(immediate);
+            topicRepository.bulkDeleteByIds(immediate);
+        }
+        for (Long topicId : deferred) {
+            topicRepository.markDeleting(topicId);
+            eventPublisher.publishEvent(new PurgeRequested(topicId));
+        }
+        return deferred;
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onPurgeRequested(PurgeRequested event) {
+        purge(event.topicId());
+    }
+
+    // Picks up purges interrupted by a restart. Runs on one node at a time, and only takes topics
+    // idle for stale-after: a running purge touches its topic with every chunk.
+    @Scheduled(fixedDelayString = "${forum.topics.purge.resume-interval:PT10M}",
+               initialDelayString = "${forum.topics.purge.resume-interval:PT10M}")
+    public void resumePendingPurges() {
+        if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+            return;
+        }
+        try {
+            for (Long topicId : topicRepository.findDeletingIdleFor(staleAfter.toSeconds())) {
+                purge(topicId);
+                // Stop if another node took over after our lease ran out
+                if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+                    return;
+                }
+            }
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    public void purge(Long topicId) {
+        long total = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                topicRepository.touchDeleting(topicId);
+                return responseRepository.deleteChunkByTopicId(topicId, chunkSize);
+            });
+            total += deleted != null ? deleted : 0;
+        } while (deleted != null && deleted > 0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            attachmentRepository.deleteByTopicoIds(List.of(topicId));
+            topicRepository.deleteTombstoned(topicId);
+        });
+        log.info("Purged topic {} and {} responses", topicId, total);
+    }
+}
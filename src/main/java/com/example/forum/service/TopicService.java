@@ -1,46 +1,89 @@
 package com.example.forum.service;
 
+import com.example.forum.archive.ArchivedTopic;
+import com.example.forum.archive.TopicArchive;
+import com.example.forum.cache.ReadCoalescer;
 import com.example.forum.domain.Course;
 import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicFingerprint;
 import com.example.forum.domain.TopicStatus;
 import com.example.forum.domain.User;
 import com.example.forum.dto.CreateTopicRequest;
+import com.example.forum.dto.TopicResponse;
 import com.example.forum.dto.UpdateTopicRequest;
 import com.example.forum.exception.CourseNotFoundException;
 import com.example.forum.exception.DuplicateTopicException;
+import com.example.forum.exception.TopicArchivedException;
 import com.example.forum.exception.TopicNotFoundException;
+import com.example.forum.exception.TopicVersionMismatchException;
 import com.example.forum.exception.UnauthorizedOperationException;
 import com.example.forum.repository.CourseRepository;
+import com.example.forum.repository.TopicFingerprintRepository;
 import com.example.forum.repository.TopicRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class TopicService {
 
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 1, 1, 0, 0);
+
     private final TopicRepository topicRepository;
     private final CourseRepository courseRepository;
     private final UserService userService;
+    private final TopicPurgeService topicPurgeService;
+    private final TopicArchive topicArchive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadCoalescer readCoalescer;
+    private final TopicFingerprintRepository topicFingerprintRepository;
 
-    public Page<Topic> findAll(Pageable pageable) {
-        return topicRepository.findAllByOrderByDataCriacaoDesc(pageable);
+    // Reads return DTOs mapped inside the transaction, so nothing is lazily loaded while rendering
+    @Transactional(readOnly = true)
+    public Page<TopicResponse> findAll(Pageable pageable) {
+        return topicRepository.findAllByOrderByDataCriacaoDesc(pageable).map(TopicResponse::new);
     }
 
-    public Page<Topic> findByStatus(TopicStatus status, Pageable pageable) {
-        return topicRepository.findByStatusOrderByDataCriacaoDesc(status, pageable);
+    @Transactional(readOnly = true)
+    public Page<TopicResponse> findByStatus(TopicStatus status, Pageable pageable) {
+        if (status == TopicStatus.DELETING) {
+            return Page.empty(pageable);
+        }
+        return topicRepository.findByStatusOrderByDataCriacaoDesc(status, pageable).map(TopicResponse::new);
     }
 
-    public Topic findById(Long id) {
-        return topicRepository.findById(id)
-                .orElseThrow(() -> new TopicNotFoundException(id));
+    // Listing restricted to topics created from desde (inclusive) until ate (inclusive); either bound may be open
+    @Transactional(readOnly = true)
+    public Page<TopicResponse> findCreatedBetween(TopicStatus status, LocalDate desde, LocalDate ate, Pageable pageable) {
+        if (status == TopicStatus.DELETING) {
+            return Page.empty(pageable);
+        }
+        LocalDateTime from = desde != null ? desde.atStartOfDay() : EARLIEST;
+        LocalDateTime to = ate != null ? ate.plusDays(1).atStartOfDay() : LATEST;
+        if (status != null) {
+            return topicRepository.findByStatusCreatedBetween(status, from, to, pageable).map(TopicResponse::new);
+        }
+        return topicRepository.findCreatedBetween(from, to, pageable).map(TopicResponse::new);
+    }
+
+    // Concurrent reads of the same topic share one load; the DTO is immutable, so it is safe to
+    // hand to every waiting caller. Not transactional: the coalescer runs the load in its own
+    // read-only transaction, so waiting callers hold no connection.
+    public TopicResponse findById(Long id) {
+        return readCoalescer.load("topic", id, () -> new TopicResponse(findTopic(id)));
     }
 
     @Transactional
-    public Topic createTopic(CreateTopicRequest request, User author) {
+    public TopicResponse createTopic(CreateTopicRequest request, User author) {
         // Check for duplicate topic
         if (topicRepository.existsByTituloAndMensagem(request.titulo(), request.mensagem())) {
             throw new DuplicateTopicException();
@@ -51,46 +94,67 @@ public class TopicService {
                 .orElseThrow(() -> new CourseNotFoundException(request.cursoId()));
 
         // Create topic
-        Topic topic = new Topic(request.titulo(), request.mensagem(), author, course);
-        return topicRepository.save(topic);
+        Topic topic = topicRepository.save(new Topic(request.titulo(), request.mensagem(), author, course));
+        claimFingerprint(request.titulo(), request.mensagem(), topic.getId());
+        TopicResponse created = new TopicResponse(topic);
+        eventPublisher.publishEvent(TopicsChanged.listing(topic.getId()));
+        eventPublisher.publishEvent(TopicActivity.topicCreated(topic, created));
+        return created;
     }
 
     @Transactional
-    public Topic updateTopic(Long id, UpdateTopicRequest request, User currentUser) {
-        Topic topic = findById(id);
+    public TopicResponse updateTopic(Long id, UpdateTopicRequest request, User currentUser) {
+        return updateTopic(id, request, null, currentUser);
+    }
+
+    @Transactional
+    public TopicResponse updateTopic(Long id, UpdateTopicRequest request, Long expectedVersion, User currentUser) {
+        Topic topic = findLiveTopic(id);
 
         // Check authorization - only author or moderator can update
         if (!canModifyTopic(topic, currentUser)) {
             throw new UnauthorizedOperationException("Você só pode atualizar seus próprios tópicos");
         }
 
+        // Reject the update if the client edited a stale copy (If-Match)
+        if (expectedVersion != null && !expectedVersion.equals(topic.getVersion())) {
+            throw new TopicVersionMismatchException(id);
+        }
+
         // Check for duplicate if title or message changed
         if (!topic.getTitulo().equals(request.titulo()) || !topic.getMensagem().equals(request.mensagem())) {
             if (topicRepository.existsByTituloAndMensagem(request.titulo(), request.mensagem())) {
                 throw new DuplicateTopicException();
             }
+            String previous = TopicFingerprint.hash(topic.getTitulo(), topic.getMensagem());
+            if (!previous.equals(TopicFingerprint.hash(request.titulo(), request.mensagem()))) {
+                claimFingerprint(request.titulo(), request.mensagem(), id);
+                topicFingerprintRepository.release(previous, id);
+            }
         }
 
         // Update topic
         topic.updateContent(request.titulo(), request.mensagem());
-        return topicRepository.save(topic);
+        eventPublisher.publishEvent(TopicsChanged.content(id));
+        return saveAndMap(topic);
     }
 
     @Transactional
     public void deleteTopic(Long id, User currentUser) {
-        Topic topic = findById(id);
+        Topic topic = findLiveTopic(id);
 
         // Check authorization - only author or moderator can delete
         if (!canModifyTopic(topic, currentUser)) {
             throw new UnauthorizedOperationException("Você só pode deletar seus próprios tópicos");
         }
 
-        topicRepository.delete(topic);
+        topicPurgeService.delete(topic);
+        eventPublisher.publishEvent(TopicsChanged.listing(id));
     }
 
     @Transactional
-    public Topic closeTopic(Long id, User currentUser) {
-        Topic topic = findById(id);
+    public TopicResponse closeTopic(Long id, User currentUser) {
+        Topic topic = findLiveTopic(id);
 
         // Check authorization - only author can close their own topic
         if (!topic.isAuthor(currentUser)) {
@@ -98,12 +162,14 @@ public class TopicService {
         }
 
         topic.close();
-        return topicRepository.save(topic);
+        eventPublisher.publishEvent(TopicsChanged.listing(id));
+        eventPublisher.publishEvent(TopicActivity.statusChanged(topic, topic.getStatus()));
+        return saveAndMap(topic);
     }
 
     @Transactional
-    public Topic openTopic(Long id, User currentUser) {
-        Topic topic = findById(id);
+    public TopicResponse openTopic(Long id, User currentUser) {
+        Topic topic = findLiveTopic(id);
 
         // Check authorization - only author or moderator can reopen
         if (!canModifyTopic(topic, currentUser)) {
@@ -111,12 +177,18 @@ public class TopicService {
         }
 
         topic.open();
-        return topicRepository.save(topic);
+        eventPublisher.publishEvent(TopicsChanged.listing(id));
+        eventPublisher.publishEvent(TopicActivity.statusChanged(topic, topic.getStatus()));
+        return saveAndMap(topic);
     }
 
     @Transactional
-    public Topic updateTopicStatus(Long id, TopicStatus status, User currentUser) {
-        Topic topic = findById(id);
+    public TopicResponse updateTopicStatus(Long id, TopicStatus status, User currentUser) {
+        // DELETING belongs to the purge job; clients may only open or close a topic
+        if (status != TopicStatus.OPEN && status != TopicStatus.CLOSED) {
+            throw new IllegalArgumentException("Status inválido: use OPEN ou CLOSED");
+        }
+        Topic topic = findLiveTopic(id);
 
         // Check authorization - only author or moderator can change status
         if (!canModifyTopic(topic, currentUser)) {
@@ -129,23 +201,83 @@ public class TopicService {
             topic.open();
         }
 
-        return topicRepository.save(topic);
+        eventPublisher.publishEvent(TopicsChanged.listing(id));
+        eventPublisher.publishEvent(TopicActivity.statusChanged(topic, topic.getStatus()));
+        return saveAndMap(topic);
+    }
+
+    // Falls back to the cold archive, which returns a detached, read-only copy of the thread
+    private Topic findTopic(Long id) {
+        return topicRepository.findWithAutorAndCursoById(id)
+                .filter(topic -> topic.getStatus() != TopicStatus.DELETING)
+                .or(() -> topicArchive.find(id).map(ArchivedTopic::toTopic))
+                .orElseThrow(() -> new TopicNotFoundException(id));
+    }
+
+    // The check before insert misses a concurrent create of the same topic; the fingerprint's primary
+    // key does not. A fingerprint left by a topic that was deleted or archived since is taken over.
+    private void claimFingerprint(String titulo, String mensagem, Long topicId) {
+        String hash = TopicFingerprint.hash(titulo, mensagem);
+        while (topicFingerprintRepository.insertIfAbsent(hash, topicId) == 0) {
+            Optional<TopicFingerprint> held = topicFingerprintRepository.findLockedByHash(hash);
+            if (held.isEmpty()) {
+                // Released since the insert; try again
+                continue;
+            }
+            Long holder = held.get().getTopicoId();
+            if (!holder.equals(topicId) && topicRepository.findForShareById(holder).isPresent()) {
+                throw new DuplicateTopicException();
+            }
+            topicFingerprintRepository.reassign(hash, topicId);
+            return;
+        }
+    }
+
+    // Flushes first so the returned version (the ETag) is the one being committed
+    private TopicResponse saveAndMap(Topic topic) {
+        return new TopicResponse(topicRepository.saveAndFlush(topic));
+    }
+
+    // Topics that can still change; archived ones are read-only
+    private Topic findLiveTopic(Long id) {
+        return topicRepository.findById(id)
+                .filter(topic -> topic.getStatus() != TopicStatus.DELETING)
+                .orElseThrow(() -> topicArchive.contains(id)
+                        ? new TopicArchivedException(id)
+                        : new TopicNotFoundException(id));
     }
 
     private boolean canModifyTopic(Topic topic, User user) {
         return topic.isAuthor(user) || userService.isUserModerator(user);
     }
 
+    // Live feeds only open for ids that can still see activity, so callers cannot create
+    // channels for arbitrary ids
+    @Transactional(readOnly = true)
+    public void requireLiveTopic(Long id) {
+        findLiveTopic(id);
+    }
+
+    @Transactional(readOnly = true)
+    public void requireCourse(Long id) {
+        if (!courseRepository.existsById(id)) {
+            throw new CourseNotFoundException(id);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public boolean isTopicAuthor(Long topicId, User user) {
-        Topic topic = findById(topicId);
+        Topic topic = findTopic(topicId);
         return topic.isAuthor(user);
     }
 
+    @Transactional(readOnly = true)
     public long countTopics() {
         return topicRepository.count();
     }
 
+    @Transactional(readOnly = true)
     public long countTopicsByStatus(TopicStatus status) {
-        return topicRepository.findByStatusOrderByDataCriacaoDesc(status, Pageable.unpaged()).getTotalElements();
+        return topicRepository.countByStatus(status);
     }
 }
\ No newline at end of file
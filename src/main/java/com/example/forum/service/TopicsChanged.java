@@ -0,0 +1,22 @@
+package com.example.forum.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+// Published by writes that change what topic pages show. A listing change (a topic created, removed
+// or moved between status filters) can reshuffle every list page; a content change only affects the
+// pages that show one of the given topics.
+public record TopicsChanged(Set<Long> topicIds, boolean listingChanged) {
+
+    public static TopicsChanged content(Long topicId) {
+        return new TopicsChanged(Set.of(topicId), false);
+    }
+
+    public static TopicsChanged listing(Long topicId) {
+        return new TopicsChanged(topicId != null ? Set.of(topicId) : Set.of(), true);
+    }
+
+    public static TopicsChanged listing(Collection<Long> topicIds) {
+        return new TopicsChanged(Set.copyOf(topicIds), true);
+    }
+}
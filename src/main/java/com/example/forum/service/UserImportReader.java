@@ -0,0 +1,163 @@
+package com.example.forum.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Reads an import file one line at a time. CSV needs a header naming the columns nome, email, senha
+// and optionally perfis (profile names separated by ';'); NDJSON has one object per line with the same
+// fields, perfis being an array. A malformed line becomes a row carrying an error instead of ending
+// the import.
+final class UserImportReader implements AutoCloseable {
+
+    record Row(int linha, String nome, String email, String senha, List<String> perfis, String erro) {
+
+        static Row invalid(int linha, String erro) {
+            return new Row(linha, null, null, null, List.of(), erro);
+        }
+    }
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("nome", "email", "senha");
+
+    private final BufferedReader reader;
+    private final UserImportService.Format format;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int line;
+
+    UserImportReader(InputStream in, UserImportService.Format format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == UserImportService.Format.CSV) {
+            readHeader();
+        }
+    }
+
+    // Returns the next non-blank row, or null at the end of the file
+    Row next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        return format == UserImportService.Format.CSV ? csvRow(text) : jsonRow(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        if (header == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio");
+        }
+        // Spreadsheet exports often start with a byte order mark
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        if (names == null) {
+            throw new IllegalArgumentException("Cabeçalho CSV inválido");
+        }
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho CSV: " + column);
+            }
+        }
+    }
+
+    private Row csvRow(String text) {
+        List<String> values = splitCsv(text);
+        if (values == null) {
+            return Row.invalid(line, "Aspas não fechadas na linha");
+        }
+        if (values.size() < columns.size()) {
+            return Row.invalid(line, "Linha com " + values.size() + " colunas, esperado " + columns.size());
+        }
+        Integer perfis = columns.get("perfis");
+        return new Row(line, values.get(columns.get("nome")), values.get(columns.get("email")),
+                values.get(columns.get("senha")),
+                perfis == null ? List.of() : profileNames(Arrays.asList(values.get(perfis).split(";"))), null);
+    }
+
+    private Row jsonRow(String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            return Row.invalid(line, "JSON inválido na linha");
+        }
+        if (!node.isObject()) {
+            return Row.invalid(line, "Cada linha deve conter um objeto JSON");
+        }
+        List<String> perfis = new ArrayList<>();
+        node.path("perfis").forEach(perfil -> perfis.add(perfil.asText()));
+        return new Row(line, text(node, "nome"), text(node, "email"), text(node, "senha"), profileNames(perfis), null);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static List<String> profileNames(List<String> names) {
+        return names.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(name -> name.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes.
+    // Returns null when a quote is left open.
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.Profile;
+import com.example.forum.dto.RegisterRequest;
+import com.example.forum.dto.UserImportResponse;
+import com.example.forum.repository.ProfileRepository;
+import com.example.forum.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+// Imports users in batches instead of one /auth/register call each: profiles are resolved once,
+// emails are checked per batch, passwords are hashed in parallel on a dedicated pool, and users and
+// their profiles go in with JDBC batches. Rows that cannot be imported are reported with their line
+// and never stop the rest of the file.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    static final String DEFAULT_PROFILE = "USUARIO";
+    private static final int MAX_COLUMN_LENGTH = 100;
+
+    private final UserRepository userRepository;
+    private final ProfileRepository profileRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool passwordHashingPool;
+    private final ObjectMapper objectMapper;
+
+    @Value("${forum.users.import.batch-size:500}")
+    private int batchSize;
+
+    private record Candidate(int linha, String nome, String email, String senha, List<Long> profileIds) {
+
+        String key() {
+            return email.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public UserImportResponse importUsers(InputStream content, Format format) {
+        Map<String, Long> profiles = profileRepository.findAll().stream()
+                .collect(Collectors.toMap(Profile::getNome, Profile::getId));
+        Long defaultProfile = profiles.get(DEFAULT_PROFILE);
+        if (defaultProfile == null) {
+            throw new IllegalStateException("Profile " + DEFAULT_PROFILE + " not found");
+        }
+
+        // Emails seen earlier in the file; a repeated address is rejected like an existing one
+        Set<String> seen = new HashSet<>();
+        List<UserImportResponse.RowError> errors = new ArrayList<>();
+        List<Candidate> batch = new ArrayList<>(batchSize);
+        int total = 0;
+        int imported = 0;
+
+        try (UserImportReader reader = new UserImportReader(content, format, objectMapper)) {
+            UserImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                total++;
+                String error = validate(row, profiles);
+                if (error == null && !seen.add(row.email().toLowerCase(Locale.ROOT))) {
+                    error = "Email repetido no arquivo";
+                }
+                if (error != null) {
+                    errors.add(new UserImportResponse.RowError(row.linha(), row.email(), error));
+                    continue;
+                }
+                List<Long> profileIds = row.perfis().isEmpty()
+                        ? List.of(defaultProfile)
+                        : row.perfis().stream().map(profiles::get).toList();
+                batch.add(new Candidate(row.linha(), row.nome().trim(), row.email().trim(), row.senha(), profileIds));
+                if (batch.size() >= batchSize) {
+                    imported += importBatch(batch, errors);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read user import", e);
+        }
+        if (!batch.isEmpty()) {
+            imported += importBatch(batch, errors);
+        }
+
+        errors.sort(Comparator.comparingInt(UserImportResponse.RowError::linha));
+        log.info("User import finished: {} of {} rows imported", imported, total);
+        return new UserImportResponse(total, imported, total - imported, errors);
+    }
+
+    // Same rules as /auth/register, plus the column limits the register endpoint leaves to the database
+    private String validate(UserImportReader.Row row, Map<String, Long> profiles) {
+        if (row.erro() != null) {
+            return row.erro();
+        }
+        Set<ConstraintViolation<RegisterRequest>> violations =
+                validator.validate(new RegisterRequest(row.nome(), row.email(), row.senha()));
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (row.nome().trim().length() > MAX_COLUMN_LENGTH || row.email().trim().length() > MAX_COLUMN_LENGTH) {
+            return "Nome e email devem ter no máximo " + MAX_COLUMN_LENGTH + " caracteres";
+        }
+        for (String perfil : row.perfis()) {
+            if (!profiles.containsKey(perfil)) {
+                return "Perfil " + perfil + " não existe";
+            }
+        }
+        return null;
+    }
+
+    private int importBatch(List<Candidate> batch, List<UserImportResponse.RowError> errors) {
+        Set<String> existing = userRepository.findExistingEmails(batch.stream().map(Candidate::email).toList())
+                .stream()
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        List<Candidate> candidates = new ArrayList<>(batch.size());
+        for (Candidate candidate : batch) {
+            if (existing.contains(candidate.key())) {
+                errors.add(new UserImportResponse.RowError(candidate.linha(), candidate.email(),
+                        "Email " + candidate.email() + " já está em uso"));
+            } else {
+                candidates.add(candidate);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        List<String> hashes = hashPasswords(candidates);
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(candidates, hashes));
+            return candidates.size();
+        } catch (DuplicateKeyException e) {
+            // Someone registered one of these emails since the check: retry row by row to find it
+            return insertOneByOne(candidates, hashes, errors);
+        }
+    }
+
+    // Each BCrypt hash is a separate fork-join task, so a batch uses every thread of the pool
+    private List<String> hashPasswords(List<Candidate> candidates) {
+        List<Callable<String>> tasks = candidates.stream()
+                .<Callable<String>>map(candidate -> () -> passwordEncoder.encode(candidate.senha()))
+                .toList();
+        List<String> hashes = new ArrayList<>(tasks.size());
+        try {
+            for (Future<String> hash : passwordHashingPool.invokeAll(tasks)) {
+                hashes.add(hash.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to hash password", e.getCause());
+        }
+        return hashes;
+    }
+
+    private int insertOneByOne(List<Candidate> candidates, List<String> hashes,
+                               List<UserImportResponse.RowError> errors) {
+        int imported = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            String hash = hashes.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(candidate), List.of(hash)));
+                imported++;
+            } catch (DataAccessException e) {
+                errors.add(new UserImportResponse.RowError(candidate.linha(), candidate.email(),
+                        e instanceof DuplicateKeyException
+                                ? "Email " + candidate.email() + " já está em uso"
+                                : "Não foi possível gravar o usuário"));
+            }
+        }
+        return imported;
+    }
+
+    private void insert(List<Candidate> candidates, List<String> hashes) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            users.add(new Object[]{candidate.nome(), candidate.email(), hashes.get(i), createdAt, true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (nome, email, senha, created_at, ativo) VALUES (?, ?, ?, ?, ?)", users);
+
+        // Ids are read back by email rather than through generated keys, which not every driver returns for batches
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM users WHERE email IN ("
+                        + String.join(", ", Collections.nCopies(candidates.size(), "?")) + ")",
+                resultSet -> {
+                    ids.put(resultSet.getString("email").toLowerCase(Locale.ROOT), resultSet.getLong("id"));
+                },
+                candidates.stream().map(Candidate::email).toArray());
+
+        List<Object[]> userProfiles = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            Long userId = ids.get(candidate.key());
+            for (Long profileId : candidate.profileIds()) {
+                userProfiles.add(new Object[]{userId, profileId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_profiles (user_id, profile_id) VALUES (?, ?)", userProfiles);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.SyncTombstone;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.domain.User;
+import com.example.forum.domain.UserPurgeJob;
+import com.example.forum.domain.UserPurgeStatus;
+import com.example.forum.exception.UserPurgeJobNotFoundException;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.SyncTombstoneRepository;
+import com.example.forum.repository.TopicRepository;
+import com.example.forum.repository.TopicRepository.ModerationState;
+import com.example.forum.repository.UserPurgeJobRepository;
+import com.example.forum.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+// Deletes a user's content in bounded chunks, each in its own short transaction, recording
+// progress on the job row so an interrupted purge resumes where it stopped. Jobs run on one node
+// at a time through a database lease, renewed between chunks.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserPurgeService {
+
+    static final String LEASE_NAME = "user-purge";
+
+    private static final List<UserPurgeStatus> ACTIVE = List.of(UserPurgeStatus.PENDING, UserPurgeStatus.RUNNING);
+
+    private final UserPurgeJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final TopicRepository topicRepository;
+    private final ResponseRepository responseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final SchedulerLeaseService leaseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttachmentRepository attachmentRepository;
+
+    @Value("${forum.users.purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${forum.users.purge.pause-millis:200}")
+    private long pauseMillis;
+
+    @Value("${forum.users.purge.lease:PT10M}")
+    private Duration lease;
+
+    // Thrown between chunks when another node took the lease over; the job stays RUNNING for it
+    private static class LeaseLostException extends Exception {}
+
+    @Transactional
+    public UserPurgeJob requestPurge(User user) {
+        user.disable();
+        userRepository.save(user);
+
+        // One tombstone for the whole purge: sync clients drop everything the user wrote
+        return jobRepository.findFirstByUserIdAndStatusIn(user.getId(), ACTIVE)
+                .orElseGet(() -> {
+                    syncTombstoneRepository.save(SyncTombstone.user(user.getId()));
+                    return jobRepository.save(new UserPurgeJob(user.getId()));
+                });
+    }
+
+    public UserPurgeJob findJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new UserPurgeJobNotFoundException(id));
+    }
+
+    public Page<UserPurgeJob> findJobs(Pageable pageable) {
+        return jobRepository.findAllByOrderByIdDesc(pageable);
+    }
+
+    @Scheduled(fixedDelayString = "${forum.users.purge.poll-interval:PT30S}")
+    public void processPendingJobs() {
+        if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+            return;
+        }
+        try {
+            for (UserPurgeJob job : jobRepository.findByStatusInOrderByIdAsc(ACTIVE)) {
+                if (!run(job.getId())) {
+                    return;
+                }
+            }
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    // Must be called under the lease. Returns false when the run stopped early (interrupted or
+    // lease lost), leaving the job to be resumed.
+    public boolean run(Long jobId) {
+        try {
+            Long userId = updateJob(jobId, UserPurgeJob::start).getUserId();
+
+            // Responses written on other people's topics, after the files attached to them. Topics one
+            // of them solved reopen first, as they do when their solution is deleted
+            while (reopenSolvedBy(userId) > 0) {
+                pause();
+            }
+            Integer attachments;
+            do {
+                attachments = transactionTemplate.execute(status ->
+                        attachmentRepository.deleteChunkOnResponsesOfAutor(userId, chunkSize));
+            } while (attachments != null && attachments > 0);
+            while (recordChunk(jobId, 0, () -> responseRepository.deleteChunkByAutorId(userId, chunkSize)) > 0) {
+                pause();
+            }
+            // Those topics are spread over every page; the chunks have committed already
+            eventPublisher.publishEvent(TopicsChanged.listing(Set.of()));
+
+            // The user's own topics, each batch after its responses
+            List<Long> topicIds;
+            while (!(topicIds = topicRepository.findIdsByAutorId(userId, PageRequest.of(0, chunkSize))).isEmpty()) {
+                List<Long> batch = topicIds;
+                while (recordChunk(jobId, 0, () -> responseRepository.deleteChunkByTopicIds(batch, chunkSize)) > 0) {
+                    pause();
+                }
+                recordChunk(jobId, batch.size(), () -> {
+                    attachmentRepository.deleteByTopicoIds(batch);
+                    topicRepository.bulkDeleteByIds(batch);
+                    eventPublisher.publishEvent(TopicsChanged.listing(batch));
+                    return 0;
+                });
+                pause();
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.deleteById(userId);
+                jobRepository.findById(jobId).ifPresent(UserPurgeJob::complete);
+            });
+            log.info("Purged user {} (job {})", userId, jobId);
+            return true;
+        } catch (InterruptedException e) {
+            // Left RUNNING; the next poll resumes it
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (LeaseLostException e) {
+            log.warn("User purge job {} stopped: lease taken over by another node", jobId);
+            return false;
+        } catch (RuntimeException e) {
+            log.error("User purge job {} failed", jobId, e);
+            updateJob(jobId, job -> job.fail(e.getMessage()));
+            return true;
+        }
+    }
+
+    private UserPurgeJob updateJob(Long jobId, Consumer<UserPurgeJob> change) {
+        return transactionTemplate.execute(status -> {
+            UserPurgeJob job = findJob(jobId);
+            change.accept(job);
+            return job;
+        });
+    }
+
+    // Reopens one chunk of the topics solved by the user's responses; returns how many it reopened
+    private int reopenSolvedBy(Long userId) {
+        Integer reopened = transactionTemplate.execute(status -> {
+            List<ModerationState> solved = topicRepository.findSolvedByResponsesOf(userId, PageRequest.of(0, chunkSize));
+            if (!solved.isEmpty()) {
+                List<Long> ids = solved.stream().map(ModerationState::getId).toList();
+                topicRepository.reopenWithoutSolution(ids);
+                eventPublisher.publishEvent(TopicsChanged.listing(ids));
+                solved.forEach(topic -> eventPublisher.publishEvent(
+                        TopicActivity.statusChanged(topic.getId(), topic.getCursoId(), TopicStatus.OPEN)));
+            }
+            return solved.size();
+        });
+        return reopened != null ? reopened : 0;
+    }
+
+    // Runs one delete statement and records its progress in the same transaction
+    private int recordChunk(Long jobId, long topics, IntSupplier deleteResponses) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            int responses = deleteResponses.getAsInt();
+            jobRepository.findById(jobId).ifPresent(job -> job.recordProgress(topics, responses));
+            return responses;
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    private void pause() throws InterruptedException, LeaseLostException {
+        if (pauseMillis > 0) {
+            Thread.sleep(pauseMillis);
+        }
+        if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+            throw new LeaseLostException();
+        }
+    }
+}
@@ -2,11 +2,13 @@ package com.example.forum.service;
 
 import com.example.forum.domain.Profile;
 import com.example.forum.domain.User;
+import com.example.forum.domain.UserPurgeJob;
 import com.example.forum.exception.EmailAlreadyExistsException;
 import com.example.forum.exception.UserNotFoundException;
 import com.example.forum.repository.ProfileRepository;
 import com.example.forum.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -24,23 +26,30 @@ public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final ProfileRepository profileRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPurgeService userPurgeService;
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
+        User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
+        Hibernate.initialize(user.getPerfis());
+        return user;
     }
 
+    @Transactional(readOnly = true)
     public User findById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
     }
 
+    @Transactional(readOnly = true)
     public User findByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("Usuário com email " + email + " não encontrado"));
     }
 
+    @Transactional(readOnly = true)
     public List<User> findAll() {
         return userRepository.findAll();
     }
@@ -83,12 +92,14 @@ public class UserService implements UserDetailsService {
         return userRepository.save(user);
     }
 
+    // Disables the account now; its content is purged by a background job
     @Transactional
-    public void deleteUser(Long id) {
+    public UserPurgeJob deleteUser(Long id) {
         User user = findById(id);
-        userRepository.delete(user);
+        return userPurgeService.requestPurge(user);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
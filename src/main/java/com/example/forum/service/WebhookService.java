@@ -0,0 +1,129 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.WebhookDeadLetter;
+import com.example.forum.domain.WebhookEvent;
+import com.example.forum.domain.WebhookOutboxEntry;
+import com.example.forum.domain.WebhookSubscription;
+import com.example.forum.dto.CreateWebhookRequest;
+import com.example.forum.dto.ResponseResponse;
+import com.example.forum.dto.TopicResponse;
+import com.example.forum.exception.WebhookDeadLetterNotFoundException;
+import com.example.forum.exception.WebhookSubscriptionNotFoundException;
+import com.example.forum.repository.WebhookDeadLetterRepository;
+import com.example.forum.repository.WebhookOutboxRepository;
+import com.example.forum.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+// Webhook subscriptions and the outbox they are fed from. Matching topic activity is written to the
+// outbox inside the transaction that caused it, so an event is queued exactly when its write commits;
+// WebhookDeliveryWorker sends it afterwards.
+@Service
+@RequiredArgsConstructor
+public class WebhookService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookOutboxRepository outboxRepository;
+    private final WebhookDeadLetterRepository deadLetterRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${forum.webhooks.default-concurrency:2}")
+    private int defaultConcurrency;
+
+    // What the receiver gets in "dados" for each event
+    record Payload(WebhookEvent evento, Long topicoId, Long cursoId, String status, TopicResponse topico,
+                   ResponseResponse resposta, LocalDateTime data) {}
+
+    // Runs synchronously in the publisher's transaction: a rollback discards the outbox rows with the write
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTopicActivity(TopicActivity activity) {
+        WebhookEvent event = switch (activity.tipo()) {
+            case TOPIC_CREATED -> WebhookEvent.TOPIC_CREATED;
+            case SOLUTION_MARKED -> WebhookEvent.TOPIC_SOLVED;
+            default -> null;
+        };
+        if (event == null) {
+            return;
+        }
+        List<WebhookSubscription> subscriptions = subscriptionRepository.findByAtivoTrue().stream()
+                .filter(subscription -> subscription.accepts(event))
+                .toList();
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new Payload(event, activity.topicoId(), activity.cursoId(),
+                    activity.status().name(), activity.topico(), activity.resposta(), LocalDateTime.now()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize webhook event " + event, e);
+        }
+        outboxRepository.saveAll(subscriptions.stream()
+                .map(subscription -> new WebhookOutboxEntry(subscription.getId(), event, payload))
+                .toList());
+    }
+
+    @Transactional
+    public WebhookSubscription create(CreateWebhookRequest request) {
+        URI uri;
+        try {
+            uri = URI.create(request.url().trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("URL do webhook inválida");
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!(scheme.equals("http") || scheme.equals("https")) || uri.getHost() == null) {
+            throw new IllegalArgumentException("URL do webhook deve ser http ou https");
+        }
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        int concurrency = request.maxConcorrencia() != null ? request.maxConcorrencia() : defaultConcurrency;
+        return subscriptionRepository.save(new WebhookSubscription(uri.toString(), HexFormat.of().formatHex(secret),
+                request.eventos(), concurrency));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WebhookSubscription> findAll() {
+        return subscriptionRepository.findAllByOrderByIdAsc();
+    }
+
+    // Pending and failed deliveries of the subscription go with it (ON DELETE CASCADE)
+    @Transactional
+    public void delete(Long id) {
+        WebhookSubscription subscription = subscriptionRepository.findById(id)
+                .orElseThrow(() -> new WebhookSubscriptionNotFoundException(id));
+        subscriptionRepository.delete(subscription);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<WebhookDeadLetter> findDeadLetters(Pageable pageable) {
+        return deadLetterRepository.findAllByOrderByIdDesc(pageable);
+    }
+
+    // Puts a failed event back in the outbox for another round of attempts
+    @Transactional
+    public void retryDeadLetter(Long id) {
+        WebhookDeadLetter deadLetter = deadLetterRepository.findById(id)
+                .orElseThrow(() -> new WebhookDeadLetterNotFoundException(id));
+        outboxRepository.save(new WebhookOutboxEntry(deadLetter));
+        deadLetterRepository.delete(deadLetter);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.forum.warmup;
+
+import com.example.forum.domain.Course;
+import com.example.forum.repository.CourseRepository;
+import com.example.forum.repository.ProfileRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs after the context is refreshed and the web server is listening, but before the node reports
+// ready: Spring Boot only publishes ReadinessState.ACCEPTING_TRAFFIC once every ApplicationRunner has
+// returned. Meanwhile this fills the connection pool, loads reference data into the second-level cache
+// and replays a read-only mix of topic listings, topic details and a failed login through the local
+// server, so the JIT, prepared statements, BCrypt and the page cache are warm for the first real user.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "forum.warmup.enabled", havingValue = "true")
+public class StartupWarmUp implements ApplicationRunner {
+
+    // Unknown address: the login fails, but still looks the user up and runs a BCrypt comparison
+    static final String LOGIN_BODY = "{\"email\":\"warmup@forumhub.invalid\",\"senha\":\"warm-up\"}";
+
+    record Replay(int requests, int failures) {}
+
+    private final ApplicationContext applicationContext;
+    private final DataSource dataSource;
+    private final CourseRepository courseRepository;
+    private final ProfileRepository profileRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Upper bound for the whole warm-up; readiness is delayed by at most this much
+    @Value("${forum.warmup.max-duration:PT30S}")
+    private Duration maxDuration;
+
+    // How many times each worker replays the synthetic mix
+    @Value("${forum.warmup.rounds:50}")
+    private int rounds;
+
+    @Value("${forum.warmup.concurrency:4}")
+    private int concurrency;
+
+    // Connections opened up front; capped at the Hikari pool size
+    @Value("${forum.warmup.connections:10}")
+    private int connections;
+
+    // Listing pages requested per round, starting at page 0
+    @Value("${forum.warmup.pages:5}")
+    private int pages;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Instant deadline = Instant.now().plus(maxDuration);
+        Replay replay = new Replay(0, 0);
+        try {
+            primeConnectionPool();
+            primeReferenceData();
+            URI baseUri = localBaseUri();
+            if (baseUri != null) {
+                replay = replay(baseUri, deadline);
+            }
+        } catch (RuntimeException e) {
+            // A failed warm-up only costs latency; it must not keep the node out of rotation
+            log.warn("Warm-up aborted: {}", e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("forum.warmup").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warm-up finished in {} ms: {} requests replayed, {} failed",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), replay.requests(), replay.failures());
+    }
+
+    // Holding several connections at once makes Hikari open them now instead of on the first requests
+    void primeConnectionPool() {
+        int count = dataSource instanceof HikariDataSource hikari
+                ? Math.min(connections, hikari.getMaximumPoolSize())
+                : connections;
+        List<Connection> borrowed = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                Connection connection = dataSource.getConnection();
+                borrowed.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not prime the connection pool: {}", e.getMessage());
+        } finally {
+            borrowed.forEach(this::closeQuietly);
+        }
+    }
+
+    // Courses and profiles are cached reference data; loading them fills the entity and query caches
+    void primeReferenceData() {
+        profileRepository.findAll();
+        profileRepository.findByNome("USUARIO");
+        for (Course course : courseRepository.findAll()) {
+            courseRepository.findByNome(course.getNome());
+        }
+    }
+
+    Replay replay(URI baseUri, Instant deadline) {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        List<HttpRequest> mix = syntheticMix(baseUri, topicIds(client, baseUri));
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            for (int worker = 0; worker < concurrency; worker++) {
+                executor.execute(() -> {
+                    for (int round = 0; round < rounds && Instant.now().isBefore(deadline); round++) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            return;
+                        }
+                        for (HttpRequest request : mix) {
+                            if (!send(client, request)) {
+                                failures.incrementAndGet();
+                            }
+                            requests.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            long remaining = Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+            if (!executor.awaitTermination(remaining + 5000, TimeUnit.MILLISECONDS)) {
+                log.warn("Warm-up replay did not finish within {}", maxDuration);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Replay(requests.get(), failures.get());
+    }
+
+    // Ids from the first listing page, so the mix also covers topic details and their responses
+    private List<Long> topicIds(HttpClient client, URI baseUri) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            HttpResponse<byte[]> response = client.send(get(baseUri, "/topicos", false),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                for (JsonNode topic : objectMapper.readTree(response.body()).path("content")) {
+                    if (topic.hasNonNull("id")) {
+                        ids.add(topic.get("id").asLong());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list topics for the warm-up: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ids;
+    }
+
+    private List<HttpRequest> syntheticMix(URI baseUri, List<Long> topicIds) {
+        List<HttpRequest> mix = new ArrayList<>();
+        for (int page = 0; page < pages; page++) {
+            mix.add(get(baseUri, "/topicos?page=" + page, true));
+            mix.add(get(baseUri, "/topicos?page=" + page + "&size=20", false));
+        }
+        mix.add(get(baseUri, "/topicos?status=OPEN", true));
+        mix.add(get(baseUri, "/topicos?status=CLOSED", true));
+        mix.add(get(baseUri, "/topicos?desde=" + LocalDate.now().minusDays(30), false));
+        for (Long id : topicIds) {
+            mix.add(get(baseUri, "/topicos/" + id, false));
+            mix.add(get(baseUri, "/topicos/" + id + "/respostas", false));
+            mix.add(get(baseUri, "/topicos/" + id + "/solucao", false));
+        }
+        mix.add(HttpRequest.newBuilder(baseUri.resolve("/auth/login"))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                .build());
+        return mix;
+    }
+
+    private HttpRequest get(URI baseUri, String path, boolean gzip) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(5))
+                .GET();
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    // 4xx answers are expected (failed login, topics without a solution); only errors count as failures
+    private boolean send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private URI localBaseUri() {
+        if (applicationContext instanceof WebServerApplicationContext webContext
+                && webContext.getWebServer() != null
+                && webContext.getWebServer().getPort() > 0) {
+            return URI.create("http://localhost:" + webContext.getWebServer().getPort());
+        }
+        return null;
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not close warm-up connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.forum.webhook;
+
+import com.example.forum.domain.WebhookDeadLetter;
+import com.example.forum.domain.WebhookOutboxEntry;
+import com.example.forum.domain.WebhookSubscription;
+import com.example.forum.repository.WebhookDeadLetterRepository;
+import com.example.forum.repository.WebhookOutboxRepository;
+import com.example.forum.repository.WebhookSubscriptionRepository;
+import com.example.forum.service.SchedulerLeaseService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Sends the webhook outbox. Each run takes the due entries in id order, groups them by subscription
+// into batches of batch-size events per request, and sends each subscription's batches over at most
+// max_concorrencia requests at a time, all subscriptions in parallel on a small pool of its own. A
+// delivered batch is deleted; a failed one is retried with exponential backoff, and the rest of that
+// endpoint's entries wait with it instead of hitting an endpoint that is down. After max-attempts an
+// entry moves to the dead-letter table.
+//
+// Delivery is at least once: a receiver that answered after the request timed out gets the batch
+// again, so it should dedupe on the entry id. Batches of one endpoint sent concurrently may arrive out
+// of order; a subscription with max_concorrencia 1 gets its events in the order they were written.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebhookDeliveryWorker {
+
+    static final String LEASE_NAME = "webhook-delivery";
+    static final String SIGNATURE_HEADER = "X-Forum-Assinatura";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final WebhookOutboxRepository outboxRepository;
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookDeadLetterRepository deadLetterRepository;
+    private final SchedulerLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${forum.webhooks.enabled:true}")
+    private boolean enabled;
+
+    @Value("${forum.webhooks.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${forum.webhooks.batch-size:50}")
+    private int batchSize;
+
+    @Value("${forum.webhooks.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${forum.webhooks.initial-backoff:PT10S}")
+    private Duration initialBackoff;
+
+    @Value("${forum.webhooks.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${forum.webhooks.connect-timeout:PT5S}")
+    private Duration connectTimeout;
+
+    @Value("${forum.webhooks.request-timeout:PT10S}")
+    private Duration requestTimeout;
+
+    @Value("${forum.webhooks.delivery-threads:8}")
+    private int deliveryThreads;
+
+    @Value("${forum.webhooks.lease:PT5M}")
+    private Duration lease;
+
+    private ExecutorService delivery;
+    private HttpClient httpClient;
+
+    public record RunResult(String outcome, int delivered, int failed, int deadLettered) {}
+
+    // One subscription's share of a run, taken by up to max_concorrencia lanes
+    private record Endpoint(WebhookSubscription subscription, Queue<List<WebhookOutboxEntry>> batches,
+                            AtomicReference<LocalDateTime> failedUntil) {}
+
+    private record Counts(AtomicInteger delivered, AtomicInteger failed, AtomicInteger deadLettered) {}
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        delivery = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "webhook-delivery-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @PreDestroy
+    void stop() {
+        delivery.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${forum.webhooks.poll-interval:PT5S}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public RunResult run() {
+        if (!leaseService.tryAcquire(LEASE_NAME, lease)) {
+            return new RunResult("skipped", 0, 0, 0);
+        }
+        try {
+            RunResult result = deliverDue();
+            meterRegistry.counter("forum.webhooks.delivered").increment(result.delivered());
+            meterRegistry.counter("forum.webhooks.failed").increment(result.failed());
+            meterRegistry.counter("forum.webhooks.dead_lettered").increment(result.deadLettered());
+            if (result.delivered() + result.failed() > 0) {
+                log.info("Webhook delivery {}: {} delivered, {} failed, {} dead-lettered",
+                        result.outcome(), result.delivered(), result.failed(), result.deadLettered());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new RunResult("interrupted", 0, 0, 0);
+        } catch (RuntimeException e) {
+            log.error("Webhook delivery run failed", e);
+            return new RunResult("failed", 0, 0, 0);
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    private RunResult deliverDue() throws InterruptedException {
+        List<WebhookOutboxEntry> due = outboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, fetchSize));
+        if (due.isEmpty()) {
+            return new RunResult("idle", 0, 0, 0);
+        }
+        Map<Long, List<WebhookOutboxEntry>> bySubscription = due.stream()
+                .collect(Collectors.groupingBy(WebhookOutboxEntry::getSubscriptionId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, WebhookSubscription> subscriptions = subscriptionRepository.findAllById(bySubscription.keySet()).stream()
+                .collect(Collectors.toMap(WebhookSubscription::getId, Function.identity()));
+
+        Counts counts = new Counts(new AtomicInteger(), new AtomicInteger(), new AtomicInteger());
+        List<Endpoint> endpoints = new ArrayList<>();
+        List<Future<?>> lanes = new ArrayList<>();
+        bySubscription.forEach((subscriptionId, entries) -> {
+            WebhookSubscription subscription = subscriptions.get(subscriptionId);
+            // A subscription deleted since the query took its entries with it; one deactivated since
+            // keeps them, and the next query leaves them out
+            if (subscription == null || !subscription.isAtivo()) {
+                return;
+            }
+            Queue<List<WebhookOutboxEntry>> batches = new ConcurrentLinkedQueue<>();
+            for (int from = 0; from < entries.size(); from += batchSize) {
+                batches.add(entries.subList(from, Math.min(from + batchSize, entries.size())));
+            }
+            Endpoint endpoint = new Endpoint(subscription, batches, new AtomicReference<>());
+            endpoints.add(endpoint);
+            int concurrency = Math.max(1, Math.min(subscription.getMaxConcorrencia(), batches.size()));
+            for (int lane = 0; lane < concurrency; lane++) {
+                lanes.add(delivery.submit(() -> drain(endpoint, counts)));
+            }
+        });
+        try {
+            for (Future<?> lane : lanes) {
+                lane.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Webhook delivery lane failed", e.getCause());
+        } finally {
+            lanes.forEach(lane -> lane.cancel(true));
+        }
+
+        // Whatever an endpoint did not get to because it failed waits for that failure's retry
+        for (Endpoint endpoint : endpoints) {
+            LocalDateTime next = endpoint.failedUntil().get();
+            List<Long> left = endpoint.batches().stream().flatMap(List::stream).map(WebhookOutboxEntry::getId).toList();
+            if (next != null && !left.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.postpone(left, next));
+            }
+        }
+        return new RunResult("completed", counts.delivered().get(), counts.failed().get(), counts.deadLettered().get());
+    }
+
+    // One lane: sends the endpoint's batches one request at a time until they run out or one fails
+    private void drain(Endpoint endpoint, Counts counts) {
+        List<WebhookOutboxEntry> batch;
+        while (endpoint.failedUntil().get() == null && (batch = endpoint.batches().poll()) != null) {
+            String error = send(endpoint.subscription(), batch);
+            if (error == null) {
+                List<Long> ids = batch.stream().map(WebhookOutboxEntry::getId).toList();
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(ids));
+                counts.delivered().addAndGet(batch.size());
+            } else {
+                LocalDateTime next = recordFailure(batch, error, counts);
+                counts.failed().addAndGet(batch.size());
+                endpoint.failedUntil().compareAndSet(null, next != null ? next : LocalDateTime.now().plus(initialBackoff));
+                log.warn("Webhook delivery of {} events to subscription {} failed: {}",
+                        batch.size(), endpoint.subscription().getId(), error);
+            }
+        }
+    }
+
+    // Returns null when the endpoint accepted the batch, otherwise what went wrong
+    private String send(WebhookSubscription subscription, List<WebhookOutboxEntry> batch) {
+        try {
+            byte[] body = body(batch);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(subscription.getUrl()))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header(SIGNATURE_HEADER, "sha256=" + sign(subscription.getSegredo(), body))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2 ? null : "HTTP " + response.statusCode();
+        } catch (IOException | IllegalArgumentException e) {
+            return e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrompido";
+        }
+    }
+
+    // {"entregas": [{"id": ..., "evento": ..., "dados": {...}}]}; the stored payload is embedded as is
+    private byte[] body(List<WebhookOutboxEntry> batch) throws JsonProcessingException {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode deliveries = root.putArray("entregas");
+        for (WebhookOutboxEntry entry : batch) {
+            deliveries.addObject()
+                    .put("id", entry.getId())
+                    .put("evento", entry.getEvento().name())
+                    .putRawValue("dados", new RawValue(entry.getPayload()));
+        }
+        return objectMapper.writeValueAsBytes(root);
+    }
+
+    static String sign(String secret, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    // Counts the attempt on each entry of the batch; returns the earliest retry, or null if all were dead-lettered
+    private LocalDateTime recordFailure(List<WebhookOutboxEntry> batch, String error, Counts counts) {
+        String message = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookOutboxEntry> retried = new ArrayList<>();
+        List<WebhookOutboxEntry> exhausted = new ArrayList<>();
+        for (WebhookOutboxEntry entry : batch) {
+            entry.recordFailure(message, now.plus(backoff(entry.getTentativas() + 1)));
+            (entry.getTentativas() >= maxAttempts ? exhausted : retried).add(entry);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.saveAll(retried);
+            if (!exhausted.isEmpty()) {
+                deadLetterRepository.saveAll(exhausted.stream().map(WebhookDeadLetter::new).toList());
+                outboxRepository.deleteAllByIdInBatch(exhausted.stream().map(WebhookOutboxEntry::getId).toList());
+            }
+        });
+        counts.deadLettered().addAndGet(exhausted.size());
+        return retried.stream().map(WebhookOutboxEntry::getProximaTentativa).min(LocalDateTime::compareTo).orElse(null);
+    }
+
+    // initial-backoff doubled per attempt already made, up to max-backoff
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,96 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Range-partitions topics and responses by month of data_criacao. Written in Java because the
+// partition bounds depend on the data present and on the current date.
+//
+// MySQL requirements for partitioned InnoDB tables:
+// - no foreign keys from or to them, so the constraints on topics and responses are dropped
+//   (deletes already remove responses before topics, and users' content before the user; writes
+//   that add rows under a topic hold it in share mode, see TopicRepository.findForShareById);
+// - every unique key must contain the partition column, so the primary keys become
+//   (id, data_criacao) and unique_topic becomes a plain index (uniqueness moves to
+//   topic_fingerprints in V14). A lookup by id alone cannot be pruned and probes every partition,
+//   one index dive each, so forum.partitions.retention-months bounds its cost;
+// - the partition column must be NOT NULL; it becomes DATETIME to allow RANGE COLUMNS.
+//
+// Partitions cover the last 12 months (or back to the oldest row), the current month and
+// three months ahead, plus pmax; PartitionMaintenanceService keeps adding months after that.
+public class V10__Partition_topics_and_responses_by_month extends BaseJavaMigration {
+
+    private static final int MONTHS_BACK = 12;
+    private static final int MONTHS_AHEAD = 3;
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            for (String[] foreignKey : foreignKeys(statement)) {
+                statement.execute("ALTER TABLE " + foreignKey[0] + " DROP FOREIGN KEY " + foreignKey[1]);
+            }
+
+            statement.execute("UPDATE topics SET data_criacao = NOW() WHERE data_criacao IS NULL");
+            statement.execute("UPDATE responses SET data_criacao = NOW() WHERE data_criacao IS NULL");
+
+            statement.execute("ALTER TABLE topics " +
+                    "DROP INDEX unique_topic, " +
+                    "ADD INDEX idx_topics_titulo_mensagem (titulo, mensagem(255)), " +
+                    "MODIFY data_criacao DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "DROP PRIMARY KEY, ADD PRIMARY KEY (id, data_criacao)");
+            statement.execute("ALTER TABLE responses " +
+                    "MODIFY data_criacao DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "DROP PRIMARY KEY, ADD PRIMARY KEY (id, data_criacao)");
+
+            partition(statement, "topics");
+            partition(statement, "responses");
+        }
+    }
+
+    private List<String[]> foreignKeys(Statement statement) throws SQLException {
+        List<String[]> foreignKeys = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery(
+                "SELECT TABLE_NAME, CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS " +
+                "WHERE CONSTRAINT_SCHEMA = DATABASE() " +
+                "AND (TABLE_NAME IN ('topics', 'responses') OR REFERENCED_TABLE_NAME IN ('topics', 'responses'))")) {
+            while (rs.next()) {
+                foreignKeys.add(new String[]{rs.getString(1), rs.getString(2)});
+            }
+        }
+        return foreignKeys;
+    }
+
+    private void partition(Statement statement, String table) throws SQLException {
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(MONTHS_BACK);
+        try (ResultSet rs = statement.executeQuery("SELECT MIN(data_criacao) FROM " + table)) {
+            if (rs.next()) {
+                Timestamp oldest = rs.getTimestamp(1);
+                if (oldest != null && YearMonth.from(oldest.toLocalDateTime()).isBefore(first)) {
+                    first = YearMonth.from(oldest.toLocalDateTime());
+                }
+            }
+        }
+
+        StringBuilder ddl = new StringBuilder("ALTER TABLE ").append(table)
+                .append(" PARTITION BY RANGE COLUMNS(data_criacao) (");
+        for (YearMonth month = first; !month.isAfter(current.plusMonths(MONTHS_AHEAD)); month = month.plusMonths(1)) {
+            ddl.append("PARTITION ").append(month.format(PARTITION_NAME))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00'), ");
+        }
+        ddl.append("PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+        statement.execute(ddl.toString());
+    }
+}
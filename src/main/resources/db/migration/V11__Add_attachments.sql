@@ -0,0 +1,21 @@
+-- Attachment metadata; the files themselves live in the content-addressed store (forum.attachments.dir),
+-- named by sha256, so rows with the same hash share one file
+CREATE TABLE attachments (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    topico_id BIGINT NOT NULL,
+    resposta_id BIGINT NULL,
+    autor_id BIGINT NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    tamanho BIGINT NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    data_criacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- topics and responses are partitioned (V10) and cannot be referenced by foreign keys; the
+    -- services that delete topics and responses delete their attachment rows explicitly
+    FOREIGN KEY (autor_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_attachments_topico_id ON attachments(topico_id);
+CREATE INDEX idx_attachments_resposta_id ON attachments(resposta_id);
+-- The orphan sweep looks files up by hash
+CREATE INDEX idx_attachments_sha256 ON attachments(sha256);
@@ -0,0 +1,40 @@
+-- Time of the last update, shown to sync clients and used to spot stalled purges. MySQL bumps it
+-- on every update of the row, including bulk and native updates that bypass the entities.
+ALTER TABLE topics ADD COLUMN updated_at TIMESTAMP(6) NOT NULL
+    DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+ALTER TABLE responses ADD COLUMN updated_at TIMESTAMP(6) NOT NULL
+    DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+-- Change sequence for delta sync. Writes leave change_seq at 0 and SyncChangeSequencer stamps the
+-- rows with the next value of sync_sequence just before the transaction commits. The sequence row
+-- stays locked until then, so values follow commit order however long a transaction runs.
+CREATE TABLE sync_sequence (
+    id INT PRIMARY KEY,
+    current_seq BIGINT NOT NULL
+);
+
+INSERT INTO sync_sequence (id, current_seq) VALUES (1, 1);
+
+-- Rows that exist before this migration all belong to change 1
+ALTER TABLE topics ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE topics ALTER COLUMN change_seq SET DEFAULT 0;
+ALTER TABLE responses ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE responses ALTER COLUMN change_seq SET DEFAULT 0;
+
+-- Sync pages through changes in (change_seq, id) order; the sequencer looks up pending rows here too
+CREATE INDEX idx_topics_change_seq ON topics(change_seq, id);
+CREATE INDEX idx_responses_change_seq ON responses(change_seq, id);
+
+-- Deletions reported to sync clients; kept for forum.sync.tombstone-retention
+CREATE TABLE sync_tombstones (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(20) NOT NULL,
+    entidade_id BIGINT NOT NULL,
+    topico_id BIGINT NULL,
+    removido_em TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    change_seq BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_sync_tombstones_change_seq ON sync_tombstones(change_seq, id);
+-- The retention cleanup deletes by age
+CREATE INDEX idx_sync_tombstones_removido_em ON sync_tombstones(removido_em);
@@ -0,0 +1,41 @@
+-- Outbound webhooks. Events are written to webhook_outbox in the transaction of the write that caused
+-- them, one row per subscription, and sent in batches by the delivery worker.
+CREATE TABLE webhook_subscriptions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    url VARCHAR(500) NOT NULL,
+    segredo VARCHAR(64) NOT NULL,
+    eventos VARCHAR(200) NOT NULL,
+    max_concorrencia INT NOT NULL DEFAULT 2,
+    ativo BOOLEAN NOT NULL DEFAULT TRUE,
+    data_criacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE webhook_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    subscription_id BIGINT NOT NULL,
+    evento VARCHAR(40) NOT NULL,
+    payload TEXT NOT NULL,
+    tentativas INT NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP(6) NOT NULL,
+    ultimo_erro VARCHAR(500),
+    data_criacao TIMESTAMP(6) NOT NULL,
+    FOREIGN KEY (subscription_id) REFERENCES webhook_subscriptions(id) ON DELETE CASCADE
+);
+
+-- The worker polls due rows in id order
+CREATE INDEX idx_webhook_outbox_proxima_tentativa ON webhook_outbox(proxima_tentativa, id);
+
+-- Events that failed forum.webhooks.max-attempts times; an admin can send them again
+CREATE TABLE webhook_dead_letters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    subscription_id BIGINT NOT NULL,
+    evento VARCHAR(40) NOT NULL,
+    payload TEXT NOT NULL,
+    tentativas INT NOT NULL,
+    ultimo_erro VARCHAR(500),
+    data_criacao TIMESTAMP(6) NOT NULL,
+    data_falha TIMESTAMP(6) NOT NULL,
+    FOREIGN KEY (subscription_id) REFERENCES webhook_subscriptions(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_webhook_dead_letters_subscription_id ON webhook_dead_letters(subscription_id);
@@ -0,0 +1,13 @@
+-- Uniqueness of a topic's title and message. topics is partitioned (V10) and MySQL only allows
+-- unique keys that contain the partition column, so unique_topic lives on as the primary key of this
+-- table: the SHA-256 of the title, a NUL and the first 255 characters of the message, as computed by
+-- TopicFingerprint.hash. Rows of deleted or archived topics are taken over by the next topic with
+-- the same content.
+CREATE TABLE topic_fingerprints (
+    hash VARCHAR(64) PRIMARY KEY,
+    topico_id BIGINT NOT NULL
+);
+
+INSERT IGNORE INTO topic_fingerprints (hash, topico_id)
+SELECT SHA2(CONCAT(CONVERT(titulo USING utf8mb4), CHAR(0), LEFT(CONVERT(mensagem USING utf8mb4), 255)), 256), id
+FROM topics ORDER BY id;
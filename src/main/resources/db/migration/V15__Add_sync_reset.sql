@@ -0,0 +1,3 @@
+-- Time of the last replacing restore. It deletes rows without leaving sync tombstones, so sync
+-- tokens issued before it are answered with 410 and their clients start over.
+ALTER TABLE sync_sequence ADD COLUMN reset_at TIMESTAMP(6) NULL;
@@ -40,7 +40,7 @@ CREATE TABLE topics (
     curso_id BIGINT NOT NULL,
     FOREIGN KEY (autor_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (curso_id) REFERENCES courses(id) ON DELETE CASCADE,
-    UNIQUE KEY unique_topic (titulo, mensagem)
+    UNIQUE KEY unique_topic (titulo, mensagem(255))
 );
 
 -- Create responses table
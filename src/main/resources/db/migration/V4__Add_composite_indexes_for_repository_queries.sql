@@ -0,0 +1,15 @@
+-- findByStatusOrderByDataCriacaoDesc filters on status and sorts on data_criacao;
+-- the single-column status index forced a filesort over every matching row
+CREATE INDEX idx_topics_status_data_criacao ON topics(status, data_criacao DESC);
+DROP INDEX idx_topics_status ON topics;
+
+-- findByTopicoOrderByDataCriacaoAsc reads a topic's responses in creation order
+CREATE INDEX idx_responses_topico_id_data_criacao ON responses(topico_id, data_criacao);
+DROP INDEX idx_responses_topico_id ON responses;
+
+-- findByTopicoAndSolucaoTrue resolves the solution of a topic without touching other rows
+CREATE INDEX idx_responses_topico_id_solucao ON responses(topico_id, solucao);
+DROP INDEX idx_responses_solucao ON responses;
+
+-- CourseRepository.findByNome
+CREATE INDEX idx_courses_nome ON courses(nome);
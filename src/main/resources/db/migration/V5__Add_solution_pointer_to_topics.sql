@@ -0,0 +1,9 @@
+-- Denormalized pointer to the response marked as solution, so resolving a topic's
+-- solution is a primary-key read instead of a scan over its responses.
+-- No FK: responses already cascade from topics, and a SET NULL back-reference would
+-- make InnoDB cascade into the row being deleted. The application clears it instead.
+ALTER TABLE topics ADD COLUMN solution_response_id BIGINT NULL;
+
+UPDATE topics t
+JOIN responses r ON r.topico_id = t.id AND r.solucao = TRUE
+SET t.solution_response_id = r.id;
@@ -0,0 +1,3 @@
+-- Optimistic locking for topics and responses
+ALTER TABLE topics ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE responses ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
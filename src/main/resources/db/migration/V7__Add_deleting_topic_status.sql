@@ -0,0 +1,2 @@
+-- Tombstone status for topics whose responses are being purged in the background
+ALTER TABLE topics MODIFY COLUMN status ENUM('OPEN', 'CLOSED', 'DELETING') DEFAULT 'OPEN';
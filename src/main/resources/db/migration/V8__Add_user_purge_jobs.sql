@@ -0,0 +1,17 @@
+-- Accounts are disabled immediately on deletion; their content is purged in the background
+ALTER TABLE users ADD COLUMN ativo BOOLEAN NOT NULL DEFAULT TRUE;
+
+CREATE TABLE user_purge_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    topics_deleted BIGINT NOT NULL DEFAULT 0,
+    responses_deleted BIGINT NOT NULL DEFAULT 0,
+    error VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_user_purge_jobs_status ON user_purge_jobs(status);
+CREATE INDEX idx_user_purge_jobs_user_id ON user_purge_jobs(user_id);
@@ -0,0 +1,9 @@
+-- Named leases so a scheduled job runs on one node at a time; expiry uses the database clock
+CREATE TABLE scheduler_leases (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(128),
+    expires_at DATETIME(3) NOT NULL
+);
+
+-- Stale-topic auto-close keysets over (status, data_criacao) and probes recent responses per topic
+-- through idx_responses_topico_id_data_criacao, so no new indexes are needed
@@ -0,0 +1,122 @@
+package com.example.forum.archive;
+
+import com.example.forum.domain.Response;
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicArchiveTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 5, 17, 10, 30, 15, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldFindEveryTopicAcrossBlocks() {
+        // Given: small blocks so the segment holds many of them
+        TopicArchive archive = new TopicArchive(directory, 512);
+        List<ArchivedTopic> topics = new ArrayList<>();
+        for (long id = 1; id <= 200; id += 2) {
+            topics.add(topic(id, 3));
+        }
+        archive.write(topics);
+
+        // When & Then
+        for (ArchivedTopic topic : topics) {
+            assertEquals(Optional.of(topic), archive.find(topic.id()));
+        }
+        assertTrue(archive.find(2L).isEmpty());
+        assertTrue(archive.find(0L).isEmpty());
+        assertTrue(archive.find(500L).isEmpty());
+    }
+
+    @Test
+    void shouldReopenSegmentsAndDiscardUnfinishedWrites() throws IOException {
+        // Given
+        TopicArchive archive = new TopicArchive(directory, 4096);
+        archive.write(List.of(topic(10L, 2), topic(11L, 0)));
+        archive.write(List.of(topic(5L, 1)));
+        Files.writeString(directory.resolve("segment-0000000003.seg.tmp"), "partial");
+
+        // When
+        TopicArchive reopened = new TopicArchive(directory, 4096);
+        int reopenedSegments = reopened.getSegmentCount();
+        reopened.write(List.of(topic(20L, 1)));
+
+        // Then
+        assertEquals(2, reopenedSegments);
+        assertEquals(Optional.of(topic(10L, 2)), reopened.find(10L));
+        assertEquals(Optional.of(topic(5L, 1)), reopened.find(5L));
+        assertEquals(Optional.of(topic(20L, 1)), reopened.find(20L));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void shouldMergeSegmentsSoLookupsCheckFewOfThem() throws IOException {
+        // Given: one segment per write, as with many small archive runs
+        TopicArchive archive = new TopicArchive(directory, 4096);
+        for (long id = 1; id <= 64; id++) {
+            archive.write(List.of(topic(id, 1)));
+        }
+        // The same thread archived again (crash between write and delete) with a different copy
+        archive.write(List.of(topic(10L, 3)));
+
+        // When & Then
+        assertTrue(archive.getSegmentCount() <= 8, "segments: " + archive.getSegmentCount());
+        for (long id = 1; id <= 64; id++) {
+            assertEquals(Optional.of(topic(id, id == 10 ? 3 : 1)), archive.find(id));
+        }
+        assertTrue(archive.find(65L).isEmpty());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(archive.getSegmentCount(), files.count());
+        }
+        assertEquals(archive.getSegmentCount(), new TopicArchive(directory, 4096).getSegmentCount());
+    }
+
+    @Test
+    void shouldRebuildDetachedEntitiesForRendering() {
+        // Given
+        TopicArchive archive = new TopicArchive(directory, 4096);
+        archive.write(List.of(topic(7L, 2)));
+
+        // When
+        Topic topic = archive.find(7L).orElseThrow().toTopic();
+
+        // Then
+        assertEquals(7L, topic.getId());
+        assertEquals(TopicStatus.CLOSED, topic.getStatus());
+        assertEquals("Autor 7", topic.getAutor().getNome());
+        assertEquals("Spring Boot", topic.getCurso().getNome());
+        assertEquals(CREATED, topic.getDataCriacao());
+        List<Response> respostas = topic.getRespostas();
+        assertEquals(2, respostas.size());
+        assertSame(topic, respostas.get(0).getTopico());
+        assertTrue(respostas.get(0).getSolucao());
+        assertEquals(701L, topic.getSolucaoId());
+    }
+
+    private ArchivedTopic topic(long id, int responses) {
+        List<ArchivedResponse> respostas = new ArrayList<>();
+        for (int i = 0; i < responses; i++) {
+            respostas.add(new ArchivedResponse(id * 100 + i + 1, "Resposta " + i + " com acentuação",
+                    CREATED.plusHours(i + 1), i == 0, 2L, i % 2 == 0 ? "João" : null));
+        }
+        return new ArchivedTopic(id, "Tópico " + id, "Mensagem do tópico " + id, CREATED, TopicStatus.CLOSED,
+                responses > 0 ? id * 100 + 1 : null, 1L, "Autor " + id, 3L, "Spring Boot", respostas);
+    }
+}
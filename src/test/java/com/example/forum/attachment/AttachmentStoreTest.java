@@ -0,0 +1,152 @@
+package com.example.forum.attachment;
+
+import com.example.forum.exception.AttachmentTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttachmentStoreTest {
+
+    // SHA-256 of "stack trace"
+    private static final String STACK_TRACE_SHA256 = "d26fba73fb8604b0c99010d648d66379756ada54983b96b6dbffcf0626cf0b1a";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldStoreContentUnderItsHash() throws IOException {
+        // Given
+        AttachmentStore store = new AttachmentStore(directory);
+        byte[] content = "stack trace".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        AttachmentStore.StoredFile stored = store.store(new ByteArrayInputStream(content), 1024);
+
+        // Then
+        assertEquals(STACK_TRACE_SHA256, stored.sha256());
+        assertEquals(content.length, stored.size());
+        Path file = store.path(stored.sha256());
+        assertEquals(directory.resolve(stored.sha256().substring(0, 2)).resolve(stored.sha256().substring(2, 4)),
+                file.getParent());
+        assertArrayEquals(content, Files.readAllBytes(file));
+        assertTrue(incomingFiles().isEmpty());
+    }
+
+    @Test
+    void shouldStoreIdenticalContentOnce() throws IOException {
+        // Given
+        AttachmentStore store = new AttachmentStore(directory);
+        byte[] content = new byte[200_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+
+        // When
+        AttachmentStore.StoredFile first = store.store(new ByteArrayInputStream(content), 1_000_000);
+        AttachmentStore.StoredFile second = store.store(new ByteArrayInputStream(content), 1_000_000);
+
+        // Then
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.find(directory, 3, (file, attributes) -> attributes.isRegularFile())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void shouldRejectContentOverLimitWithoutLeavingFiles() throws IOException {
+        // Given
+        AttachmentStore store = new AttachmentStore(directory);
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                return 'x';
+            }
+        };
+
+        // When & Then
+        assertThrows(AttachmentTooLargeException.class, () -> store.store(endless, 100_000));
+        assertTrue(incomingFiles().isEmpty());
+    }
+
+    @Test
+    void shouldDeleteOnlyOldUnreferencedFiles() throws IOException {
+        // Given
+        AttachmentStore store = new AttachmentStore(directory);
+        String referenced = store.store(input("referenciado"), 1024).sha256();
+        String orphan = store.store(input("órfão"), 1024).sha256();
+        String recent = store.store(input("recente"), 1024).sha256();
+        Instant old = Instant.now().minus(Duration.ofDays(2));
+        Files.setLastModifiedTime(store.path(referenced), FileTime.from(old));
+        Files.setLastModifiedTime(store.path(orphan), FileTime.from(old));
+        List<String> asked = new ArrayList<>();
+
+        // When
+        int deleted = store.deleteUnreferenced(Instant.now().minus(Duration.ofDays(1)), (Collection<String> hashes) -> {
+            asked.addAll(hashes);
+            return Set.of(referenced);
+        });
+
+        // Then
+        assertEquals(1, deleted);
+        assertTrue(store.exists(referenced));
+        assertFalse(store.exists(orphan));
+        assertTrue(store.exists(recent));
+        assertFalse(asked.contains(recent));
+    }
+
+    @Test
+    void shouldRejectPathsThatAreNotHashes() {
+        // Given
+        AttachmentStore store = new AttachmentStore(directory);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> store.path("../../etc/passwd"));
+        assertDoesNotThrow(() -> store.path(STACK_TRACE_SHA256));
+    }
+
+    @Test
+    void shouldRefuseToStartOnSeveralNodesWithoutAbsoluteDirectory() {
+        // Given
+        AttachmentStore local = new AttachmentStore(Path.of("data/attachments"));
+        AttachmentStore shared = new AttachmentStore(directory.toAbsolutePath());
+
+        // When & Then
+        ReflectionTestUtils.setField(local, "singleNode", true);
+        assertDoesNotThrow(local::checkDirectory);
+        ReflectionTestUtils.setField(local, "singleNode", false);
+        assertThrows(IllegalStateException.class, local::checkDirectory);
+        ReflectionTestUtils.setField(shared, "singleNode", false);
+        assertDoesNotThrow(shared::checkDirectory);
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Path> incomingFiles() throws IOException {
+        Path incoming = directory.resolve("incoming");
+        if (!Files.isDirectory(incoming)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(incoming)) {
+            return files.toList();
+        }
+    }
+}
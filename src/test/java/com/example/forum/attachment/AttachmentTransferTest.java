@@ -0,0 +1,140 @@
+package com.example.forum.attachment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttachmentTransferTest {
+
+    private static final String SHA256 = "d26fba73fb8604b0c99010d648d66379756ada54983b96b6dbffcf0626cf0b1a";
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+
+    @TempDir
+    Path directory;
+
+    private final AttachmentTransfer transfer = new AttachmentTransfer();
+    private AttachmentTransfer.StoredAttachment attachment;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 127);
+        }
+        Path file = directory.resolve(SHA256);
+        Files.write(file, content);
+        attachment = new AttachmentTransfer.StoredAttachment(file, SHA256, "erro ção.log", "text/plain");
+    }
+
+    @Test
+    void shouldSendWholeFileWithStrongEtag() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/topicos/anexos/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        transfer.send(attachment, CACHE_CONTROL, request, response);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals("\"" + SHA256 + "\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("max-age=30, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(content.length, response.getContentLengthLong());
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("attachment;"));
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingEtag() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/topicos/anexos/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"outro\", \"" + SHA256 + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        transfer.send(attachment, CACHE_CONTROL, request, response);
+
+        // Then
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void shouldSendRequestedRange() throws IOException {
+        // Given
+        MockHttpServletRequest closed = new MockHttpServletRequest("GET", "/topicos/anexos/1");
+        closed.addHeader(HttpHeaders.RANGE, "bytes=1000-1999");
+        MockHttpServletRequest suffix = new MockHttpServletRequest("GET", "/topicos/anexos/1");
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-500");
+        MockHttpServletResponse closedResponse = new MockHttpServletResponse();
+        MockHttpServletResponse suffixResponse = new MockHttpServletResponse();
+
+        // When
+        transfer.send(attachment, CACHE_CONTROL, closed, closedResponse);
+        transfer.send(attachment, CACHE_CONTROL, suffix, suffixResponse);
+
+        // Then
+        assertEquals(206, closedResponse.getStatus());
+        assertEquals("bytes 1000-1999/100000", closedResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), closedResponse.getContentAsByteArray());
+        assertEquals(206, suffixResponse.getStatus());
+        assertEquals("bytes 99500-99999/100000", suffixResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 99_500, 100_000), suffixResponse.getContentAsByteArray());
+    }
+
+    @Test
+    void shouldRejectUnsatisfiableRangeAndIgnoreStaleIfRange() throws IOException {
+        // Given
+        MockHttpServletRequest beyondEnd = new MockHttpServletRequest("GET", "/topicos/anexos/1");
+        beyondEnd.addHeader(HttpHeaders.RANGE, "bytes=200000-");
+        MockHttpServletRequest staleIfRange = new MockHttpServletRequest("GET", "/topicos/anexos/1");
+        staleIfRange.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        staleIfRange.addHeader(HttpHeaders.IF_RANGE, "\"versao-antiga\"");
+        MockHttpServletResponse beyondEndResponse = new MockHttpServletResponse();
+        MockHttpServletResponse staleIfRangeResponse = new MockHttpServletResponse();
+
+        // When
+        transfer.send(attachment, CACHE_CONTROL, beyondEnd, beyondEndResponse);
+        transfer.send(attachment, CACHE_CONTROL, staleIfRange, staleIfRangeResponse);
+
+        // Then
+        assertEquals(416, beyondEndResponse.getStatus());
+        assertEquals("bytes */100000", beyondEndResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(200, staleIfRangeResponse.getStatus());
+        assertEquals(content.length, staleIfRangeResponse.getContentAsByteArray().length);
+    }
+
+    @Test
+    void shouldHandFileToSendfileWhenContainerSupportsIt() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/topicos/anexos/1");
+        request.setAttribute(AttachmentTransfer.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=50000-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        transfer.send(attachment, CACHE_CONTROL, request, response);
+
+        // Then
+        assertEquals(206, response.getStatus());
+        assertEquals(50_000, response.getContentLengthLong());
+        assertEquals(attachment.file().toRealPath().toString(), request.getAttribute(AttachmentTransfer.SENDFILE_FILENAME));
+        assertEquals(50_000L, request.getAttribute(AttachmentTransfer.SENDFILE_START));
+        assertEquals(100_000L, request.getAttribute(AttachmentTransfer.SENDFILE_END));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.forum.backup;
+
+import com.example.forum.exception.BackupFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackupArchiveTest {
+
+    @Test
+    void shouldRoundTripRowsAcrossChunks() throws IOException {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000);
+        String longText = "x".repeat(70_000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BackupWriter writer = new BackupWriter(out, 3, 1 << 20);
+        writer.startTable("topics", List.of("id", "mensagem", "data_criacao", "solucao", "nota"));
+        for (long id = 1; id <= 7; id++) {
+            writer.writeRow(new Object[]{id, id == 7 ? longText : "Mensagem " + id + " ção", createdAt, id % 2 == 0, null});
+        }
+        assertEquals(7, writer.endTable());
+        writer.startTable("courses", List.of("id", "nome"));
+        assertEquals(0, writer.endTable());
+        writer.finish();
+
+        // When
+        List<Object[]> rows = new ArrayList<>();
+        int chunks = 0;
+        try (BackupReader reader = new BackupReader(new ByteArrayInputStream(out.toByteArray()))) {
+            BackupReader.Table topics = reader.nextTable();
+            assertEquals("topics", topics.name());
+            assertEquals(List.of("id", "mensagem", "data_criacao", "solucao", "nota"), topics.columns());
+            List<Object[]> chunk;
+            while ((chunk = reader.nextChunk()) != null) {
+                rows.addAll(chunk);
+                chunks++;
+            }
+            assertEquals("courses", reader.nextTable().name());
+            assertNull(reader.nextChunk());
+            assertNull(reader.nextTable());
+        }
+
+        // Then
+        assertEquals(3, chunks);
+        assertEquals(7, rows.size());
+        assertArrayEquals(new Object[]{2L, "Mensagem 2 ção", createdAt, true, null}, rows.get(1));
+        assertEquals(longText, rows.get(6)[1]);
+    }
+
+    @Test
+    void shouldRejectCorruptedChunk() throws IOException {
+        // Given
+        byte[] archive = archive();
+        // Flip a byte inside the deflated rows of the only chunk, just before TABLE_END, row count and END
+        archive[archive.length - 1 - 1 - 8 - 2] ^= 0x5A;
+
+        // When / Then
+        try (BackupReader reader = new BackupReader(new ByteArrayInputStream(archive))) {
+            reader.nextTable();
+            assertThrows(BackupFormatException.class, reader::nextChunk);
+        }
+    }
+
+    @Test
+    void shouldRejectTruncatedArchive() throws IOException {
+        // Given: a download that stopped just before the END marker
+        byte[] archive = archive();
+        byte[] truncated = Arrays.copyOf(archive, archive.length - 1);
+
+        // When / Then
+        try (BackupReader reader = new BackupReader(new ByteArrayInputStream(truncated))) {
+            assertNotNull(reader.nextTable());
+            assertEquals(2, reader.nextChunk().size());
+            assertNull(reader.nextChunk());
+            assertThrows(BackupFormatException.class, reader::nextTable);
+        }
+    }
+
+    @Test
+    void shouldRejectForeignFile() {
+        // When / Then
+        assertThrows(BackupFormatException.class,
+                () -> new BackupReader(new ByteArrayInputStream("PK\u0003\u0004 not a backup".getBytes())));
+    }
+
+    private byte[] archive() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BackupWriter writer = new BackupWriter(out, 1000, 1 << 20);
+        writer.startTable("courses", List.of("id", "nome", "categoria"));
+        writer.writeRow(new Object[]{1L, "Java", "Programação"});
+        writer.writeRow(new Object[]{2L, "Spring Boot", "Programação"});
+        writer.endTable();
+        writer.finish();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.forum.cache;
+
+import com.example.forum.config.ReadYourWritesTracker;
+import com.example.forum.exception.TopicNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ReadCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadCoalescer readCoalescer;
+    private PlatformTransactionManager transactionManager;
+    private ReadYourWritesTracker readYourWritesTracker;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionManager = mock(PlatformTransactionManager.class);
+        readYourWritesTracker = mock(ReadYourWritesTracker.class);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("readYourWritesTracker", readYourWritesTracker);
+        readCoalescer = new ReadCoalescer(meterRegistry, transactionManager,
+                beanFactory.getBeanProvider(ReadYourWritesTracker.class));
+        ReflectionTestUtils.setField(readCoalescer, "enabled", true);
+        ReflectionTestUtils.setField(readCoalescer, "timeout", Duration.ofSeconds(5));
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> readCoalescer.load("topic", 1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "tópico 1";
+        }));
+        awaitLoads(loads, 1);
+
+        // When
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> readCoalescer.load("topic", 1L, () -> {
+                loads.incrementAndGet();
+                return "outra carga";
+            })));
+        }
+        awaitCoalesced(5);
+        release.countDown();
+
+        // Then
+        assertEquals("tópico 1", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("tópico 1", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldLoadIndependentlyAfterWaitTimesOut() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(readCoalescer, "timeout", Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> readCoalescer.load("topic", 1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "lento";
+        }));
+        awaitLoads(loads, 1);
+
+        // When
+        String result = readCoalescer.load("topic", 1L, () -> "própria carga");
+
+        // Then
+        assertEquals("própria carga", result);
+        assertEquals(1.0, meterRegistry.counter("forum.reads.coalesce_timeouts", "read", "topic").count());
+        release.countDown();
+        assertEquals("lento", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldPropagateFailureToWaitingCallersAndRetryAfterwards() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> readCoalescer.load("topic", 7L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new TopicNotFoundException(7L);
+        }));
+        awaitLoads(loads, 1);
+        Future<String> follower = executor.submit(() -> readCoalescer.load("topic", 7L, () -> "não usado"));
+        awaitCoalesced(1);
+
+        // When
+        release.countDown();
+
+        // Then
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TopicNotFoundException.class, leaderFailure.getCause());
+        assertInstanceOf(TopicNotFoundException.class, followerFailure.getCause());
+        assertEquals("recarregado", readCoalescer.load("topic", 7L, () -> "recarregado"));
+    }
+
+    @Test
+    void shouldRunEachLoadInReadOnlyTransaction() {
+        // When
+        readCoalescer.load("topic", 1L, () -> "tópico 1");
+
+        // Then
+        verify(transactionManager).getTransaction(argThat(definition -> definition != null && definition.isReadOnly()));
+    }
+
+    @Test
+    void shouldNotJoinLoadInFlightWhenCallerHasPendingWrite() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> readCoalescer.load("topic", 1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "antes da escrita";
+        }));
+        awaitLoads(loads, 1);
+        when(readYourWritesTracker.isPinned()).thenReturn(true);
+
+        // When
+        String result = readCoalescer.load("topic", 1L, () -> "depois da escrita");
+
+        // Then
+        assertEquals("depois da escrita", result);
+        assertEquals(0, meterRegistry.find("forum.reads.coalesced").counters().size());
+        release.countDown();
+        assertEquals("antes da escrita", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldNotCoalesceDifferentKeys() {
+        // When
+        String topic = readCoalescer.load("topic", 1L, () -> readCoalescer.load("responses", 1L, () -> "respostas"));
+
+        // Then
+        assertEquals("respostas", topic);
+        assertEquals(0, meterRegistry.find("forum.reads.coalesced").counters().size());
+    }
+
+    private void awaitLoads(AtomicInteger loads, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("forum.reads.coalesced", "read", "topic").count() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.forum.cache;
+
+import com.example.forum.service.TopicsChanged;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicPageCacheFilterTest {
+
+    private static final String PAGE = "{\"content\":[{\"id\":1,\"titulo\":\"Um\"},{\"id\":2,\"titulo\":\"Dois\"}]}";
+
+    private TopicPageCache cache;
+    private TopicPageCacheFilter filter;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TopicPageCache();
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new TopicPageCacheFilter(cache, new ObjectMapper(), 3, meterRegistry);
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void shouldServeRepeatedPageFromCacheWithoutCallingChain() throws Exception {
+        // When
+        MockHttpServletResponse first = perform(request("0"));
+        MockHttpServletResponse second = perform(request("0"));
+
+        // Then
+        assertEquals(1, renders.get());
+        assertEquals("MISS", first.getHeader(TopicPageCacheFilter.CACHE_HEADER));
+        assertEquals("HIT", second.getHeader(TopicPageCacheFilter.CACHE_HEADER));
+        assertEquals(PAGE, second.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("max-age=30, public", second.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(1.0, meterRegistry.counter("forum.http.page_cache", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("forum.http.page_cache", "result", "miss").count());
+    }
+
+    @Test
+    void shouldServeGzippedBodyToClientsThatAcceptIt() throws Exception {
+        // Given
+        perform(request("0"));
+        MockHttpServletRequest request = request("0");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+
+        // When
+        MockHttpServletResponse response = perform(request);
+
+        // Then
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(PAGE, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void shouldInvalidateOnlyPagesShowingChangedTopic() throws Exception {
+        // Given
+        perform(request("0"));
+        perform(request("1", "status", "OPEN"));
+        assertEquals(2, cache.size());
+
+        // When
+        cache.onTopicsChanged(TopicsChanged.content(2L));
+        cache.onTopicsChanged(TopicsChanged.content(99L));
+
+        // Then
+        assertEquals(0, cache.size());
+        perform(request("0"));
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void shouldDropEverythingWhenListingChanges() throws Exception {
+        // Given
+        perform(request("0"));
+        perform(request("2"));
+
+        // When
+        cache.onTopicsChanged(TopicsChanged.listing(42L));
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotStorePageRenderedBeforeInvalidation() throws Exception {
+        // Given
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+                    throws IOException {
+                cache.onTopicsChanged(TopicsChanged.listing(3L));
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.getWriter().write(PAGE);
+            }
+        });
+
+        // When
+        filter.doFilter(request("0"), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldBypassCacheForDeepPagesAndUnknownParameters() {
+        // When & Then
+        assertNotNull(filter.cacheKey(Map.of("page", new String[]{"2"})));
+        assertNull(filter.cacheKey(Map.of("page", new String[]{"3"})));
+        assertNull(filter.cacheKey(Map.of("page", new String[]{"abc"})));
+        assertNull(filter.cacheKey(Map.of("q", new String[]{"spring"})));
+        assertEquals(filter.cacheKey(Map.of()),
+                filter.cacheKey(Map.of("page", new String[]{"0"}, "size", new String[]{"10"})));
+    }
+
+    @Test
+    void shouldOnlyCacheKnownSizesSortsAndUndatedPages() {
+        // When & Then
+        assertNotNull(filter.cacheKey(Map.of("size", new String[]{"20"}, "sort", new String[]{"dataCriacao,asc"})));
+        assertNotNull(filter.cacheKey(Map.of("status", new String[]{"OPEN"})));
+        assertNull(filter.cacheKey(Map.of("size", new String[]{"11"})));
+        assertNull(filter.cacheKey(Map.of("sort", new String[]{"titulo,asc"})));
+        assertNull(filter.cacheKey(Map.of("sort", new String[]{"dataCriacao,desc", "id"})));
+        assertNull(filter.cacheKey(Map.of("status", new String[]{"junk"})));
+        assertNull(filter.cacheKey(Map.of("desde", new String[]{"2024-01-01"})));
+        assertNull(filter.cacheKey(Map.of("ate", new String[]{"2024-12-31"})));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedPageWhenFull() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        perform(request("0"));
+        perform(request("1"));
+        perform(request("0"));
+
+        // When
+        perform(request("2"));
+
+        // Then: page 0 was read last, so page 1 made room
+        assertEquals(2, cache.size());
+        assertEquals("HIT", perform(request("0")).getHeader(TopicPageCacheFilter.CACHE_HEADER));
+        assertEquals("HIT", perform(request("2")).getHeader(TopicPageCacheFilter.CACHE_HEADER));
+        assertEquals("MISS", perform(request("1")).getHeader(TopicPageCacheFilter.CACHE_HEADER));
+    }
+
+    private MockHttpServletRequest request(String page, String... params) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", TopicPageCacheFilter.PATH);
+        request.setParameter("page", page);
+        for (int i = 0; i < params.length; i += 2) {
+            request.setParameter(params[i], params[i + 1]);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+                    throws IOException {
+                renders.incrementAndGet();
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.setHeader(HttpHeaders.CACHE_CONTROL, "max-age=30, public");
+                resp.getWriter().write(PAGE);
+            }
+        });
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.forum.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenApiDocumentTest {
+
+    @TempDir
+    private Path output;
+
+    @Test
+    void shouldGenerateDocumentForAllControllers() throws Exception {
+        // When
+        OpenApiDocumentGenerator.generate(output);
+
+        // Then
+        byte[] document = Files.readAllBytes(output.resolve("api-docs.json"));
+        JsonNode openApi = new ObjectMapper().readTree(document);
+        assertEquals("FórumHub API", openApi.path("info").path("title").asText());
+        JsonNode paths = openApi.path("paths");
+        for (String path : new String[]{"/topicos", "/topicos/{id}", "/topicos/{topicId}/respostas",
+                "/auth/login", "/topicos/moderacao", "/topicos/anexos/{attachmentId}",
+                "/admin/backup", "/sync", "/topicos/{topicId}/eventos", "/admin/webhooks"}) {
+            assertTrue(paths.has(path), "Missing path " + path);
+        }
+        try (InputStream gzip = new GZIPInputStream(Files.newInputStream(output.resolve("api-docs.json.gz")))) {
+            assertArrayEquals(document, gzip.readAllBytes());
+        }
+    }
+}
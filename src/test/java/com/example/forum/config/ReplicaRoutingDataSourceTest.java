@@ -0,0 +1,175 @@
+package com.example.forum.config;
+
+import com.example.forum.domain.Profile;
+import com.example.forum.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        lagMonitor = new ReplicaLagMonitor(
+                Map.of("replica-0", mock(DataSource.class), "replica-1", mock(DataSource.class)),
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+        lagMonitor.recordLag("replica-0", 0);
+        lagMonitor.recordLag("replica-1", 1000);
+        routingDataSource = new ReplicaRoutingDataSource(List.of("replica-0", "replica-1"), lagMonitor,
+                new ReadYourWritesTracker(Duration.ofMinutes(1)));
+
+        User user = new User("João Silva", "joao@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        ReflectionTestUtils.setField(user, "id", 1L);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void shouldUsePrimaryOutsideReadOnlyTransactions() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void shouldRotateReadOnlyTransactionsAcrossReplicas() {
+        // Given
+        beginTransaction(true);
+
+        // When
+        Object first = routingDataSource.determineCurrentLookupKey();
+        Object second = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertEquals(Set.of("replica-0", "replica-1"), Set.of(first, second));
+    }
+
+    @Test
+    void shouldSkipReplicasBehindMaximumLag() {
+        // Given
+        lagMonitor.recordLag("replica-1", 60_000);
+        lagMonitor.recordLag("replica-0", -1);
+        beginTransaction(true);
+
+        // When & Then
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void shouldPinUserToPrimaryAfterCommittedWrite() {
+        // Given
+        beginTransaction(false);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        commit();
+
+        // When
+        beginTransaction(true);
+        Object key = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, key);
+    }
+
+    @Test
+    void shouldNotPinOtherUsers() {
+        // Given
+        beginTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        commit();
+        User other = new User("Maria Silva", "maria@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        ReflectionTestUtils.setField(other, "id", 2L);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(other, null, List.of()));
+
+        // When
+        beginTransaction(true);
+        Object key = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY, key);
+    }
+
+    @Test
+    void shouldPinAnonymousReadsThatSendBackTheWriteCookie() {
+        // Given: a write in a request sets the cookie once it commits
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), writeResponse));
+        beginTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        assertNull(writeResponse.getCookie(ReadYourWritesTracker.COOKIE));
+        commit();
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesTracker.COOKIE);
+        assertNotNull(cookie);
+        assertTrue(cookie.isHttpOnly());
+
+        // When: an anonymous read, possibly on another node, sends it back
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest read = new MockHttpServletRequest();
+        read.setCookies(new Cookie(ReadYourWritesTracker.COOKIE, cookie.getValue()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(read));
+        beginTransaction(true);
+
+        // Then
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void shouldIgnoreWriteCookiesBeyondTheWindow() {
+        // Given
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest read = new MockHttpServletRequest();
+        long farFuture = System.currentTimeMillis() + Duration.ofDays(1).toMillis();
+        read.setCookies(new Cookie(ReadYourWritesTracker.COOKIE, Long.toString(farFuture)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(read));
+        beginTransaction(true);
+
+        // When & Then
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.clear();
+    }
+}
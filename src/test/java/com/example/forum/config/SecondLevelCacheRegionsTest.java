@@ -0,0 +1,50 @@
+package com.example.forum.config;
+
+import jakarta.persistence.Entity;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.annotations.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hibernate fails at startup when a cached entity or collection has no region in ehcache.xml
+// (missing_cache_strategy=fail); this catches it without booting the application.
+class SecondLevelCacheRegionsTest {
+
+    @Test
+    void everyCachedEntityAndCollectionHasARegion() throws Exception {
+        List<String> regions = new ArrayList<>(List.of("default-query-results-region", "default-update-timestamps-region"));
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (BeanDefinition definition : scanner.findCandidateComponents("com.example.forum.domain")) {
+            Class<?> entity = Class.forName(definition.getBeanClassName());
+            if (entity.isAnnotationPresent(Cache.class)) {
+                regions.add(entity.getName());
+            }
+            for (Field field : entity.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Cache.class)) {
+                    regions.add(entity.getName() + "." + field.getName());
+                }
+            }
+        }
+        assertTrue(regions.contains("com.example.forum.domain.User.perfis"));
+
+        CachingProvider provider = Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        try (CacheManager cacheManager = provider.getCacheManager(
+                getClass().getResource("/ehcache.xml").toURI(), getClass().getClassLoader())) {
+            for (String region : regions) {
+                assertNotNull(cacheManager.getCache(region), "No cache region configured for " + region);
+            }
+        }
+    }
+}
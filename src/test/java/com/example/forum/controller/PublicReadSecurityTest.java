@@ -0,0 +1,140 @@
+package com.example.forum.controller;
+
+import com.example.forum.config.ReadYourWritesTracker;
+import com.example.forum.domain.*;
+import com.example.forum.dto.TopicResponse;
+import com.example.forum.security.JwtAuthenticationEntryPoint;
+import com.example.forum.security.JwtUtil;
+import com.example.forum.security.SecurityConfig;
+import com.example.forum.service.ResponseService;
+import com.example.forum.service.TopicService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest({TopicController.class, ResponseController.class})
+@Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class})
+class PublicReadSecurityTest {
+
+    @TestConfiguration
+    static class TrackerConfig {
+        @Bean
+        ReadYourWritesTracker readYourWritesTracker() {
+            return new ReadYourWritesTracker(Duration.ofSeconds(5));
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TopicService topicService;
+
+    @MockBean
+    private ResponseService responseService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    private Topic topic;
+
+    @BeforeEach
+    void setUp() {
+        User author = new User("João Silva", "joao@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        topic = new Topic("Título", "Mensagem", author, new Course("Spring Boot", "Backend"));
+        ReflectionTestUtils.setField(topic, "id", 1L);
+        ReflectionTestUtils.setField(topic, "version", 3L);
+    }
+
+    @Test
+    void shouldServeTopicReadsAnonymouslyWithPublicCacheHeaders() throws Exception {
+        // Given
+        when(topicService.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(new TopicResponse(topic))));
+        when(topicService.findById(1L)).thenReturn(new TopicResponse(topic));
+        when(responseService.findByTopic(1L)).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/topicos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                .andExpect(jsonPath("$.content[0].titulo").value("Título"));
+        mockMvc.perform(get("/topicos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        mockMvc.perform(get("/topicos/1/respostas"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"));
+    }
+
+    @Test
+    void shouldNotProcessTokensOnPublicReads() throws Exception {
+        // Given
+        when(topicService.findById(1L)).thenReturn(new TopicResponse(topic));
+
+        // When & Then
+        mockMvc.perform(get("/topicos/1").header(HttpHeaders.AUTHORIZATION, "Bearer some.jwt.token"))
+                .andExpect(status().isOk());
+        verifyNoInteractions(jwtUtil, userDetailsService);
+    }
+
+    @Test
+    void shouldPinAnonymousReadsCarryingTheWriteCookieToPrimary() throws Exception {
+        // Given
+        List<Boolean> pinned = new ArrayList<>();
+        when(topicService.findById(1L)).thenAnswer(invocation -> {
+            pinned.add(readYourWritesTracker.isPinned());
+            return new TopicResponse(topic);
+        });
+        String until = Long.toString(System.currentTimeMillis() + 4_000);
+
+        // When
+        mockMvc.perform(get("/topicos/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/topicos/1").cookie(new Cookie("forum_rw", until))).andExpect(status().isOk());
+
+        // Then
+        assertEquals(List.of(false, true), pinned);
+    }
+
+    @Test
+    void shouldStillRequireTokenForWrites() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/topicos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Novo\",\"mensagem\":\"Nova\",\"cursoId\":1}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(put("/topicos/1/close"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(topicService);
+    }
+}
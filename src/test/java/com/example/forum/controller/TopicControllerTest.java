@@ -1,6 +1,7 @@
 package com.example.forum.controller;
 
 import com.example.forum.domain.*;
+import com.example.forum.dto.TopicResponse;
 import com.example.forum.dto.CreateTopicRequest;
 import com.example.forum.dto.UpdateTopicRequest;
 import com.example.forum.service.TopicService;
@@ -56,7 +57,7 @@ class TopicControllerTest {
     void shouldCreateTopic() throws Exception {
         // Given
         CreateTopicRequest request = new CreateTopicRequest("Novo Título", "Nova mensagem", 1L);
-        when(topicService.createTopic(eq(request), any(User.class))).thenReturn(topic);
+        when(topicService.createTopic(eq(request), any(User.class))).thenReturn(new TopicResponse(topic));
 
         // When & Then
         mockMvc.perform(post("/topicos")
@@ -93,7 +94,7 @@ class TopicControllerTest {
     void shouldListTopics() throws Exception {
         // Given
         Page<Topic> topicsPage = new PageImpl<>(List.of(topic), PageRequest.of(0, 10), 1);
-        when(topicService.findAll(any())).thenReturn(topicsPage);
+        when(topicService.findAll(any())).thenReturn(topicsPage.map(TopicResponse::new));
 
         // When & Then
         mockMvc.perform(get("/topicos"))
@@ -110,7 +111,7 @@ class TopicControllerTest {
     void shouldListTopicsByStatus() throws Exception {
         // Given
         Page<Topic> topicsPage = new PageImpl<>(List.of(topic), PageRequest.of(0, 10), 1);
-        when(topicService.findByStatus(eq(TopicStatus.OPEN), any())).thenReturn(topicsPage);
+        when(topicService.findByStatus(eq(TopicStatus.OPEN), any())).thenReturn(topicsPage.map(TopicResponse::new));
 
         // When & Then
         mockMvc.perform(get("/topicos")
@@ -126,7 +127,7 @@ class TopicControllerTest {
     @WithMockUser
     void shouldGetTopicById() throws Exception {
         // Given
-        when(topicService.findById(1L)).thenReturn(topic);
+        when(topicService.findById(1L)).thenReturn(new TopicResponse(topic));
 
         // When & Then
         mockMvc.perform(get("/topicos/1"))
@@ -144,7 +145,7 @@ class TopicControllerTest {
         // Given
         UpdateTopicRequest request = new UpdateTopicRequest("Título Atualizado", "Mensagem atualizada");
         Topic updatedTopic = new Topic("Título Atualizado", "Mensagem atualizada", author, course);
-        when(topicService.updateTopic(eq(1L), eq(request), any(User.class))).thenReturn(updatedTopic);
+        when(topicService.updateTopic(eq(1L), eq(request), isNull(), any(User.class))).thenReturn(new TopicResponse(updatedTopic));
 
         // When & Then
         mockMvc.perform(put("/topicos/1")
@@ -178,7 +179,7 @@ class TopicControllerTest {
         // Given
         Topic closedTopic = new Topic("Título", "Mensagem", author, course);
         closedTopic.close();
-        when(topicService.closeTopic(eq(1L), any(User.class))).thenReturn(closedTopic);
+        when(topicService.closeTopic(eq(1L), any(User.class))).thenReturn(new TopicResponse(closedTopic));
 
         // When & Then
         mockMvc.perform(put("/topicos/1/close")
@@ -193,7 +194,7 @@ class TopicControllerTest {
     @WithMockUser
     void shouldOpenTopic() throws Exception {
         // Given
-        when(topicService.openTopic(eq(1L), any(User.class))).thenReturn(topic);
+        when(topicService.openTopic(eq(1L), any(User.class))).thenReturn(new TopicResponse(topic));
 
         // When & Then
         mockMvc.perform(put("/topicos/1/open")
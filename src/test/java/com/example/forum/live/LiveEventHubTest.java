@@ -0,0 +1,286 @@
+package com.example.forum.live;
+
+import com.example.forum.controller.LiveEventController;
+import com.example.forum.domain.Course;
+import com.example.forum.domain.Profile;
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.domain.User;
+import com.example.forum.dto.ResponseResponse;
+import com.example.forum.exception.GlobalExceptionHandler;
+import com.example.forum.exception.TopicNotFoundException;
+import com.example.forum.service.TopicActivity;
+import com.example.forum.service.TopicService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LiveEventHubTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ManualExecutor sender = new ManualExecutor();
+    private final ExecutorService writer = Executors.newCachedThreadPool();
+    private final CountDownLatch unstall = new CountDownLatch(1);
+    private final TopicService topicService = mock(TopicService.class);
+    private LiveEventHub hub;
+    private MockMvc mockMvc;
+    private Topic topic;
+
+    @BeforeEach
+    void setUp() {
+        hub = new LiveEventHub(new ObjectMapper().findAndRegisterModules(), meterRegistry);
+        ReflectionTestUtils.setField(hub, "bufferSize", 4);
+        ReflectionTestUtils.setField(hub, "replaySize", 3);
+        ReflectionTestUtils.setField(hub, "replayRetention", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(hub, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(hub, "sendTimeout", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(hub, "sender", sender);
+        ReflectionTestUtils.setField(hub, "writer", writer);
+        mockMvc = MockMvcBuilders.standaloneSetup(new LiveEventController(hub, topicService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addFilters(new StallingFilter(unstall))
+                .build();
+
+        User author = new User("João Silva", "joao@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        Course course = new Course("Spring Boot", "Backend");
+        ReflectionTestUtils.setField(course, "id", 3L);
+        topic = new Topic("Título", "Mensagem", author, course);
+        ReflectionTestUtils.setField(topic, "id", 5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        unstall.countDown();
+        writer.shutdownNow();
+    }
+
+    @Test
+    void shouldDeliverCommittedActivityToTopicAndCourseSubscribers() throws Exception {
+        // Given
+        MvcResult topicStream = subscribe("/topicos/5/eventos", null);
+        MvcResult courseStream = subscribe("/cursos/3/eventos", null);
+        MvcResult otherTopicStream = subscribe("/topicos/6/eventos", null);
+
+        // When
+        hub.onTopicActivity(TopicActivity.responseCreated(topic,
+                new ResponseResponse(9L, "Resposta", LocalDateTime.of(2024, 5, 1, 10, 0), false, "Maria")));
+        sender.runAll();
+
+        // Then
+        String topicEvents = topicStream.getResponse().getContentAsString();
+        assertTrue(topicEvents.contains("event:response_created"), topicEvents);
+        assertTrue(topicEvents.contains("\"topicoId\":5"), topicEvents);
+        assertTrue(topicEvents.contains("\"mensagem\":\"Resposta\""), topicEvents);
+        assertTrue(courseStream.getResponse().getContentAsString().contains("event:response_created"));
+        assertFalse(otherTopicStream.getResponse().getContentAsString().contains("event:"));
+        assertEquals("no-store", topicStream.getResponse().getHeader("Cache-Control"));
+    }
+
+    @Test
+    void shouldEvictSlowSubscriberWithoutAffectingOthers() throws Exception {
+        // Given: the slow subscriber's first drain never runs, so its queue only fills up
+        MvcResult slow = mockMvc.perform(get("/topicos/5/eventos")).andReturn();
+        sender.tasks.clear();
+        MvcResult fast = subscribe("/topicos/5/eventos", null);
+
+        // When: the opening comment plus four events overflow a buffer of four
+        for (int i = 0; i < 4; i++) {
+            hub.onTopicActivity(TopicActivity.statusChanged(topic, TopicStatus.CLOSED));
+            sender.runAll();
+        }
+
+        // Then
+        assertEquals(1, hub.subscriberCount());
+        assertEquals(1.0, meterRegistry.counter("forum.live.evicted").count());
+        assertEquals("", slow.getResponse().getContentAsString());
+        long delivered = fast.getResponse().getContentAsString().lines()
+                .filter(line -> line.equals("event:status_changed"))
+                .count();
+        assertEquals(4, delivered);
+    }
+
+    @Test
+    void shouldEvictSubscriberWhoseWritesBlockAndKeepDelivering() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            // Given: a client that stopped reading, so its first write never returns
+            mockMvc.perform(get("/topicos/5/eventos").header(StallingFilter.HEADER, "true"))
+                    .andExpect(request().asyncStarted());
+            sender.runAll();
+            MvcResult healthy = subscribe("/topicos/5/eventos", null);
+
+            // When
+            hub.onTopicActivity(TopicActivity.statusChanged(topic, TopicStatus.CLOSED));
+            sender.runAll();
+
+            // Then: the sender gave up on the stalled write instead of waiting for it
+            assertEquals(1, hub.subscriberCount());
+            assertEquals(1.0, meterRegistry.counter("forum.live.send_timeouts").count());
+            assertTrue(healthy.getResponse().getContentAsString().contains("event:status_changed"));
+        });
+    }
+
+    @Test
+    void shouldReplayMissedEventsOrAskForReloadOnResume() throws Exception {
+        // Given: four events while nobody listens; the replay keeps the last three
+        for (int i = 0; i < 4; i++) {
+            hub.onTopicActivity(TopicActivity.statusChanged(topic, i % 2 == 0 ? TopicStatus.CLOSED : TopicStatus.OPEN));
+        }
+        String epoch = (String) ReflectionTestUtils.getField(hub, "epoch");
+
+        // When
+        MvcResult resumed = subscribe("/topicos/5/eventos", epoch + "-2");
+        MvcResult tooOld = subscribe("/topicos/5/eventos", epoch + "-0");
+        MvcResult restarted = subscribe("/topicos/5/eventos", "otherepoch-3");
+        sender.runAll();
+
+        // Then
+        String replay = resumed.getResponse().getContentAsString();
+        assertTrue(replay.contains("id:" + epoch + "-3") && replay.contains("id:" + epoch + "-4"), replay);
+        assertFalse(replay.contains("id:" + epoch + "-2"), replay);
+        assertTrue(tooOld.getResponse().getContentAsString().contains("event:" + LiveEventHub.RESET_EVENT));
+        assertTrue(restarted.getResponse().getContentAsString().contains("event:" + LiveEventHub.RESET_EVENT));
+    }
+
+    @Test
+    void shouldNotOpenChannelForUnknownTopic() throws Exception {
+        // Given
+        doThrow(new TopicNotFoundException(404L)).when(topicService).requireLiveTopic(404L);
+
+        // When & Then
+        mockMvc.perform(get("/topicos/404/eventos")).andExpect(status().isNotFound());
+        assertEquals(0, hub.subscriberCount());
+    }
+
+    private MvcResult subscribe(String path, String lastEventId) throws Exception {
+        var builder = get(path);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        sender.runAll();
+        return result;
+    }
+
+    // Makes every write of the requests carrying the header block until the test ends, like a client
+    // whose TCP window stays full
+    private static final class StallingFilter extends OncePerRequestFilter {
+
+        static final String HEADER = "X-Stall";
+
+        private final CountDownLatch unstall;
+
+        private StallingFilter(CountDownLatch unstall) {
+            this.unstall = unstall;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            if (request.getHeader(HEADER) == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            ServletOutputStream blocking = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    try {
+                        unstall.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(e);
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return false;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+            chain.doFilter(request, new HttpServletResponseWrapper(response) {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return blocking;
+                }
+            });
+        }
+    }
+
+    // Runs the sender's drains only when the test asks, so it can hold a subscriber back
+    private static final class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.service.PartitionMaintenanceService;
+import com.example.forum.service.SchedulerLeaseService;
+import com.example.forum.service.TopicsChanged;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+// Seeds a year of topics and responses into the partitioned schema and checks, through EXPLAIN,
+// which monthly partitions each query reads. The log lists partitions, estimated rows and
+// elapsed time per query as the measurement of pruned against unpruned access.
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.datasource.hikari.data-source-properties.rewriteBatchedStatements=true",
+        "spring.datasource.hikari.data-source-properties.queryInterceptors="
+                + "com.example.forum.repository.StatementCapturingInterceptor"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PartitionPruningTest {
+
+    private static final int MONTHS = 11;
+    private static final int TOPICS_PER_MONTH = 5_000;
+    private static final int RESPONSES_PER_TOPIC = 4;
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+            .withDatabaseName("forum_partitions")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private ResponseRepository responseRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        LocalDateTime now = LocalDateTime.now();
+        Long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        Long courseId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM courses", Long.class);
+
+        for (int month = 0; month < MONTHS; month++) {
+            List<Object[]> topics = new ArrayList<>();
+            for (int i = 0; i < TOPICS_PER_MONTH; i++) {
+                topics.add(new Object[]{
+                        "Tópico " + month + "-" + i,
+                        "Mensagem " + month + "-" + i,
+                        Timestamp.valueOf(now.minusMonths(month).minusMinutes(i)),
+                        TopicStatus.OPEN.name(), userId, courseId
+                });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO topics (titulo, mensagem, data_criacao, status, autor_id, curso_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", topics);
+        }
+
+        List<Map<String, Object>> topics = jdbcTemplate.queryForList("SELECT id, data_criacao FROM topics");
+        List<Object[]> responses = new ArrayList<>();
+        for (Map<String, Object> topic : topics) {
+            LocalDateTime created = (LocalDateTime) topic.get("data_criacao");
+            for (int j = 0; j < RESPONSES_PER_TOPIC; j++) {
+                responses.add(new Object[]{"Resposta " + j, Timestamp.valueOf(created.plusHours(j)), false,
+                        topic.get("id"), userId});
+            }
+            if (responses.size() >= 20_000) {
+                insertResponses(responses);
+                responses.clear();
+            }
+        }
+        insertResponses(responses);
+        jdbcTemplate.execute("ANALYZE TABLE topics, responses");
+    }
+
+    @Test
+    void dateBoundedListingReadsOnlyMatchingMonths() {
+        LocalDateTime from = YearMonth.now().minusMonths(2).atDay(1).atStartOfDay();
+        LocalDateTime to = YearMonth.now().minusMonths(1).atDay(1).atStartOfDay();
+
+        Set<String> partitions = partitionsRead("findCreatedBetween (one month)",
+                () -> topicRepository.findCreatedBetween(from, to, PageRequest.of(0, 10)));
+
+        assertEquals(Set.of(partitionOf(YearMonth.now().minusMonths(2))), partitions);
+    }
+
+    @Test
+    void unboundedListingReadsEveryMonth() {
+        Set<String> partitions = partitionsRead("findAllByOrderByDataCriacaoDesc (unbounded)",
+                () -> topicRepository.findAllByOrderByDataCriacaoDesc(PageRequest.of(0, 10)));
+
+        assertTrue(partitions.size() > MONTHS, "expected every partition, got " + partitions);
+    }
+
+    @Test
+    void responsesOfATopicSkipMonthsBeforeTheTopic() {
+        Long topicId = jdbcTemplate.queryForObject(
+                "SELECT id FROM topics WHERE data_criacao < ? ORDER BY data_criacao DESC LIMIT 1", Long.class,
+                Timestamp.valueOf(YearMonth.now().minusMonths(1).atDay(15).atStartOfDay()));
+        Topic topic = topicRepository.findById(topicId).orElseThrow();
+
+        Set<String> partitions = partitionsRead("findByTopicoOrderByDataCriacaoAsc",
+                () -> responseRepository.findByTopicoOrderByDataCriacaoAsc(topic));
+        partitionsRead("countByTopico", () -> responseRepository.countByTopico(topic));
+
+        YearMonth topicMonth = YearMonth.from(topic.getDataCriacao().minusDays(1));
+        partitions.forEach(partition -> assertTrue(
+                "pmax".equals(partition) || partition.compareTo(partitionOf(topicMonth)) >= 0,
+                "read partition " + partition + " older than the topic"));
+        assertTrue(partitions.size() < partitionNames("responses").size(), "expected pruning, got " + partitions);
+    }
+
+    @Test
+    void maintenanceAddsFutureMonthsAndArchivesExpiredOnes() {
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        PartitionMaintenanceService maintenance = new PartitionMaintenanceService(
+                jdbcTemplate, mock(SchedulerLeaseService.class), eventPublisher, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(maintenance, "monthsAhead", 3);
+        ReflectionTestUtils.setField(maintenance, "retentionMonths", 11);
+        ReflectionTestUtils.setField(maintenance, "expiredAction", PartitionMaintenanceService.ExpiredAction.ARCHIVE);
+        ReflectionTestUtils.setField(maintenance, "deleteChunkSize", 5_000);
+
+        YearMonth later = YearMonth.now().plusMonths(2);
+        maintenance.maintain(later);
+
+        String newest = partitionOf(later.plusMonths(3));
+        assertTrue(partitionNames("topics").contains(newest));
+        assertTrue(partitionNames("responses").contains(newest));
+        // The oldest seeded month is now past retention and lives in the archive tables
+        String expired = partitionOf(YearMonth.now().minusMonths(MONTHS - 1));
+        assertFalse(partitionNames("topics").contains(expired));
+        assertEquals(TOPICS_PER_MONTH, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM topics_archive_" + expired, Integer.class));
+        assertEquals(TOPICS_PER_MONTH, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sync_tombstones WHERE tipo = 'TOPIC' AND entidade_id IN " +
+                "(SELECT id FROM topics_archive_" + expired + ")", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM responses r LEFT JOIN topics t ON t.id = r.topico_id WHERE t.id IS NULL",
+                Integer.class));
+        verify(eventPublisher).publishEvent(TopicsChanged.listing(Set.of()));
+    }
+
+    private Set<String> partitionsRead(String query, Runnable invocation) {
+        StatementCapturingInterceptor.start();
+        long started = System.nanoTime();
+        List<String> statements;
+        try {
+            invocation.run();
+        } finally {
+            statements = StatementCapturingInterceptor.stop();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        assertFalse(statements.isEmpty(), query + " did not reach the database");
+
+        Set<String> partitions = new TreeSet<>();
+        long rows = 0;
+        for (String statement : statements) {
+            for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + statement)) {
+                Object names = row.get("partitions");
+                if (names != null) {
+                    partitions.addAll(Arrays.asList(String.valueOf(names).split(",")));
+                }
+                rows += row.get("rows") instanceof Number number ? number.longValue() : 0;
+            }
+        }
+        log.info(String.format("%-45s partitions=%-3d est. rows=%-8d elapsed=%d ms",
+                query, partitions.size(), rows, elapsedMillis));
+        return partitions;
+    }
+
+    private Set<String> partitionNames(String table) {
+        return new TreeSet<>(jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", String.class, table));
+    }
+
+    private void insertResponses(List<Object[]> responses) {
+        jdbcTemplate.batchUpdate("INSERT INTO responses (mensagem, data_criacao, solucao, topico_id, autor_id) "
+                + "VALUES (?, ?, ?, ?, ?)", responses);
+    }
+
+    private static String partitionOf(YearMonth month) {
+        return String.format("p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+}
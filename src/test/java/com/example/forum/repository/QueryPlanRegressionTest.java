@@ -0,0 +1,228 @@
+package com.example.forum.repository;
+
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs every query the repositories generate through EXPLAIN against the Flyway schema and a
+// seeded dataset, failing on full table scans or filesorts that are not explicitly allowed.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.datasource.hikari.data-source-properties.rewriteBatchedStatements=true",
+        "spring.datasource.hikari.data-source-properties.queryInterceptors="
+                + "com.example.forum.repository.StatementCapturingInterceptor"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final int USERS = 500;
+    private static final int TOPICS = 20_000;
+    private static final int RESPONSES_PER_TOPIC = 5;
+
+    // "table:access" pairs that are acceptable, e.g. tiny reference tables
+    private static final Set<String> ALLOWED = Set.of(
+            "profiles:ALL"
+    );
+
+    private static final Pattern TABLE_ALIAS = Pattern.compile("(?i)\\b(?:from|join)\\s+(\\w+)\\s+(\\w+)");
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+            .withDatabaseName("forum_query_plans")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private ResponseRepository responseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{"Usuário " + i, "user" + i + "@email.com", "senha", Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (nome, email, senha, created_at) VALUES (?, ?, ?, ?)", users);
+
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+        List<Long> courseIds = jdbcTemplate.queryForList("SELECT id FROM courses", Long.class);
+
+        List<Object[]> topics = new ArrayList<>();
+        for (int i = 0; i < TOPICS; i++) {
+            topics.add(new Object[]{
+                    "Tópico " + i,
+                    "Mensagem do tópico " + i,
+                    Timestamp.valueOf(now.minusMinutes(TOPICS - i)),
+                    i % 3 == 0 ? TopicStatus.CLOSED.name() : TopicStatus.OPEN.name(),
+                    userIds.get(i % userIds.size()),
+                    courseIds.get(i % courseIds.size())
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO topics (titulo, mensagem, data_criacao, status, autor_id, curso_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", topics);
+
+        List<Long> topicIds = jdbcTemplate.queryForList("SELECT id FROM topics", Long.class);
+        List<Object[]> responses = new ArrayList<>();
+        for (Long topicId : topicIds) {
+            for (int j = 0; j < RESPONSES_PER_TOPIC; j++) {
+                responses.add(new Object[]{
+                        "Resposta " + j,
+                        Timestamp.valueOf(now.minusSeconds(RESPONSES_PER_TOPIC - j)),
+                        j == 0,
+                        topicId,
+                        userIds.get((int) ((topicId + j) % userIds.size()))
+                });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO responses (mensagem, data_criacao, solucao, topico_id, autor_id) "
+                + "VALUES (?, ?, ?, ?, ?)", responses);
+
+        jdbcTemplate.execute("ANALYZE TABLE users, profiles, user_profiles, courses, topics, responses");
+    }
+
+    @Test
+    void topicRepositoryQueriesUseIndexes() {
+        Sort byDataCriacao = Sort.by(Sort.Direction.DESC, "dataCriacao");
+
+        assertPlans("findAllByOrderByDataCriacaoDesc",
+                () -> topicRepository.findAllByOrderByDataCriacaoDesc(PageRequest.of(0, 10)));
+        assertPlans("findAllByOrderByDataCriacaoDesc (deep page, controller sort)",
+                () -> topicRepository.findAllByOrderByDataCriacaoDesc(PageRequest.of(50, 10, byDataCriacao)));
+        assertPlans("findByStatusOrderByDataCriacaoDesc",
+                () -> topicRepository.findByStatusOrderByDataCriacaoDesc(TopicStatus.OPEN, PageRequest.of(0, 10)));
+        assertPlans("findByStatusOrderByDataCriacaoDesc (deep page, controller sort)",
+                () -> topicRepository.findByStatusOrderByDataCriacaoDesc(TopicStatus.CLOSED,
+                        PageRequest.of(50, 10, byDataCriacao)));
+        assertPlans("countByStatus", () -> topicRepository.countByStatus(TopicStatus.OPEN));
+        assertPlans("existsByTituloAndMensagem",
+                () -> topicRepository.existsByTituloAndMensagem("Tópico 42", "Mensagem do tópico 42"));
+        assertPlans("findById", () -> topicRepository.findById(anyId("topics")));
+        assertPlans("findOpenCreatedBefore (auto-close keyset page)",
+                () -> topicRepository.findOpenCreatedBefore(LocalDateTime.now(),
+                        LocalDateTime.now().minusDays(1), 0L, PageRequest.of(0, 500)));
+    }
+
+    @Test
+    void responseRepositoryQueriesUseIndexes() {
+        Topic topic = topicRepository.findById(anyId("topics")).orElseThrow();
+
+        assertPlans("findByTopicoOrderByDataCriacaoAsc",
+                () -> responseRepository.findByTopicoOrderByDataCriacaoAsc(topic));
+        assertPlans("findByTopicoAndSolucaoTrue", () -> responseRepository.findByTopicoAndSolucaoTrue(topic));
+        assertPlans("countByTopico", () -> responseRepository.countByTopico(topic));
+        assertPlans("findById", () -> responseRepository.findById(anyId("responses")));
+    }
+
+    @Test
+    void userRepositoryQueriesUseIndexes() {
+        assertPlans("findByEmail", () -> userRepository.findByEmail("user250@email.com"));
+        assertPlans("existsByEmail", () -> userRepository.existsByEmail("user250@email.com"));
+        assertPlans("findById", () -> userRepository.findById(anyId("users")));
+    }
+
+    @Test
+    void courseAndProfileRepositoryQueriesUseIndexes() {
+        assertPlans("CourseRepository.findByNome", () -> courseRepository.findByNome("Spring Boot"));
+        assertPlans("CourseRepository.findById", () -> courseRepository.findById(anyId("courses")));
+        assertPlans("ProfileRepository.findByNome", () -> profileRepository.findByNome("USUARIO"));
+    }
+
+    private void assertPlans(String query, Runnable invocation) {
+        StatementCapturingInterceptor.start();
+        try {
+            invocation.run();
+        } finally {
+            List<String> statements = StatementCapturingInterceptor.stop();
+            assertFalse(statements.isEmpty(), query + " did not reach the database");
+
+            List<String> violations = new ArrayList<>();
+            for (String statement : statements) {
+                Map<String, String> tables = tablesByAlias(statement);
+                for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + statement)) {
+                    String alias = String.valueOf(row.get("table"));
+                    String table = tables.getOrDefault(alias, alias);
+                    String extra = String.valueOf(row.get("Extra"));
+                    if ("ALL".equals(row.get("type")) && !ALLOWED.contains(table + ":ALL")) {
+                        violations.add("full scan on " + table + ": " + statement);
+                    }
+                    if (extra.contains("Using filesort") && !ALLOWED.contains(table + ":filesort")) {
+                        violations.add("filesort on " + table + ": " + statement);
+                    }
+                }
+            }
+            assertTrue(violations.isEmpty(), query + " has unexpected plans:\n" + String.join("\n", violations));
+        }
+    }
+
+    private Map<String, String> tablesByAlias(String statement) {
+        Map<String, String> tables = new HashMap<>();
+        Matcher matcher = TABLE_ALIAS.matcher(statement);
+        while (matcher.find()) {
+            tables.put(matcher.group(2), matcher.group(1));
+        }
+        return tables;
+    }
+
+    private Long anyId(String table) {
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+    }
+}
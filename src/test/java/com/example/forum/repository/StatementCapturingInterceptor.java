@@ -0,0 +1,65 @@
+package com.example.forum.repository;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Connector/J interceptor that records the SELECT statements sent to the server, with
+ * parameters already bound, so they can be replayed through EXPLAIN.
+ */
+public class StatementCapturingInterceptor implements QueryInterceptor {
+
+    private static final List<String> captured = new CopyOnWriteArrayList<>();
+    private static volatile boolean recording;
+
+    public static void start() {
+        captured.clear();
+        recording = true;
+    }
+
+    public static List<String> stop() {
+        recording = false;
+        return List.copyOf(captured);
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        if (recording) {
+            String statement = sql.get().trim();
+            if (statement.toLowerCase(Locale.ROOT).startsWith("select")) {
+                captured.add(statement);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery,
+                                               T originalResultSet, ServerSession serverSession) {
+        return originalResultSet;
+    }
+}
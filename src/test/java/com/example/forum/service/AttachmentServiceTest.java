@@ -0,0 +1,200 @@
+package com.example.forum.service;
+
+import com.example.forum.archive.TopicArchive;
+import com.example.forum.attachment.AttachmentStore;
+import com.example.forum.domain.*;
+import com.example.forum.dto.AttachmentResponse;
+import com.example.forum.exception.AttachmentTooLargeException;
+import com.example.forum.exception.ResponseNotFoundException;
+import com.example.forum.exception.TopicNotFoundException;
+import com.example.forum.exception.UnauthorizedOperationException;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentServiceTest {
+
+    private static final String SHA256 = "d26fba73fb8604b0c99010d648d66379756ada54983b96b6dbffcf0626cf0b1a";
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private ResponseRepository responseRepository;
+
+    @Mock
+    private AttachmentStore attachmentStore;
+
+    @Mock
+    private TopicArchive topicArchive;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private AttachmentService attachmentService;
+
+    private User topicAuthor;
+    private User responseAuthor;
+    private Topic topic;
+    private Response response;
+    private final InputStream content = new ByteArrayInputStream(new byte[11]);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(attachmentService, "maxSize", DataSize.ofMegabytes(1));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        Profile userProfile = new Profile("USUARIO");
+        topicAuthor = new User("Maria Silva", "maria@email.com", "senha123", Set.of(userProfile));
+        responseAuthor = new User("João Silva", "joao@email.com", "senha123", Set.of(userProfile));
+        ReflectionTestUtils.setField(topicAuthor, "id", 1L);
+        ReflectionTestUtils.setField(responseAuthor, "id", 2L);
+
+        topic = new Topic("Título", "Mensagem", topicAuthor, new Course("Spring Boot", "Backend"));
+        ReflectionTestUtils.setField(topic, "id", 10L);
+        response = new Response("Resposta", topic, responseAuthor);
+        ReflectionTestUtils.setField(response, "id", 100L);
+    }
+
+    @Test
+    void shouldStoreFileAndSaveOnlyMetadata() {
+        // Given
+        when(topicRepository.findById(10L)).thenReturn(Optional.of(topic));
+        when(topicRepository.findForShareById(10L)).thenReturn(Optional.of(topic));
+        when(attachmentStore.store(content, DataSize.ofMegabytes(1).toBytes()))
+                .thenReturn(new AttachmentStore.StoredFile(SHA256, 11));
+        when(attachmentRepository.save(any(Attachment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        AttachmentResponse attachment = attachmentService.attachToTopic(10L, "C:\\logs\\erro.log", "text/plain",
+                11, content, topicAuthor);
+
+        // Then
+        ArgumentCaptor<Attachment> saved = ArgumentCaptor.forClass(Attachment.class);
+        verify(attachmentRepository).save(saved.capture());
+        assertEquals(10L, saved.getValue().getTopicoId());
+        assertNull(saved.getValue().getRespostaId());
+        assertEquals(1L, saved.getValue().getAutorId());
+        assertEquals("erro.log", attachment.nome());
+        assertEquals("text/plain", attachment.contentType());
+        assertEquals(11, attachment.tamanho());
+        assertEquals(SHA256, attachment.sha256());
+    }
+
+    @Test
+    void shouldAttachToResponseUnderItsTopic() {
+        // Given
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+        when(topicRepository.findForShareById(10L)).thenReturn(Optional.of(topic));
+        when(responseRepository.existsById(100L)).thenReturn(true);
+        when(attachmentStore.store(any(), anyLong())).thenReturn(new AttachmentStore.StoredFile(SHA256, 11));
+        when(attachmentRepository.save(any(Attachment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        AttachmentResponse attachment = attachmentService.attachToResponse(100L, "trace.txt", null, -1, content,
+                responseAuthor);
+
+        // Then
+        assertEquals(10L, attachment.topicoId());
+        assertEquals(100L, attachment.respostaId());
+        assertEquals("application/octet-stream", attachment.contentType());
+    }
+
+    @Test
+    void shouldRejectUploadsFromNonAuthorsBeforeReadingTheBody() {
+        // Given
+        when(topicRepository.findById(10L)).thenReturn(Optional.of(topic));
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+
+        // When & Then
+        assertThrows(UnauthorizedOperationException.class,
+                () -> attachmentService.attachToTopic(10L, "a.log", "text/plain", 11, content, responseAuthor));
+        assertThrows(UnauthorizedOperationException.class,
+                () -> attachmentService.attachToResponse(100L, "a.log", "text/plain", 11, content, topicAuthor));
+        verifyNoInteractions(attachmentStore, attachmentRepository);
+    }
+
+    @Test
+    void shouldRejectDeclaredSizeOverLimitAndFormBodies() {
+        // Given
+        when(topicRepository.findById(10L)).thenReturn(Optional.of(topic));
+
+        // When & Then
+        assertThrows(AttachmentTooLargeException.class, () -> attachmentService.attachToTopic(10L, "a.iso",
+                "application/octet-stream", DataSize.ofMegabytes(2).toBytes(), content, topicAuthor));
+        assertThrows(IllegalArgumentException.class, () -> attachmentService.attachToTopic(10L, "a.log",
+                "multipart/form-data; boundary=x", 11, content, topicAuthor));
+        assertThrows(IllegalArgumentException.class, () -> attachmentService.attachToTopic(10L, " / ",
+                "text/plain", 11, content, topicAuthor));
+        verifyNoInteractions(attachmentStore);
+    }
+
+    @Test
+    void shouldNotSaveAttachmentWhenResponseIsDeletedDuringUpload() {
+        // Given
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+        when(topicRepository.findForShareById(10L)).thenReturn(Optional.of(topic));
+        when(responseRepository.existsById(100L)).thenReturn(false);
+        when(attachmentStore.store(any(), anyLong())).thenReturn(new AttachmentStore.StoredFile(SHA256, 11));
+
+        // When & Then: the stored file is left for the orphan sweep
+        assertThrows(ResponseNotFoundException.class,
+                () -> attachmentService.attachToResponse(100L, "trace.txt", "text/plain", 11, content, responseAuthor));
+        verify(attachmentRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotAttachToTopicBeingDeleted() {
+        // Given
+        ReflectionTestUtils.setField(topic, "status", TopicStatus.DELETING);
+        when(topicRepository.findById(10L)).thenReturn(Optional.of(topic));
+
+        // When & Then
+        assertThrows(TopicNotFoundException.class,
+                () -> attachmentService.attachToTopic(10L, "a.log", "text/plain", 11, content, topicAuthor));
+    }
+
+    @Test
+    void shouldLetModeratorsDeleteOtherUsersAttachments() {
+        // Given
+        Attachment attachment = new Attachment(10L, null, 1L, "a.log", "text/plain", 11, SHA256);
+        when(attachmentRepository.findById(5L)).thenReturn(Optional.of(attachment));
+        when(userService.isUserModerator(responseAuthor)).thenReturn(false, true);
+
+        // When & Then
+        assertThrows(UnauthorizedOperationException.class, () -> attachmentService.delete(5L, responseAuthor));
+        attachmentService.delete(5L, responseAuthor);
+        verify(attachmentRepository).delete(attachment);
+        verify(attachmentStore, never()).path(any());
+    }
+}
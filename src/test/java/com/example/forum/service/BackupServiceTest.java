@@ -0,0 +1,190 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.TopicFingerprint;
+import com.example.forum.dto.BackupSummaryResponse;
+import com.example.forum.exception.BackupFormatException;
+import com.example.forum.exception.BackupTargetNotEmptyException;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackupServiceTest {
+
+    private static final String SCHEMA = """
+            CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL,
+                email VARCHAR(100) UNIQUE NOT NULL, senha VARCHAR(255) NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, ativo BOOLEAN NOT NULL DEFAULT TRUE);
+            CREATE TABLE profiles (id BIGINT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(50) UNIQUE NOT NULL);
+            CREATE TABLE user_profiles (user_id BIGINT NOT NULL, profile_id BIGINT NOT NULL,
+                PRIMARY KEY (user_id, profile_id),
+                FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                FOREIGN KEY (profile_id) REFERENCES profiles(id) ON DELETE CASCADE);
+            CREATE TABLE courses (id BIGINT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL,
+                categoria VARCHAR(50) NOT NULL);
+            CREATE TABLE topics (id BIGINT AUTO_INCREMENT PRIMARY KEY, titulo VARCHAR(255) NOT NULL,
+                mensagem TEXT NOT NULL, data_criacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                status ENUM('OPEN', 'CLOSED', 'DELETING') DEFAULT 'OPEN', autor_id BIGINT NOT NULL,
+                curso_id BIGINT NOT NULL, solution_response_id BIGINT NULL, version BIGINT NOT NULL DEFAULT 0,
+                FOREIGN KEY (autor_id) REFERENCES users(id) ON DELETE CASCADE,
+                FOREIGN KEY (curso_id) REFERENCES courses(id) ON DELETE CASCADE);
+            CREATE TABLE responses (id BIGINT AUTO_INCREMENT PRIMARY KEY, mensagem TEXT NOT NULL,
+                data_criacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP, solucao BOOLEAN DEFAULT FALSE,
+                topico_id BIGINT NOT NULL, autor_id BIGINT NOT NULL, version BIGINT NOT NULL DEFAULT 0,
+                FOREIGN KEY (topico_id) REFERENCES topics(id) ON DELETE CASCADE,
+                FOREIGN KEY (autor_id) REFERENCES users(id) ON DELETE CASCADE);
+            CREATE TABLE attachments (id BIGINT AUTO_INCREMENT PRIMARY KEY, topico_id BIGINT NOT NULL,
+                FOREIGN KEY (topico_id) REFERENCES topics(id) ON DELETE CASCADE);
+            CREATE TABLE topic_fingerprints (hash VARCHAR(64) PRIMARY KEY, topico_id BIGINT NOT NULL);
+            CREATE TABLE sync_sequence (id INT PRIMARY KEY, current_seq BIGINT NOT NULL, reset_at TIMESTAMP(6) NULL);
+            CREATE TABLE sync_tombstones (id BIGINT AUTO_INCREMENT PRIMARY KEY, tipo VARCHAR(20) NOT NULL,
+                entidade_id BIGINT NOT NULL);
+            """;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache secondLevelCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private JdbcTemplate source;
+    private JdbcTemplate target;
+    private BackupService sourceService;
+    private BackupService targetService;
+
+    @BeforeEach
+    void setUp() {
+        source = database("backup-source");
+        target = database("backup-target");
+        sourceService = service(source);
+        targetService = service(target);
+
+        source.update("INSERT INTO profiles (id, nome) VALUES (1, 'USUARIO'), (2, 'ADMIN')");
+        source.update("INSERT INTO courses (id, nome, categoria) VALUES (1, 'Java', 'Programação')");
+        source.update("INSERT INTO users (id, nome, email, senha, created_at, ativo) VALUES "
+                + "(1, 'Ana', 'ana@forum.com', '$2a$10$hash', TIMESTAMP '2024-01-02 10:00:00.5', TRUE), "
+                + "(2, 'Bruno', 'bruno@forum.com', '$2a$10$hash', TIMESTAMP '2024-01-03 11:00:00', FALSE)");
+        source.update("INSERT INTO user_profiles (user_id, profile_id) VALUES (1, 1), (1, 2), (2, 1)");
+        for (long id = 1; id <= 25; id++) {
+            source.update("INSERT INTO topics (id, titulo, mensagem, data_criacao, status, autor_id, curso_id, "
+                    + "solution_response_id, version) VALUES (?, ?, ?, TIMESTAMP '2024-02-01 09:00:00', ?, 1, 1, ?, 3)",
+                    id, "Tópico " + id, "Mensagem " + id, id % 2 == 0 ? "CLOSED" : "OPEN", id == 1 ? 1L : null);
+            source.update("INSERT INTO responses (id, mensagem, solucao, topico_id, autor_id) VALUES (?, ?, ?, ?, 2)",
+                    id, "Resposta " + id, id == 1, id);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        source.execute("DROP ALL OBJECTS");
+        target.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void shouldRestoreIdenticalRowsFromBackup() {
+        // Given
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+
+        // When
+        BackupSummaryResponse backup = sourceService.backup(archive);
+        BackupSummaryResponse restore = targetService.restore(new ByteArrayInputStream(archive.toByteArray()), false);
+
+        // Then
+        Map<String, Long> expected = Map.of("profiles", 2L, "courses", 1L, "users", 2L,
+                "user_profiles", 3L, "topics", 25L, "responses", 25L);
+        assertEquals(expected, backup.linhas());
+        assertEquals(expected, restore.linhas());
+        assertEquals(58, restore.totalLinhas());
+        for (String table : BackupService.TABLES) {
+            assertEquals(source.queryForList("SELECT * FROM " + table + " ORDER BY 1, 2"),
+                    target.queryForList("SELECT * FROM " + table + " ORDER BY 1, 2"), table);
+        }
+        assertEquals(25, target.queryForObject("SELECT COUNT(*) FROM topic_fingerprints", Integer.class));
+        assertEquals(1L, target.queryForObject("SELECT topico_id FROM topic_fingerprints WHERE hash = ?", Long.class,
+                TopicFingerprint.hash("Tópico 1", "Mensagem 1")));
+        verify(secondLevelCache).evictAll();
+        verify(eventPublisher).publishEvent(TopicsChanged.listing(List.of()));
+    }
+
+    @Test
+    void shouldRejectNonEmptyTargetUnlessReplacing() {
+        // Given
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        sourceService.backup(archive);
+        target.update("INSERT INTO courses (id, nome, categoria) VALUES (9, 'Antigo', 'Outros')");
+        target.update("INSERT INTO users (id, nome, email, senha) VALUES (9, 'Antigo', 'antigo@forum.com', 'x')");
+        target.update("INSERT INTO topics (id, titulo, mensagem, autor_id, curso_id) VALUES (9, 'Antigo', 'Antigo', 9, 9)");
+        target.update("INSERT INTO attachments (id, topico_id) VALUES (1, 9)");
+        target.update("INSERT INTO sync_tombstones (tipo, entidade_id) VALUES ('TOPIC', 8)");
+
+        // When / Then
+        assertThrows(BackupTargetNotEmptyException.class,
+                () -> targetService.restore(new ByteArrayInputStream(archive.toByteArray()), false));
+        assertEquals(1, target.queryForObject("SELECT COUNT(*) FROM courses", Integer.class));
+
+        targetService.restore(new ByteArrayInputStream(archive.toByteArray()), true);
+        assertEquals(List.of("Java"), target.queryForList("SELECT nome FROM courses", String.class));
+        assertEquals(25, target.queryForObject("SELECT COUNT(*) FROM topics", Integer.class));
+        assertEquals(0, target.queryForObject("SELECT COUNT(*) FROM attachments", Integer.class));
+        assertEquals(0, target.queryForObject("SELECT COUNT(*) FROM sync_tombstones", Integer.class));
+        assertNotNull(target.queryForObject("SELECT reset_at FROM sync_sequence WHERE id = 1", Timestamp.class));
+    }
+
+    @Test
+    void shouldRejectTruncatedArchiveAndRestoreForeignKeyChecks() {
+        // Given
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        sourceService.backup(archive);
+        byte[] truncated = Arrays.copyOf(archive.toByteArray(), archive.size() - 1);
+
+        // When / Then
+        // H2 commits on SET FOREIGN_KEY_CHECKS, so the rollback itself is only observable on MySQL
+        assertThrows(BackupFormatException.class,
+                () -> targetService.restore(new ByteArrayInputStream(truncated), false));
+        assertThrows(Exception.class, () -> target.update(
+                "INSERT INTO user_profiles (user_id, profile_id) VALUES (404, 404)"));
+        verifyNoInteractions(entityManagerFactory, eventPublisher);
+    }
+
+    private JdbcTemplate database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(SCHEMA);
+        return jdbcTemplate;
+    }
+
+    private BackupService service(JdbcTemplate jdbcTemplate) {
+        BackupService service = new BackupService(jdbcTemplate,
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()), entityManagerFactory, eventPublisher);
+        ReflectionTestUtils.setField(service, "fetchSize", 10);
+        ReflectionTestUtils.setField(service, "chunkRows", 10);
+        ReflectionTestUtils.setField(service, "chunkBytes", 1 << 20);
+        return service;
+    }
+}
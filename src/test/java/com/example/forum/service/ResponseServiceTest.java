@@ -0,0 +1,261 @@
+package com.example.forum.service;
+
+import com.example.forum.archive.ArchivedResponse;
+import com.example.forum.archive.ArchivedTopic;
+import com.example.forum.archive.TopicArchive;
+import com.example.forum.cache.ReadCoalescer;
+import com.example.forum.domain.*;
+import com.example.forum.dto.CreateResponseRequest;
+import com.example.forum.dto.ResponseResponse;
+import com.example.forum.exception.TopicArchivedException;
+import com.example.forum.exception.UnauthorizedOperationException;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.SyncTombstoneRepository;
+import com.example.forum.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseServiceTest {
+
+    @Mock
+    private ResponseRepository responseRepository;
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TopicArchive topicArchive;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReadCoalescer readCoalescer;
+
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+
+    @InjectMocks
+    private ResponseService responseService;
+
+    private User topicAuthor;
+    private User responseAuthor;
+    private Topic topic;
+    private Response response;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(readCoalescer.load(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+
+        Profile userProfile = new Profile("USUARIO");
+        topicAuthor = new User("Maria Silva", "maria@email.com", "senha123", Set.of(userProfile));
+        responseAuthor = new User("João Silva", "joao@email.com", "senha123", Set.of(userProfile));
+        ReflectionTestUtils.setField(topicAuthor, "id", 1L);
+        ReflectionTestUtils.setField(responseAuthor, "id", 2L);
+
+        topic = new Topic("Título", "Mensagem", topicAuthor, new Course("Spring Boot", "Backend"));
+        ReflectionTestUtils.setField(topic, "id", 10L);
+        ReflectionTestUtils.setField(topic, "version", 0L);
+
+        response = new Response("Resposta", topic, responseAuthor);
+        ReflectionTestUtils.setField(response, "id", 100L);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldMarkSolutionWithSetBasedUpdates() {
+        // Given
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+        when(topicRepository.updateSolution(10L, 100L, TopicStatus.CLOSED, 0L)).thenReturn(1);
+
+        // When
+        ResponseResponse result = responseService.markAsSolution(100L, topicAuthor);
+
+        // Then
+        assertEquals(new ResponseResponse(response), result);
+        verify(topicRepository).updateSolution(10L, 100L, TopicStatus.CLOSED, 0L);
+        verify(responseRepository).switchSolution(10L, 100L);
+        verify(responseRepository, never()).findByTopicoAndSolucaoTrue(any());
+        verify(responseRepository, never()).save(any());
+        verify(topicRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotMarkSolutionWhenNotTopicAuthor() {
+        // Given
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+
+        // When & Then
+        assertThrows(UnauthorizedOperationException.class,
+                () -> responseService.markAsSolution(100L, responseAuthor));
+        verify(topicRepository, never()).updateSolution(anyLong(), any(), any(), any());
+        verify(responseRepository, never()).switchSolution(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldUnmarkSolutionAndReopenTopic() {
+        // Given
+        ReflectionTestUtils.setField(topic, "solucaoId", 100L);
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+        when(topicRepository.updateSolution(10L, null, TopicStatus.OPEN, 0L)).thenReturn(1);
+
+        // When
+        responseService.unmarkAsSolution(100L, topicAuthor);
+
+        // Then
+        verify(topicRepository).updateSolution(10L, null, TopicStatus.OPEN, 0L);
+        verify(responseRepository).clearSolution(100L);
+    }
+
+    @Test
+    void shouldNotUnmarkResponseThatIsNotTheCurrentSolution() {
+        // Given
+        ReflectionTestUtils.setField(topic, "solucaoId", 101L);
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+
+        // When
+        ResponseResponse result = responseService.unmarkAsSolution(100L, topicAuthor);
+
+        // Then
+        assertEquals(new ResponseResponse(response), result);
+        verify(topicRepository, never()).updateSolution(anyLong(), any(), any(), any());
+        verify(responseRepository, never()).clearSolution(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldRetrySolutionSwitchWhenTopicChangedConcurrently() {
+        // Given
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+        when(topicRepository.updateSolution(10L, 100L, TopicStatus.CLOSED, 0L)).thenReturn(0, 1);
+
+        // When
+        responseService.markAsSolution(100L, topicAuthor);
+
+        // Then
+        verify(topicRepository, times(2)).updateSolution(10L, 100L, TopicStatus.CLOSED, 0L);
+        verify(responseRepository, times(1)).switchSolution(10L, 100L);
+    }
+
+    @Test
+    void shouldGiveUpAfterBoundedSolutionRetries() {
+        // Given
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+        when(topicRepository.updateSolution(10L, 100L, TopicStatus.CLOSED, 0L)).thenReturn(0);
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> responseService.markAsSolution(100L, topicAuthor));
+        verify(topicRepository, times(3)).updateSolution(10L, 100L, TopicStatus.CLOSED, 0L);
+        verify(responseRepository, never()).switchSolution(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldResolveSolutionThroughTopicPointer() {
+        // Given
+        ReflectionTestUtils.setField(topic, "solucaoId", 100L);
+        when(topicRepository.findById(10L)).thenReturn(Optional.of(topic));
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+
+        // When
+        Optional<ResponseResponse> result = responseService.findSolutionByTopic(10L);
+
+        // Then
+        assertEquals(Optional.of(new ResponseResponse(response)), result);
+        verify(responseRepository, never()).findByTopicoAndSolucaoTrue(any());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenTopicHasNoSolution() {
+        // Given
+        when(topicRepository.findById(10L)).thenReturn(Optional.of(topic));
+
+        // When
+        Optional<ResponseResponse> result = responseService.findSolutionByTopic(10L);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(responseRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void shouldReadResponsesOfArchivedTopic() {
+        // Given
+        LocalDateTime created = LocalDateTime.of(2023, 1, 1, 10, 0);
+        ArchivedTopic archived = new ArchivedTopic(10L, "Título", "Mensagem", created, TopicStatus.CLOSED, 101L,
+                1L, "Maria Silva", 3L, "Spring Boot", List.of(
+                        new ArchivedResponse(101L, "Primeira", created.plusHours(1), true, 2L, "João Silva"),
+                        new ArchivedResponse(102L, "Segunda", created.plusHours(2), false, 1L, "Maria Silva")));
+        when(topicRepository.findById(10L)).thenReturn(Optional.empty());
+        when(topicArchive.find(10L)).thenReturn(Optional.of(archived));
+
+        // When
+        List<ResponseResponse> result = responseService.findByTopic(10L);
+
+        // Then
+        assertEquals(List.of(101L, 102L), result.stream().map(ResponseResponse::id).toList());
+        assertEquals("João Silva", result.get(0).autorNome());
+        assertEquals(Optional.of(101L), responseService.findSolutionByTopic(10L).map(ResponseResponse::id));
+        verify(responseRepository, never()).findByTopicoOrderByDataCriacaoAsc(any());
+    }
+
+    @Test
+    void shouldNotRespondToArchivedTopic() {
+        // Given
+        when(topicRepository.findForShareById(10L)).thenReturn(Optional.empty());
+        when(topicArchive.contains(10L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(TopicArchivedException.class,
+                () -> responseService.createResponse(10L, new CreateResponseRequest("Resposta"), responseAuthor));
+        verify(responseRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldDeleteAttachmentRowsWithResponse() {
+        // Given
+        when(responseRepository.findById(100L)).thenReturn(Optional.of(response));
+
+        // When
+        responseService.deleteResponse(100L, responseAuthor);
+
+        // Then
+        verify(attachmentRepository).deleteByRespostaId(100L);
+        verify(responseRepository).delete(response);
+        verify(eventPublisher).publishEvent(TopicsChanged.content(10L));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.forum.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncChangeSequencerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionStatus transaction;
+
+    @InjectMocks
+    private SyncChangeSequencer sequencer;
+
+    @Test
+    void shouldStampPendingRowsWithNextSequenceValue() {
+        // Given: the transaction wrote two topics and a tombstone
+        when(jdbcTemplate.queryForList("SELECT id FROM topics WHERE change_seq = 0", Long.class))
+                .thenReturn(List.of(1L, 2L));
+        when(jdbcTemplate.queryForList("SELECT id FROM responses WHERE change_seq = 0", Long.class))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForList("SELECT id FROM sync_tombstones WHERE change_seq = 0", Long.class))
+                .thenReturn(List.of(9L));
+        when(jdbcTemplate.update("UPDATE sync_sequence SET current_seq = current_seq + 1 WHERE id = 1"))
+                .thenReturn(1);
+        when(jdbcTemplate.queryForObject("SELECT current_seq FROM sync_sequence WHERE id = 1", Long.class))
+                .thenReturn(42L);
+
+        // When
+        sequencer.beforeCommit(transaction);
+
+        // Then
+        InOrder inOrder = inOrder(transaction, jdbcTemplate);
+        inOrder.verify(transaction).flush();
+        inOrder.verify(jdbcTemplate).update("UPDATE sync_sequence SET current_seq = current_seq + 1 WHERE id = 1");
+        inOrder.verify(jdbcTemplate).update("UPDATE topics SET change_seq = ? WHERE id IN (1,2) AND change_seq = 0", 42L);
+        inOrder.verify(jdbcTemplate).update("UPDATE sync_tombstones SET change_seq = ? WHERE id IN (9) AND change_seq = 0", 42L);
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE responses"), any(Object[].class));
+    }
+
+    @Test
+    void shouldNotTakeSequenceWithoutPendingRows() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of());
+
+        // When
+        sequencer.beforeCommit(transaction);
+
+        // Then
+        verify(jdbcTemplate, times(SyncChangeSequencer.TABLES.size())).queryForList(anyString(), eq(Long.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldSkipReadOnlyTransactions() {
+        // Given
+        when(transaction.isReadOnly()).thenReturn(true);
+
+        // When
+        sequencer.beforeCommit(transaction);
+
+        // Then
+        verify(transaction, never()).flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.*;
+import com.example.forum.dto.SyncResponse;
+import com.example.forum.exception.SyncTokenExpiredException;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.SyncTombstoneRepository;
+import com.example.forum.repository.TopicRepository;
+import com.example.forum.service.SyncToken.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 12, 0, 0, 123_456_000);
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private ResponseRepository responseRepository;
+
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SchedulerLeaseService leaseService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private SyncService syncService;
+
+    private User author;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(syncService, "tombstoneRetention", Duration.ofDays(30));
+        author = new User("João Silva", "joao@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        ReflectionTestUtils.setField(author, "id", 7L);
+        course = new Course("Spring Boot", "Backend");
+        ReflectionTestUtils.setField(course, "id", 3L);
+    }
+
+    @Test
+    void shouldStopAtPageLimitAndResumeFromLastRow() {
+        // Given: three changed topics for a page of two, nothing else
+        when(jdbcTemplate.queryForObject(anyString(), eq(Timestamp.class))).thenReturn(Timestamp.valueOf(NOW));
+        when(syncTombstoneRepository.findLastChangeSeq()).thenReturn(30L);
+        when(topicRepository.findChangedAfter(0L, 0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(topic(1L, 12L), topic(2L, 12L), topic(3L, 13L)));
+        when(responseRepository.findChangedAfter(0L, 0L, PageRequest.of(0, 3))).thenReturn(List.of());
+        when(syncTombstoneRepository.findRemovedAfter(30L, Long.MAX_VALUE, PageRequest.of(0, 3)))
+                .thenReturn(List.of());
+
+        // When
+        SyncResponse response = syncService.sync(null, 2);
+
+        // Then
+        assertTrue(response.maisResultados());
+        assertEquals(List.of(1L, 2L), response.topicos().stream().map(SyncResponse.Topico::id).toList());
+        assertEquals(7L, response.topicos().get(0).autorId());
+        assertEquals(3L, response.topicos().get(0).cursoId());
+        SyncToken next = SyncToken.decode(response.proximo());
+        assertEquals(new Position(12L, 2L), next.topics());
+        assertEquals(Position.START, next.responses());
+        assertEquals(new Position(30L, Long.MAX_VALUE), next.removals());
+        assertEquals(NOW, next.removalsSyncedAt());
+    }
+
+    @Test
+    void shouldReportRemovalsSinceToken() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Timestamp.class))).thenReturn(Timestamp.valueOf(NOW));
+        Position synced = new Position(40L, 8L);
+        String since = new SyncToken(synced, synced, synced, NOW.minusHours(1)).encode();
+        SyncTombstone removal = SyncTombstone.response(40L, 4L);
+        ReflectionTestUtils.setField(removal, "id", 9L);
+        ReflectionTestUtils.setField(removal, "changeSeq", 41L);
+        ReflectionTestUtils.setField(removal, "removidoEm", NOW.minusMinutes(30));
+        when(topicRepository.findChangedAfter(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(responseRepository.findChangedAfter(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(syncTombstoneRepository.findRemovedAfter(40L, 8L, PageRequest.of(0, 201))).thenReturn(List.of(removal));
+
+        // When
+        SyncResponse response = syncService.sync(since, 200);
+
+        // Then
+        assertFalse(response.maisResultados());
+        assertEquals(List.of(new SyncResponse.Remocao(SyncEntityType.RESPONSE, 40L, 4L, NOW.minusMinutes(30))),
+                response.remocoes());
+        SyncToken next = SyncToken.decode(response.proximo());
+        assertEquals(synced, next.topics());
+        assertEquals(new Position(41L, 9L), next.removals());
+        assertEquals(NOW, next.removalsSyncedAt());
+    }
+
+    @Test
+    void shouldKeepRemovalSyncTimeWhileRemovalsAreTruncated() {
+        // Given: more removals than fit the page
+        when(jdbcTemplate.queryForObject(anyString(), eq(Timestamp.class))).thenReturn(Timestamp.valueOf(NOW));
+        LocalDateTime lastDrained = NOW.minusDays(20);
+        String since = new SyncToken(Position.START, Position.START, Position.START, lastDrained).encode();
+        when(topicRepository.findChangedAfter(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(responseRepository.findChangedAfter(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(syncTombstoneRepository.findRemovedAfter(0L, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(removal(1L, 5L), removal(2L, 6L)));
+
+        // When
+        SyncResponse response = syncService.sync(since, 1);
+
+        // Then
+        assertTrue(response.maisResultados());
+        SyncToken next = SyncToken.decode(response.proximo());
+        assertEquals(new Position(5L, 1L), next.removals());
+        assertEquals(lastDrained, next.removalsSyncedAt());
+    }
+
+    @Test
+    void shouldRejectInvalidAndExpiredTokens() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Timestamp.class))).thenReturn(Timestamp.valueOf(NOW));
+        Position position = new Position(5L, 5L);
+        String expired = new SyncToken(position, position, position, NOW.minusDays(31)).encode();
+
+        // When / Then
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+                () -> syncService.sync("bm90LWEtdG9rZW4", 200));
+        assertEquals("Token de sincronização inválido", invalid.getMessage());
+        assertThrows(SyncTokenExpiredException.class, () -> syncService.sync(expired, 200));
+        verifyNoInteractions(topicRepository, responseRepository, syncTombstoneRepository);
+    }
+
+    @Test
+    void shouldRejectTokensIssuedBeforeReplacingRestore() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Timestamp.class))).thenReturn(Timestamp.valueOf(NOW));
+        when(jdbcTemplate.queryForList("SELECT reset_at FROM sync_sequence WHERE id = 1", Timestamp.class))
+                .thenReturn(List.of(Timestamp.valueOf(NOW.minusHours(1))));
+        Position position = new Position(5L, 5L);
+        String beforeRestore = new SyncToken(position, position, position, NOW.minusHours(2)).encode();
+
+        // When / Then
+        assertThrows(SyncTokenExpiredException.class, () -> syncService.sync(beforeRestore, 200));
+        verifyNoInteractions(topicRepository, responseRepository, syncTombstoneRepository);
+    }
+
+    @Test
+    void shouldRoundTripTokenPositions() {
+        // Given
+        SyncToken token = new SyncToken(new Position(1_234_567L, 12L), Position.START,
+                new Position(99L, Long.MAX_VALUE), LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1_000));
+
+        // When
+        SyncToken decoded = SyncToken.decode(token.encode());
+
+        // Then
+        assertEquals(token, decoded);
+    }
+
+    private Topic topic(Long id, long changeSeq) {
+        Topic topic = new Topic("Título " + id, "Mensagem", author, course);
+        ReflectionTestUtils.setField(topic, "id", id);
+        ReflectionTestUtils.setField(topic, "changeSeq", changeSeq);
+        return topic;
+    }
+
+    private SyncTombstone removal(Long id, long changeSeq) {
+        SyncTombstone removal = SyncTombstone.topic(100L + id);
+        ReflectionTestUtils.setField(removal, "id", id);
+        ReflectionTestUtils.setField(removal, "changeSeq", changeSeq);
+        return removal;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.forum.service;
+
+import com.example.forum.archive.ArchivedTopic;
+import com.example.forum.archive.TopicArchive;
+import com.example.forum.domain.*;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.TopicRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopicArchiveServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 1, 1, 10, 0);
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private ResponseRepository responseRepository;
+
+    @Mock
+    private TopicArchive topicArchive;
+
+    @Mock
+    private SchedulerLeaseService leaseService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TopicArchiveService topicArchiveService;
+
+    private User author;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        topicArchiveService = new TopicArchiveService(topicRepository, responseRepository, topicArchive,
+                leaseService, transactionTemplate, meterRegistry, eventPublisher, attachmentRepository);
+        ReflectionTestUtils.setField(topicArchiveService, "minAge", Duration.ofDays(365));
+        ReflectionTestUtils.setField(topicArchiveService, "batchSize", 2);
+        ReflectionTestUtils.setField(topicArchiveService, "lease", Duration.ofMinutes(30));
+
+        author = new User("Maria Silva", "maria@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        ReflectionTestUtils.setField(author, "id", 1L);
+        course = new Course("Spring Boot", "Backend");
+        ReflectionTestUtils.setField(course, "id", 3L);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldWriteSegmentBeforeDeletingFromDatabase() {
+        // Given
+        Topic first = closedTopic(10L);
+        Topic second = closedTopic(11L);
+        Response response = response(100L, first);
+
+        when(leaseService.tryAcquire(eq(TopicArchiveService.LEASE_NAME), any())).thenReturn(true);
+        when(topicRepository.findClosedCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(first, second), List.of());
+        when(responseRepository.findByTopicIdsWithAutor(eq(List.of(10L, 11L)), any())).thenReturn(List.of(response));
+        when(topicRepository.lockModerationStates(any()))
+                .thenReturn(List.of(state(10L, TopicStatus.CLOSED, 0L), state(11L, TopicStatus.CLOSED, 0L)));
+        when(responseRepository.lockVersionsByTopicIds(any())).thenReturn(List.of(version(100L, 10L, 0L)));
+
+        // When
+        TopicArchiveService.RunResult result = topicArchiveService.run();
+
+        // Then
+        assertEquals("completed", result.outcome());
+        assertEquals(2, result.archived());
+        assertEquals(0, result.skipped());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ArchivedTopic>> written = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(topicArchive, responseRepository, topicRepository);
+        inOrder.verify(topicArchive).write(written.capture());
+        inOrder.verify(responseRepository).bulkDeleteByTopicIds(argThat(ids -> Set.copyOf(ids).equals(Set.of(10L, 11L))));
+        inOrder.verify(topicRepository).bulkDeleteByIds(argThat(ids -> Set.copyOf(ids).equals(Set.of(10L, 11L))));
+
+        assertEquals(1, written.getValue().get(0).respostas().size());
+        assertEquals("Maria Silva", written.getValue().get(0).autorNome());
+        assertTrue(written.getValue().get(1).respostas().isEmpty());
+        verify(leaseService).release(TopicArchiveService.LEASE_NAME);
+        verify(eventPublisher).publishEvent(argThat((TopicsChanged event) ->
+                event.listingChanged() && event.topicIds().equals(Set.of(10L, 11L))));
+        assertEquals(2.0, meterRegistry.counter("forum.topics.archived").count());
+    }
+
+    @Test
+    void shouldKeepTopicsReopenedOrAnsweredWhileArchiving() {
+        // Given
+        when(leaseService.tryAcquire(eq(TopicArchiveService.LEASE_NAME), any())).thenReturn(true);
+        when(topicRepository.findClosedCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(closedTopic(10L), closedTopic(11L)), List.of());
+        when(topicRepository.lockModerationStates(any()))
+                .thenReturn(List.of(state(10L, TopicStatus.OPEN, 1L), state(11L, TopicStatus.CLOSED, 0L)));
+        // A response arrived on topic 11 after it was read
+        when(responseRepository.lockVersionsByTopicIds(List.of(11L))).thenReturn(List.of(version(100L, 11L, 0L)));
+
+        // When
+        TopicArchiveService.RunResult result = topicArchiveService.run();
+
+        // Then
+        assertEquals(0, result.archived());
+        assertEquals(2, result.skipped());
+        verify(topicArchive).write(any());
+        verify(responseRepository, never()).bulkDeleteByTopicIds(any());
+        verify(topicRepository, never()).bulkDeleteByIds(any());
+    }
+
+    @Test
+    void shouldKeepClosedTopicsEditedWhileArchiving() {
+        // Given
+        Topic edited = closedTopic(10L);
+        Topic answerEdited = closedTopic(11L);
+        Response response = response(100L, answerEdited);
+
+        when(leaseService.tryAcquire(eq(TopicArchiveService.LEASE_NAME), any())).thenReturn(true);
+        when(topicRepository.findClosedCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(edited, answerEdited), List.of());
+        when(responseRepository.findByTopicIdsWithAutor(any(), any())).thenReturn(List.of(response));
+        // Topic 10 was edited while closed; a response of topic 11 was edited
+        when(topicRepository.lockModerationStates(any()))
+                .thenReturn(List.of(state(10L, TopicStatus.CLOSED, 1L), state(11L, TopicStatus.CLOSED, 0L)));
+        when(responseRepository.lockVersionsByTopicIds(List.of(11L))).thenReturn(List.of(version(100L, 11L, 1L)));
+
+        // When
+        TopicArchiveService.RunResult result = topicArchiveService.run();
+
+        // Then
+        assertEquals(0, result.archived());
+        assertEquals(2, result.skipped());
+        verify(topicRepository, never()).bulkDeleteByIds(any());
+    }
+
+    @Test
+    void shouldKeepTopicsThatReceivedAttachmentsWhileArchiving() {
+        // Given
+        when(leaseService.tryAcquire(eq(TopicArchiveService.LEASE_NAME), any())).thenReturn(true);
+        when(topicRepository.findClosedCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(closedTopic(10L), closedTopic(11L)), List.of());
+        when(topicRepository.lockModerationStates(any()))
+                .thenReturn(List.of(state(10L, TopicStatus.CLOSED, 0L), state(11L, TopicStatus.CLOSED, 0L)));
+        when(attachmentRepository.findTopicIdsWithAttachments(any())).thenReturn(List.of(10L));
+
+        // When
+        TopicArchiveService.RunResult result = topicArchiveService.run();
+
+        // Then
+        assertEquals(1, result.archived());
+        assertEquals(1, result.skipped());
+        verify(topicRepository).bulkDeleteByIds(List.of(11L));
+        verify(attachmentRepository, never()).deleteByTopicoIds(any());
+    }
+
+    @Test
+    void shouldRefuseToStartEnabledWithoutAbsoluteDirectory() {
+        // Given
+        ReflectionTestUtils.setField(topicArchiveService, "enabled", true);
+
+        // When & Then
+        ReflectionTestUtils.setField(topicArchiveService, "directory", "");
+        assertThrows(IllegalStateException.class, () -> topicArchiveService.checkDirectory());
+        ReflectionTestUtils.setField(topicArchiveService, "directory", "data/archive");
+        assertThrows(IllegalStateException.class, () -> topicArchiveService.checkDirectory());
+        ReflectionTestUtils.setField(topicArchiveService, "directory", "/mnt/forum-archive");
+        assertDoesNotThrow(() -> topicArchiveService.checkDirectory());
+    }
+
+    @Test
+    void shouldNotDeleteAnythingWhenSegmentWriteFails() {
+        // Given
+        when(leaseService.tryAcquire(eq(TopicArchiveService.LEASE_NAME), any())).thenReturn(true);
+        when(topicRepository.findClosedCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(closedTopic(10L)));
+        doThrow(new IllegalStateException("disk full")).when(topicArchive).write(any());
+
+        // When
+        TopicArchiveService.RunResult result = topicArchiveService.run();
+
+        // Then
+        assertEquals("failed", result.outcome());
+        verify(topicRepository, never()).lockModerationStates(any());
+        verify(topicRepository, never()).bulkDeleteByIds(any());
+        verify(leaseService).release(TopicArchiveService.LEASE_NAME);
+    }
+
+    private Topic closedTopic(Long id) {
+        Topic topic = new Topic("Título " + id, "Mensagem " + id, author, course);
+        ReflectionTestUtils.setField(topic, "id", id);
+        ReflectionTestUtils.setField(topic, "dataCriacao", CREATED.plusMinutes(id));
+        ReflectionTestUtils.setField(topic, "version", 0L);
+        topic.close();
+        return topic;
+    }
+
+    private Response response(Long id, Topic topic) {
+        Response response = new Response("Resposta", topic, author);
+        ReflectionTestUtils.setField(response, "id", id);
+        ReflectionTestUtils.setField(response, "version", 0L);
+        return response;
+    }
+
+    private TopicRepository.ModerationState state(Long id, TopicStatus status, Long version) {
+        return new TopicRepository.ModerationState() {
+            public Long getId() {
+                return id;
+            }
+
+            public TopicStatus getStatus() {
+                return status;
+            }
+
+            public Long getCursoId() {
+                return 3L;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private ResponseRepository.ResponseVersion version(Long id, Long topicId, Long version) {
+        return new ResponseRepository.ResponseVersion() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getTopicId() {
+                return topicId;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
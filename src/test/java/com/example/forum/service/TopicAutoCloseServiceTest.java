@@ -0,0 +1,130 @@
+package com.example.forum.service;
+
+import com.example.forum.repository.TopicRepository;
+import com.example.forum.repository.TopicRepository.TopicKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopicAutoCloseServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private SchedulerLeaseService leaseService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TopicAutoCloseService topicAutoCloseService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        topicAutoCloseService = new TopicAutoCloseService(topicRepository, leaseService, transactionTemplate, meterRegistry,
+                eventPublisher);
+        ReflectionTestUtils.setField(topicAutoCloseService, "inactiveDays", 30);
+        ReflectionTestUtils.setField(topicAutoCloseService, "batchSize", 2);
+        ReflectionTestUtils.setField(topicAutoCloseService, "maxRowsPerSecond", 0);
+        ReflectionTestUtils.setField(topicAutoCloseService, "lease", Duration.ofMinutes(10));
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldCloseStaleTopicsInKeysetBatches() {
+        // Given
+        when(leaseService.tryAcquire(eq(TopicAutoCloseService.LEASE_NAME), any())).thenReturn(true);
+        when(topicRepository.findOpenCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(key(1L, CREATED), key(2L, CREATED)), List.of(key(3L, CREATED.plusHours(1))), List.of());
+        when(topicRepository.closeInactive(eq(List.of(1L, 2L)), any())).thenReturn(2);
+        when(topicRepository.closeInactive(eq(List.of(3L)), any())).thenReturn(0);
+
+        // When
+        TopicAutoCloseService.RunResult result = topicAutoCloseService.run();
+
+        // Then
+        assertEquals("completed", result.outcome());
+        assertEquals(2, result.batches());
+        assertEquals(3, result.scanned());
+        assertEquals(2, result.closed());
+        // The second page continues after the last key of the first
+        verify(topicRepository).findOpenCreatedBefore(any(), eq(CREATED), eq(2L), any(Pageable.class));
+        verify(leaseService).release(TopicAutoCloseService.LEASE_NAME);
+        verify(eventPublisher).publishEvent(TopicsChanged.listing(List.of(1L, 2L)));
+        verify(eventPublisher, never()).publishEvent(TopicsChanged.listing(List.of(3L)));
+        assertEquals(2.0, meterRegistry.counter("forum.topics.auto_close.closed").count());
+        assertEquals(1, meterRegistry.timer("forum.topics.auto_close.run", "outcome", "completed").count());
+    }
+
+    @Test
+    void shouldSkipRunWhenLeaseIsHeldElsewhere() {
+        // Given
+        when(leaseService.tryAcquire(eq(TopicAutoCloseService.LEASE_NAME), any())).thenReturn(false);
+
+        // When
+        TopicAutoCloseService.RunResult result = topicAutoCloseService.run();
+
+        // Then
+        assertEquals("skipped", result.outcome());
+        verifyNoInteractions(topicRepository);
+        verify(leaseService, never()).release(anyString());
+    }
+
+    @Test
+    void shouldStopWhenLeaseIsLostMidRun() {
+        // Given
+        when(leaseService.tryAcquire(eq(TopicAutoCloseService.LEASE_NAME), any())).thenReturn(true, false);
+        when(topicRepository.findOpenCreatedBefore(any(), any(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(key(1L, CREATED), key(2L, CREATED)));
+        when(topicRepository.closeInactive(anyCollection(), any())).thenReturn(2);
+
+        // When
+        TopicAutoCloseService.RunResult result = topicAutoCloseService.run();
+
+        // Then
+        assertEquals("lease_lost", result.outcome());
+        assertEquals(1, result.batches());
+        verify(topicRepository, times(1)).findOpenCreatedBefore(any(), any(), anyLong(), any(Pageable.class));
+    }
+
+    private TopicKey key(Long id, LocalDateTime dataCriacao) {
+        return new TopicKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getDataCriacao() {
+                return dataCriacao;
+            }
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.*;
+import com.example.forum.dto.BulkModerationRequest;
+import com.example.forum.dto.BulkModerationRequest.Action;
+import com.example.forum.dto.BulkModerationResponse;
+import com.example.forum.dto.BulkModerationResponse.Outcome;
+import com.example.forum.exception.UnauthorizedOperationException;
+import com.example.forum.repository.CourseRepository;
+import com.example.forum.repository.TopicRepository;
+import com.example.forum.repository.TopicRepository.ModerationState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopicModerationServiceTest {
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TopicPurgeService topicPurgeService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TopicModerationService topicModerationService;
+
+    private User moderator;
+
+    @BeforeEach
+    void setUp() {
+        moderator = new User("Moderador", "moderador@email.com", "senha123", Set.of(new Profile("MODERADOR")));
+    }
+
+    @Test
+    void shouldCloseOpenTopicsWithOneStatementAndReportEachId() {
+        // Given
+        when(userService.isUserModerator(moderator)).thenReturn(true);
+        when(topicRepository.lockModerationStates(Set.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                state(1L, TopicStatus.OPEN, 1L),
+                state(2L, TopicStatus.CLOSED, 1L),
+                state(3L, TopicStatus.DELETING, 1L)));
+
+        // When
+        BulkModerationResponse response = topicModerationService.apply(
+                new BulkModerationRequest(Action.CLOSE, List.of(1L, 2L, 3L, 4L, 1L), null), moderator);
+
+        // Then
+        verify(topicRepository).bulkUpdateStatus(List.of(1L), TopicStatus.OPEN, TopicStatus.CLOSED);
+        assertEquals(List.of(
+                new BulkModerationResponse.Result(1L, Outcome.UPDATED),
+                new BulkModerationResponse.Result(2L, Outcome.UNCHANGED),
+                new BulkModerationResponse.Result(3L, Outcome.NOT_FOUND),
+                new BulkModerationResponse.Result(4L, Outcome.NOT_FOUND)), response.resultados());
+        assertEquals(2L, response.totais().get(Outcome.NOT_FOUND));
+        verify(userService, times(1)).isUserModerator(moderator);
+    }
+
+    @Test
+    void shouldMoveOnlyTopicsOutsideDestinationCourse() {
+        // Given
+        Course destination = new Course("React", "Frontend");
+        when(userService.isUserModerator(moderator)).thenReturn(true);
+        when(courseRepository.findById(5L)).thenReturn(Optional.of(destination));
+        when(topicRepository.lockModerationStates(Set.of(1L, 2L))).thenReturn(List.of(
+                state(1L, TopicStatus.OPEN, 5L),
+                state(2L, TopicStatus.OPEN, 1L)));
+
+        // When
+        BulkModerationResponse response = topicModerationService.apply(
+                new BulkModerationRequest(Action.MOVE, List.of(1L, 2L), 5L), moderator);
+
+        // Then
+        verify(topicRepository).bulkMove(List.of(2L), destination);
+        assertEquals(1L, response.totais().get(Outcome.UPDATED));
+        assertEquals(1L, response.totais().get(Outcome.UNCHANGED));
+    }
+
+    @Test
+    void shouldDelegateDeletionAndReportDeferredPurges() {
+        // Given
+        when(userService.isUserModerator(moderator)).thenReturn(true);
+        when(topicRepository.lockModerationStates(Set.of(1L, 2L))).thenReturn(List.of(
+                state(1L, TopicStatus.OPEN, 1L),
+                state(2L, TopicStatus.CLOSED, 1L)));
+        when(topicPurgeService.deleteAll(Set.of(1L, 2L))).thenReturn(Set.of(2L));
+
+        // When
+        BulkModerationResponse response = topicModerationService.apply(
+                new BulkModerationRequest(Action.DELETE, List.of(1L, 2L), null), moderator);
+
+        // Then
+        assertEquals(List.of(
+                new BulkModerationResponse.Result(1L, Outcome.DELETED),
+                new BulkModerationResponse.Result(2L, Outcome.DELETION_QUEUED)), response.resultados());
+    }
+
+    @Test
+    void shouldRejectNonModerators() {
+        // Given
+        when(userService.isUserModerator(moderator)).thenReturn(false);
+
+        // When & Then
+        assertThrows(UnauthorizedOperationException.class, () -> topicModerationService.apply(
+                new BulkModerationRequest(Action.CLOSE, List.of(1L), null), moderator));
+        verifyNoInteractions(topicRepository);
+    }
+
+    private ModerationState state(Long id, TopicStatus status, Long cursoId) {
+        return new ModerationState() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public TopicStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getCursoId() {
+                return cursoId;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+        };
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.*;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.SyncTombstoneRepository;
+import com.example.forum.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopicPurgeServiceTest {
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private ResponseRepository responseRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Mock
+    private SchedulerLeaseService leaseService;
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+
+    @InjectMocks
+    private TopicPurgeService topicPurgeService;
+
+    private Topic topic;
+
+    @BeforeEach
+    void setUp() {
+        User author = new User("João Silva", "joao@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        topic = new Topic("Título", "Mensagem", author, new Course("Spring Boot", "Backend"));
+        ReflectionTestUtils.setField(topic, "id", 1L);
+        ReflectionTestUtils.setField(topicPurgeService, "asyncThreshold", 100L);
+        ReflectionTestUtils.setField(topicPurgeService, "chunkSize", 50);
+        ReflectionTestUtils.setField(topicPurgeService, "staleAfter", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(topicPurgeService, "lease", Duration.ofMinutes(30));
+    }
+
+    @Test
+    void shouldDeleteSmallThreadWithSetBasedStatements() {
+        // Given
+        when(responseRepository.countByTopico(topic)).thenReturn(100L);
+
+        // When
+        topicPurgeService.delete(topic);
+
+        // Then
+        verify(attachmentRepository).deleteByTopicoIds(List.of(1L));
+        verify(responseRepository).bulkDeleteByTopicId(1L);
+        verify(topicRepository).bulkDeleteById(1L);
+        verify(topicRepository, never()).markDeleting(anyLong());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(syncTombstoneRepository).save(argThat(tombstone ->
+                tombstone.getTipo() == SyncEntityType.TOPIC && tombstone.getEntidadeId().equals(1L)));
+    }
+
+    @Test
+    void shouldTombstoneLargeThreadAndRequestPurge() {
+        // Given
+        when(responseRepository.countByTopico(topic)).thenReturn(101L);
+
+        // When
+        topicPurgeService.delete(topic);
+
+        // Then
+        verify(topicRepository).markDeleting(1L);
+        verify(eventPublisher).publishEvent(new TopicPurgeService.PurgeRequested(1L));
+        verify(responseRepository, never()).bulkDeleteByTopicId(anyLong());
+        verify(topicRepository, never()).bulkDeleteById(anyLong());
+    }
+
+    @Test
+    void shouldPurgeInChunksBeforeDeletingTombstone() {
+        // Given
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<java.util.function.Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(responseRepository.deleteChunkByTopicId(1L, 50)).thenReturn(50, 50, 7, 0);
+
+        // When
+        topicPurgeService.purge(1L);
+
+        // Then
+        verify(responseRepository, times(4)).deleteChunkByTopicId(1L, 50);
+        verify(topicRepository, times(4)).touchDeleting(1L);
+        verify(topicRepository).deleteTombstoned(1L);
+    }
+
+    @Test
+    void shouldResumeOnlyIdlePurgesUnderLease() {
+        // Given
+        when(leaseService.tryAcquire(eq(TopicPurgeService.LEASE_NAME), any())).thenReturn(true);
+        when(topicRepository.findDeletingIdleFor(1800L)).thenReturn(List.of(1L));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<java.util.function.Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // When
+        topicPurgeService.resumePendingPurges();
+
+        // Then
+        verify(responseRepository).deleteChunkByTopicId(1L, 50);
+        verify(attachmentRepository).deleteByTopicoIds(List.of(1L));
+        verify(topicRepository).deleteTombstoned(1L);
+        verify(leaseService).release(TopicPurgeService.LEASE_NAME);
+    }
+
+    @Test
+    void shouldNotResumePurgesWithoutLease() {
+        // Given
+        when(leaseService.tryAcquire(eq(TopicPurgeService.LEASE_NAME), any())).thenReturn(false);
+
+        // When
+        topicPurgeService.resumePendingPurges();
+
+        // Then
+        verify(topicRepository, never()).findDeletingIdleFor(anyLong());
+        verify(leaseService, never()).release(any());
+    }
+
+    @Test
+    void shouldDeleteBatchSetBasedAndDeferOnlyLargeThreads() {
+        // Given
+        ResponseRepository.TopicResponseCount large = mock(ResponseRepository.TopicResponseCount.class);
+        when(large.getTopicId()).thenReturn(2L);
+        when(large.getTotal()).thenReturn(101L);
+        ResponseRepository.TopicResponseCount small = mock(ResponseRepository.TopicResponseCount.class);
+        when(small.getTopicId()).thenReturn(1L);
+        when(small.getTotal()).thenReturn(3L);
+        when(responseRepository.countByTopicIds(List.of(1L, 2L, 3L))).thenReturn(List.of(small, large));
+
+        // When
+        Set<Long> deferred = topicPurgeService.deleteAll(List.of(1L, 2L, 3L));
+
+        // Then
+        assertEquals(Set.of(2L), deferred);
+        verify(attachmentRepository).deleteByTopicoIds(List.of(1L, 3L));
+        verify(responseRepository).bulkDeleteByTopicIds(List.of(1L, 3L));
+        verify(topicRepository).bulkDeleteByIds(List.of(1L, 3L));
+        verify(topicRepository).markDeleting(2L);
+        verify(eventPublisher).publishEvent(new TopicPurgeService.PurgeRequested(2L));
+    }
+
+    @Test
+    void shouldDeferThreadsOnceRequestExceedsThresholdInTotal() {
+        // Given
+        List<ResponseRepository.TopicResponseCount> counts = List.of(
+                responseCount(1L, 60L), responseCount(2L, 30L), responseCount(3L, 50L));
+        when(responseRepository.countByTopicIds(List.of(1L, 2L, 3L, 4L))).thenReturn(counts);
+
+        // When
+        Set<Long> deferred = topicPurgeService.deleteAll(List.of(1L, 2L, 3L, 4L));
+
+        // Then: 30 + 50 responses fit within the threshold of 100, the thread of 60 does not
+        assertEquals(Set.of(1L), deferred);
+        verify(responseRepository).bulkDeleteByTopicIds(List.of(2L, 3L, 4L));
+        verify(topicRepository).bulkDeleteByIds(List.of(2L, 3L, 4L));
+        verify(topicRepository).markDeleting(1L);
+        verify(eventPublisher).publishEvent(new TopicPurgeService.PurgeRequested(1L));
+    }
+
+    private static ResponseRepository.TopicResponseCount responseCount(Long topicId, long total) {
+        ResponseRepository.TopicResponseCount count = mock(ResponseRepository.TopicResponseCount.class);
+        when(count.getTopicId()).thenReturn(topicId);
+        when(count.getTotal()).thenReturn(total);
+        return count;
+    }
+}
@@ -1,28 +1,40 @@
 package com.example.forum.service;
 
+import com.example.forum.archive.ArchivedResponse;
+import com.example.forum.archive.ArchivedTopic;
+import com.example.forum.archive.TopicArchive;
+import com.example.forum.cache.ReadCoalescer;
 import com.example.forum.domain.*;
 import com.example.forum.dto.CreateTopicRequest;
+import com.example.forum.dto.TopicResponse;
 import com.example.forum.dto.UpdateTopicRequest;
 import com.example.forum.exception.CourseNotFoundException;
 import com.example.forum.exception.DuplicateTopicException;
+import com.example.forum.exception.TopicArchivedException;
 import com.example.forum.exception.TopicNotFoundException;
 import com.example.forum.exception.UnauthorizedOperationException;
 import com.example.forum.repository.CourseRepository;
+import com.example.forum.repository.TopicFingerprintRepository;
 import com.example.forum.repository.TopicRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,6 +52,21 @@ class TopicServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TopicPurgeService topicPurgeService;
+
+    @Mock
+    private TopicArchive topicArchive;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReadCoalescer readCoalescer;
+
+    @Mock
+    private TopicFingerprintRepository topicFingerprintRepository;
+
     @InjectMocks
     private TopicService topicService;
 
@@ -50,6 +77,10 @@ class TopicServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(readCoalescer.load(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        lenient().when(topicFingerprintRepository.insertIfAbsent(any(), any())).thenReturn(1);
+
         Profile userProfile = new Profile("USUARIO");
         Profile moderatorProfile = new Profile("MODERADOR");
         
@@ -67,10 +98,12 @@ class TopicServiceTest {
         when(topicRepository.findAllByOrderByDataCriacaoDesc(pageable)).thenReturn(expectedPage);
 
         // When
-        Page<Topic> result = topicService.findAll(pageable);
+        Page<TopicResponse> result = topicService.findAll(pageable);
 
         // Then
-        assertEquals(expectedPage, result);
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Título", result.getContent().get(0).titulo());
+        assertEquals("João Silva", result.getContent().get(0).autorNome());
         verify(topicRepository).findAllByOrderByDataCriacaoDesc(pageable);
     }
 
@@ -83,34 +116,65 @@ class TopicServiceTest {
                 .thenReturn(expectedPage);
 
         // When
-        Page<Topic> result = topicService.findByStatus(TopicStatus.OPEN, pageable);
+        Page<TopicResponse> result = topicService.findByStatus(TopicStatus.OPEN, pageable);
 
         // Then
-        assertEquals(expectedPage, result);
+        assertEquals(List.of(new TopicResponse(topic)), result.getContent());
         verify(topicRepository).findByStatusOrderByDataCriacaoDesc(TopicStatus.OPEN, pageable);
     }
 
     @Test
     void shouldFindTopicById() {
         // Given
-        when(topicRepository.findById(1L)).thenReturn(Optional.of(topic));
+        when(topicRepository.findWithAutorAndCursoById(1L)).thenReturn(Optional.of(topic));
 
         // When
-        Topic result = topicService.findById(1L);
+        TopicResponse result = topicService.findById(1L);
 
         // Then
-        assertEquals(topic, result);
-        verify(topicRepository).findById(1L);
+        assertEquals(new TopicResponse(topic), result);
+        assertEquals("Spring Boot", result.cursoNome());
+        verify(topicRepository).findWithAutorAndCursoById(1L);
     }
 
     @Test
     void shouldThrowExceptionWhenTopicNotFound() {
         // Given
-        when(topicRepository.findById(1L)).thenReturn(Optional.empty());
+        when(topicRepository.findWithAutorAndCursoById(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(TopicNotFoundException.class, () -> topicService.findById(1L));
-        verify(topicRepository).findById(1L);
+        verify(topicRepository).findWithAutorAndCursoById(1L);
+        verify(topicArchive).find(1L);
+    }
+
+    @Test
+    void shouldFallBackToArchiveWhenTopicNotInDatabase() {
+        // Given
+        ArchivedTopic archived = new ArchivedTopic(1L, "Título", "Mensagem", LocalDateTime.of(2023, 1, 1, 10, 0),
+                TopicStatus.CLOSED, 100L, 7L, "João Silva", 3L, "Spring Boot",
+                List.of(new ArchivedResponse(100L, "Resposta", LocalDateTime.of(2023, 1, 2, 10, 0), true, 8L, "Maria")));
+        when(topicRepository.findWithAutorAndCursoById(1L)).thenReturn(Optional.empty());
+        when(topicArchive.find(1L)).thenReturn(Optional.of(archived));
+
+        // When
+        TopicResponse result = topicService.findById(1L);
+
+        // Then
+        assertEquals(1L, result.id());
+        assertEquals("João Silva", result.autorNome());
+        assertEquals(1, result.respostas().size());
+    }
+
+    @Test
+    void shouldRejectChangesToArchivedTopic() {
+        // Given
+        when(topicRepository.findById(1L)).thenReturn(Optional.empty());
+        when(topicArchive.contains(1L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(TopicArchivedException.class, () -> topicService.openTopic(1L, moderator));
+        verify(topicRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -123,10 +187,10 @@ class TopicServiceTest {
         when(topicRepository.save(any(Topic.class))).thenReturn(topic);
 
         // When
-        Topic result = topicService.createTopic(request, author);
+        TopicResponse result = topicService.createTopic(request, author);
 
         // Then
-        assertEquals(topic, result);
+        assertEquals(new TopicResponse(topic), result);
         verify(topicRepository).existsByTituloAndMensagem(request.titulo(), request.mensagem());
         verify(courseRepository).findById(1L);
         verify(topicRepository).save(any(Topic.class));
@@ -147,6 +211,59 @@ class TopicServiceTest {
         verify(topicRepository, never()).save(any());
     }
 
+    @Test
+    void shouldRejectTopicWhoseFingerprintIsHeldByLiveTopic() {
+        // Given: a concurrent create of the same topic committed after the check before insert
+        CreateTopicRequest request = new CreateTopicRequest("Título", "Mensagem", 1L);
+        String hash = TopicFingerprint.hash("Título", "Mensagem");
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        ReflectionTestUtils.setField(topic, "id", 2L);
+        when(topicRepository.save(any(Topic.class))).thenReturn(topic);
+        when(topicFingerprintRepository.insertIfAbsent(hash, 2L)).thenReturn(0);
+        when(topicFingerprintRepository.findLockedByHash(hash)).thenReturn(Optional.of(fingerprint(hash, 1L)));
+        when(topicRepository.findForShareById(1L)).thenReturn(Optional.of(new Topic("Título", "Mensagem", author, course)));
+
+        // When & Then
+        assertThrows(DuplicateTopicException.class, () -> topicService.createTopic(request, author));
+        verify(topicFingerprintRepository, never()).reassign(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldTakeOverFingerprintOfRemovedTopic() {
+        // Given: the topic that held the fingerprint was deleted or archived
+        CreateTopicRequest request = new CreateTopicRequest("Título", "Mensagem", 1L);
+        String hash = TopicFingerprint.hash("Título", "Mensagem");
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        ReflectionTestUtils.setField(topic, "id", 2L);
+        when(topicRepository.save(any(Topic.class))).thenReturn(topic);
+        when(topicFingerprintRepository.insertIfAbsent(hash, 2L)).thenReturn(0);
+        when(topicFingerprintRepository.findLockedByHash(hash)).thenReturn(Optional.of(fingerprint(hash, 1L)));
+        when(topicRepository.findForShareById(1L)).thenReturn(Optional.empty());
+
+        // When
+        topicService.createTopic(request, author);
+
+        // Then
+        verify(topicFingerprintRepository).reassign(hash, 2L);
+    }
+
+    @Test
+    void shouldMoveFingerprintWhenContentChanges() {
+        // Given
+        UpdateTopicRequest request = new UpdateTopicRequest("Novo Título", "Nova mensagem");
+        when(topicRepository.findById(1L)).thenReturn(Optional.of(topic));
+        when(topicRepository.saveAndFlush(topic)).thenReturn(topic);
+
+        // When
+        topicService.updateTopic(1L, request, author);
+
+        // Then
+        InOrder inOrder = inOrder(topicFingerprintRepository);
+        inOrder.verify(topicFingerprintRepository).insertIfAbsent(TopicFingerprint.hash("Novo Título", "Nova mensagem"), 1L);
+        inOrder.verify(topicFingerprintRepository).release(TopicFingerprint.hash("Título", "Mensagem"), 1L);
+    }
+
     @Test
     void shouldThrowExceptionWhenCourseNotFound() {
         // Given
@@ -169,16 +286,16 @@ class TopicServiceTest {
         when(topicRepository.findById(1L)).thenReturn(Optional.of(topic));
         when(topicRepository.existsByTituloAndMensagem(request.titulo(), request.mensagem()))
                 .thenReturn(false);
-        when(topicRepository.save(topic)).thenReturn(topic);
+        when(topicRepository.saveAndFlush(topic)).thenReturn(topic);
 
         // When
-        Topic result = topicService.updateTopic(1L, request, author);
+        TopicResponse result = topicService.updateTopic(1L, request, author);
 
         // Then
-        assertEquals(topic, result);
+        assertEquals("Novo Título", result.titulo());
         verify(topicRepository).findById(1L);
         verify(topicRepository).existsByTituloAndMensagem(request.titulo(), request.mensagem());
-        verify(topicRepository).save(topic);
+        verify(topicRepository).saveAndFlush(topic);
     }
 
     @Test
@@ -193,7 +310,7 @@ class TopicServiceTest {
         assertThrows(UnauthorizedOperationException.class, 
                 () -> topicService.updateTopic(1L, request, otherUser));
         verify(topicRepository).findById(1L);
-        verify(topicRepository, never()).save(any());
+        verify(topicRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -206,22 +323,23 @@ class TopicServiceTest {
 
         // Then
         verify(topicRepository).findById(1L);
-        verify(topicRepository).delete(topic);
+        verify(topicPurgeService).delete(topic);
+        verify(topicRepository, never()).delete(any());
     }
 
     @Test
     void shouldCloseTopicWhenAuthor() {
         // Given
         when(topicRepository.findById(1L)).thenReturn(Optional.of(topic));
-        when(topicRepository.save(topic)).thenReturn(topic);
+        when(topicRepository.saveAndFlush(topic)).thenReturn(topic);
 
         // When
-        Topic result = topicService.closeTopic(1L, author);
+        TopicResponse result = topicService.closeTopic(1L, author);
 
         // Then
-        assertEquals(TopicStatus.CLOSED, result.getStatus());
+        assertEquals(TopicStatus.CLOSED, result.status());
         verify(topicRepository).findById(1L);
-        verify(topicRepository).save(topic);
+        verify(topicRepository).saveAndFlush(topic);
     }
 
     @Test
@@ -234,6 +352,34 @@ class TopicServiceTest {
         assertThrows(UnauthorizedOperationException.class, 
                 () -> topicService.closeTopic(1L, otherUser));
         verify(topicRepository).findById(1L);
-        verify(topicRepository, never()).save(any());
+        verify(topicRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldRejectLiveFeedsForUnknownIds() {
+        // Given
+        when(topicRepository.findById(99L)).thenReturn(Optional.empty());
+        when(topicArchive.contains(99L)).thenReturn(false);
+        when(courseRepository.existsById(98L)).thenReturn(false);
+
+        // When & Then
+        assertThrows(TopicNotFoundException.class, () -> topicService.requireLiveTopic(99L));
+        assertThrows(CourseNotFoundException.class, () -> topicService.requireCourse(98L));
+    }
+
+    @Test
+    void shouldRejectStatusesOtherThanOpenOrClosed() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> topicService.updateTopicStatus(1L, TopicStatus.DELETING, moderator));
+        verifyNoInteractions(topicRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private TopicFingerprint fingerprint(String hash, Long topicoId) {
+        TopicFingerprint fingerprint = new TopicFingerprint();
+        ReflectionTestUtils.setField(fingerprint, "hash", hash);
+        ReflectionTestUtils.setField(fingerprint, "topicoId", topicoId);
+        return fingerprint;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.Profile;
+import com.example.forum.dto.UserImportResponse;
+import com.example.forum.repository.ProfileRepository;
+import com.example.forum.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProfileRepository profileRepository;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private ValidatorFactory validatorFactory;
+    private ForkJoinPool hashingPool;
+    private JdbcTemplate jdbcTemplate;
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:user-import;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL,
+                    email VARCHAR(100) UNIQUE NOT NULL, senha VARCHAR(255) NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, ativo BOOLEAN NOT NULL DEFAULT TRUE);
+                CREATE TABLE user_profiles (user_id BIGINT NOT NULL, profile_id BIGINT NOT NULL,
+                    PRIMARY KEY (user_id, profile_id));
+                """);
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        hashingPool = new ForkJoinPool(2);
+        userImportService = new UserImportService(userRepository, profileRepository, passwordEncoder,
+                validatorFactory.getValidator(), jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), hashingPool, new ObjectMapper());
+        ReflectionTestUtils.setField(userImportService, "batchSize", 2);
+
+        when(profileRepository.findAll()).thenReturn(List.of(profile(1L, "USUARIO"), profile(2L, "MODERADOR")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        hashingPool.shutdown();
+        validatorFactory.close();
+    }
+
+    @Test
+    void shouldImportCsvInBatchesAndReportRejectedRows() {
+        // Given
+        when(userRepository.findExistingEmails(any())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return emails.stream().filter(email -> email.equalsIgnoreCase("existente@forum.com")).toList();
+        });
+        String csv = """
+                nome,email,senha,perfis
+                Ana,ana@forum.com,senha123,
+                "Silva, Bruno",bruno@forum.com,senha123,USUARIO;moderador
+
+                Carla,carla@forum.com,123,
+                Davi,EXISTENTE@forum.com,senha123,
+                Eva,ANA@forum.com,senha123,
+                Fabio,fabio@forum.com,senha123,ADMIN
+                "Gil,gil@forum.com,senha123,
+                Hugo,hugo@forum.com,senha123,
+                """;
+
+        // When
+        UserImportResponse response = userImportService.importUsers(stream(csv), UserImportService.Format.CSV);
+
+        // Then
+        assertEquals(8, response.total());
+        assertEquals(3, response.importados());
+        assertEquals(5, response.rejeitados());
+        assertEquals(List.of(5, 6, 7, 8, 9), response.erros().stream().map(UserImportResponse.RowError::linha).toList());
+        assertEquals("Senha deve ter pelo menos 6 caracteres", response.erros().get(0).erro());
+        assertEquals("Email EXISTENTE@forum.com já está em uso", response.erros().get(1).erro());
+        assertEquals("Email repetido no arquivo", response.erros().get(2).erro());
+        assertEquals("Perfil ADMIN não existe", response.erros().get(3).erro());
+
+        assertEquals(List.of("Ana", "Silva, Bruno", "Hugo"),
+                jdbcTemplate.queryForList("SELECT nome FROM users ORDER BY id", String.class));
+        String hash = jdbcTemplate.queryForObject("SELECT senha FROM users WHERE email = 'ana@forum.com'", String.class);
+        assertTrue(passwordEncoder.matches("senha123", hash));
+        assertEquals(List.of(2L), jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM user_profiles up JOIN users u ON u.id = up.user_id WHERE u.email = 'bruno@forum.com'",
+                Long.class));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_profiles", Integer.class));
+        verify(profileRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldImportNdjsonAndRecoverFromConcurrentRegistration() {
+        // Given: bia registered between the batch check and the insert
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of());
+        jdbcTemplate.update("INSERT INTO users (nome, email, senha) VALUES ('Bia', 'bia@forum.com', 'x')");
+        String ndjson = """
+                {"nome": "Bia", "email": "bia@forum.com", "senha": "segredo1"}
+                {"nome": "Caio", "email": "caio@forum.com", "senha": "segredo1", "perfis": ["MODERADOR"]}
+                {"nome": "Dora", "email": "dora@forum.com"
+                """;
+
+        // When
+        UserImportResponse response = userImportService.importUsers(stream(ndjson), UserImportService.Format.NDJSON);
+
+        // Then
+        assertEquals(3, response.total());
+        assertEquals(1, response.importados());
+        assertEquals(List.of(1, 3), response.erros().stream().map(UserImportResponse.RowError::linha).toList());
+        assertEquals("Email bia@forum.com já está em uso", response.erros().get(0).erro());
+        assertEquals("JSON inválido na linha", response.erros().get(1).erro());
+        assertEquals(List.of(2L), jdbcTemplate.queryForList(
+                "SELECT up.profile_id FROM user_profiles up JOIN users u ON u.id = up.user_id WHERE u.email = 'caio@forum.com'",
+                Long.class));
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumns() {
+        // When / Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userImportService.importUsers(stream("nome,email\nAna,ana@forum.com\n"), UserImportService.Format.CSV));
+        assertEquals("Coluna obrigatória ausente no cabeçalho CSV: senha", exception.getMessage());
+        verifyNoInteractions(userRepository);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Profile profile(Long id, String nome) {
+        Profile profile = new Profile(nome);
+        ReflectionTestUtils.setField(profile, "id", id);
+        return profile;
+    }
+}
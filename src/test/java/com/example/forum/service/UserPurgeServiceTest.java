@@ -0,0 +1,223 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.*;
+import com.example.forum.repository.AttachmentRepository;
+import com.example.forum.repository.ResponseRepository;
+import com.example.forum.repository.SyncTombstoneRepository;
+import com.example.forum.repository.TopicRepository;
+import com.example.forum.repository.TopicRepository.ModerationState;
+import com.example.forum.repository.UserPurgeJobRepository;
+import com.example.forum.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgeServiceTest {
+
+    @Mock
+    private UserPurgeJobRepository jobRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private ResponseRepository responseRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Mock
+    private SchedulerLeaseService leaseService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+
+    @InjectMocks
+    private UserPurgeService userPurgeService;
+
+    private User user;
+    private UserPurgeJob job;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("João Silva", "joao@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        ReflectionTestUtils.setField(user, "id", 7L);
+        job = new UserPurgeJob(7L);
+        ReflectionTestUtils.setField(job, "id", 1L);
+        ReflectionTestUtils.setField(userPurgeService, "chunkSize", 2);
+        ReflectionTestUtils.setField(userPurgeService, "pauseMillis", 0L);
+        ReflectionTestUtils.setField(userPurgeService, "lease", Duration.ofMinutes(10));
+        lenient().when(leaseService.tryAcquire(eq(UserPurgeService.LEASE_NAME), any())).thenReturn(true);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void shouldDisableUserAndQueuePurge() {
+        // Given
+        when(jobRepository.findFirstByUserIdAndStatusIn(eq(7L), anyCollection())).thenReturn(Optional.empty());
+        when(jobRepository.save(any(UserPurgeJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        UserPurgeJob result = userPurgeService.requestPurge(user);
+
+        // Then
+        assertFalse(user.isEnabled());
+        assertEquals(UserPurgeStatus.PENDING, result.getStatus());
+        assertEquals(7L, result.getUserId());
+        verify(userRepository).save(user);
+        verify(userRepository, never()).delete(any());
+        verify(syncTombstoneRepository).save(argThat(tombstone ->
+                tombstone.getTipo() == SyncEntityType.USER && tombstone.getEntidadeId().equals(7L)));
+    }
+
+    @Test
+    void shouldPurgeContentInChunksAndRecordProgress() {
+        // Given
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(responseRepository.deleteChunkByAutorId(7L, 2)).thenReturn(2, 1, 0);
+        when(topicRepository.findIdsByAutorId(eq(7L), any(Pageable.class)))
+                .thenReturn(List.of(10L, 11L), List.of());
+        when(responseRepository.deleteChunkByTopicIds(List.of(10L, 11L), 2)).thenReturn(2, 0);
+
+        // When
+        userPurgeService.run(1L);
+
+        // Then
+        verify(topicRepository, never()).reopenWithoutSolution(any());
+        verify(attachmentRepository).deleteChunkOnResponsesOfAutor(7L, 2);
+        verify(attachmentRepository).deleteByTopicoIds(List.of(10L, 11L));
+        verify(topicRepository).bulkDeleteByIds(List.of(10L, 11L));
+        verify(userRepository).deleteById(7L);
+        verify(eventPublisher).publishEvent(TopicsChanged.listing(Set.of()));
+        verify(eventPublisher).publishEvent(TopicsChanged.listing(List.of(10L, 11L)));
+        assertEquals(UserPurgeStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getTopicsDeleted());
+        assertEquals(5, job.getResponsesDeleted());
+    }
+
+    @Test
+    void shouldReopenTopicsSolvedByTheUsersResponses() {
+        // Given: two of the user's responses are solutions, on topics of different courses
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(topicRepository.findSolvedByResponsesOf(eq(7L), any(Pageable.class)))
+                .thenReturn(List.of(solved(20L, 3L), solved(21L, 4L)), List.of());
+        when(responseRepository.deleteChunkByAutorId(7L, 2)).thenReturn(0);
+        when(topicRepository.findIdsByAutorId(eq(7L), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        userPurgeService.run(1L);
+
+        // Then
+        InOrder inOrder = inOrder(topicRepository, responseRepository);
+        inOrder.verify(topicRepository).reopenWithoutSolution(List.of(20L, 21L));
+        inOrder.verify(responseRepository).deleteChunkByAutorId(7L, 2);
+        verify(eventPublisher).publishEvent(TopicsChanged.listing(List.of(20L, 21L)));
+        verify(eventPublisher).publishEvent(TopicActivity.statusChanged(20L, 3L, TopicStatus.OPEN));
+        verify(eventPublisher).publishEvent(TopicActivity.statusChanged(21L, 4L, TopicStatus.OPEN));
+        assertEquals(UserPurgeStatus.COMPLETED, job.getStatus());
+    }
+
+    @Test
+    void shouldMarkJobFailedWhenChunkFails() {
+        // Given
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(responseRepository.deleteChunkByAutorId(7L, 2)).thenThrow(new IllegalStateException("lock wait timeout"));
+
+        // When
+        userPurgeService.run(1L);
+
+        // Then
+        assertEquals(UserPurgeStatus.FAILED, job.getStatus());
+        assertEquals("lock wait timeout", job.getError());
+        verify(userRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void shouldStopAndLeaveJobRunningWhenLeaseIsLost() {
+        // Given
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(responseRepository.deleteChunkByAutorId(7L, 2)).thenReturn(2);
+        when(leaseService.tryAcquire(eq(UserPurgeService.LEASE_NAME), any())).thenReturn(false);
+
+        // When
+        boolean finished = userPurgeService.run(1L);
+
+        // Then
+        assertFalse(finished);
+        assertEquals(UserPurgeStatus.RUNNING, job.getStatus());
+        verify(responseRepository, times(1)).deleteChunkByAutorId(7L, 2);
+        verify(userRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void shouldNotProcessJobsWithoutLease() {
+        // Given
+        when(leaseService.tryAcquire(eq(UserPurgeService.LEASE_NAME), any())).thenReturn(false);
+
+        // When
+        userPurgeService.processPendingJobs();
+
+        // Then
+        verify(jobRepository, never()).findByStatusInOrderByIdAsc(anyCollection());
+        verify(leaseService, never()).release(any());
+    }
+
+    private ModerationState solved(Long id, Long cursoId) {
+        return new ModerationState() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public TopicStatus getStatus() {
+                return TopicStatus.CLOSED;
+            }
+
+            @Override
+            public Long getCursoId() {
+                return cursoId;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.forum.service;
+
+import com.example.forum.domain.Course;
+import com.example.forum.domain.Profile;
+import com.example.forum.domain.Topic;
+import com.example.forum.domain.TopicStatus;
+import com.example.forum.domain.User;
+import com.example.forum.domain.WebhookEvent;
+import com.example.forum.domain.WebhookOutboxEntry;
+import com.example.forum.domain.WebhookSubscription;
+import com.example.forum.dto.CreateWebhookRequest;
+import com.example.forum.dto.ResponseResponse;
+import com.example.forum.repository.WebhookDeadLetterRepository;
+import com.example.forum.repository.WebhookOutboxRepository;
+import com.example.forum.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookServiceTest {
+
+    @Mock
+    private WebhookSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private WebhookOutboxRepository outboxRepository;
+
+    @Mock
+    private WebhookDeadLetterRepository deadLetterRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private WebhookService webhookService;
+    private Topic topic;
+
+    @BeforeEach
+    void setUp() {
+        webhookService = new WebhookService(subscriptionRepository, outboxRepository, deadLetterRepository, objectMapper);
+        ReflectionTestUtils.setField(webhookService, "defaultConcurrency", 2);
+
+        User author = new User("João Silva", "joao@email.com", "senha123", Set.of(new Profile("USUARIO")));
+        Course course = new Course("Spring Boot", "Backend");
+        ReflectionTestUtils.setField(course, "id", 3L);
+        topic = new Topic("Título", "Mensagem", author, course);
+        ReflectionTestUtils.setField(topic, "id", 5L);
+    }
+
+    @Test
+    void shouldQueueSolvedTopicForSubscribedEndpoints() throws Exception {
+        // Given
+        WebhookSubscription solved = subscription(1L, Set.of(WebhookEvent.TOPIC_SOLVED, WebhookEvent.TOPIC_CREATED));
+        WebhookSubscription created = subscription(2L, Set.of(WebhookEvent.TOPIC_CREATED));
+        when(subscriptionRepository.findByAtivoTrue()).thenReturn(List.of(solved, created));
+        ResponseResponse solution = new ResponseResponse(9L, "Resposta", LocalDateTime.of(2024, 5, 1, 10, 0), true, "Maria");
+
+        // When
+        webhookService.onTopicActivity(TopicActivity.solutionMarked(topic, solution));
+
+        // Then
+        ArgumentCaptor<List<WebhookOutboxEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        WebhookOutboxEntry entry = captor.getValue().get(0);
+        assertEquals(1L, entry.getSubscriptionId());
+        assertEquals(WebhookEvent.TOPIC_SOLVED, entry.getEvento());
+        assertEquals(0, entry.getTentativas());
+        JsonNode payload = objectMapper.readTree(entry.getPayload());
+        assertEquals(5, payload.path("topicoId").asLong());
+        assertEquals("CLOSED", payload.path("status").asText());
+        assertEquals(9, payload.path("resposta").path("id").asLong());
+    }
+
+    @Test
+    void shouldIgnoreActivityWithoutWebhookEvent() {
+        // When
+        webhookService.onTopicActivity(TopicActivity.statusChanged(topic, TopicStatus.CLOSED));
+
+        // Then
+        verifyNoInteractions(subscriptionRepository, outboxRepository);
+    }
+
+    @Test
+    void shouldCreateSubscriptionWithGeneratedSecret() {
+        // Given
+        when(subscriptionRepository.save(any(WebhookSubscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        WebhookSubscription subscription = webhookService.create(
+                new CreateWebhookRequest("https://lms.exemplo.com/forum", Set.of(WebhookEvent.TOPIC_CREATED), null));
+
+        // Then
+        assertEquals("https://lms.exemplo.com/forum", subscription.getUrl());
+        assertEquals(64, subscription.getSegredo().length());
+        assertEquals(2, subscription.getMaxConcorrencia());
+        assertTrue(subscription.accepts(WebhookEvent.TOPIC_CREATED));
+        assertFalse(subscription.accepts(WebhookEvent.TOPIC_SOLVED));
+    }
+
+    @Test
+    void shouldRejectUrlThatIsNotHttp() {
+        // When / Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> webhookService.create(
+                new CreateWebhookRequest("file:///etc/passwd", Set.of(WebhookEvent.TOPIC_CREATED), 1)));
+        assertEquals("URL do webhook deve ser http ou https", exception.getMessage());
+        verify(subscriptionRepository, never()).save(any());
+    }
+
+    private static WebhookSubscription subscription(Long id, Set<WebhookEvent> eventos) {
+        WebhookSubscription subscription = new WebhookSubscription("https://exemplo.com/" + id, "segredo", eventos, 1);
+        ReflectionTestUtils.setField(subscription, "id", id);
+        return subscription;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.forum.warmup;
+
+import com.example.forum.domain.Course;
+import com.example.forum.repository.CourseRepository;
+import com.example.forum.repository.ProfileRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmUpTest {
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private ProfileRepository profileRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StartupWarmUp startupWarmUp;
+    private HttpServer server;
+    private final Set<String> requests = ConcurrentHashMap.newKeySet();
+    private volatile int listingStatus = 200;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        startupWarmUp = new StartupWarmUp(applicationContext, dataSource, courseRepository, profileRepository,
+                new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(startupWarmUp, "maxDuration", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(startupWarmUp, "rounds", 2);
+        ReflectionTestUtils.setField(startupWarmUp, "concurrency", 2);
+        ReflectionTestUtils.setField(startupWarmUp, "connections", 3);
+        ReflectionTestUtils.setField(startupWarmUp, "pages", 2);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldReplayReadOnlyMixIncludingTopicDetailsAndLogin() {
+        // When
+        StartupWarmUp.Replay replay = startupWarmUp.replay(baseUri(), Instant.now().plusSeconds(10));
+
+        // Then
+        assertEquals(0, replay.failures());
+        // 2 workers x 2 rounds x (4 listing pages + 3 filters + 2 topics x 3 reads + login)
+        assertEquals(2 * 2 * (4 + 3 + 6 + 1), replay.requests());
+        assertTrue(requests.contains("GET /topicos?page=1&size=20"));
+        assertTrue(requests.contains("GET /topicos?status=OPEN"));
+        assertTrue(requests.contains("GET /topicos/7"));
+        assertTrue(requests.contains("GET /topicos/8/respostas"));
+        assertTrue(requests.contains("GET /topicos/8/solucao"));
+        assertTrue(requests.contains("POST /auth/login " + StartupWarmUp.LOGIN_BODY));
+        assertTrue(requests.stream().allMatch(request -> request.startsWith("GET ") || request.startsWith("POST /auth/login")));
+    }
+
+    @Test
+    void shouldCountServerErrorsAndStopAtDeadline() {
+        // Given
+        listingStatus = 500;
+
+        // When
+        StartupWarmUp.Replay expired = startupWarmUp.replay(baseUri(), Instant.now().minusSeconds(1));
+        StartupWarmUp.Replay failing = startupWarmUp.replay(baseUri(), Instant.now().plusSeconds(10));
+
+        // Then
+        assertEquals(new StartupWarmUp.Replay(0, 0), expired);
+        // Without a listing there are no topic reads: 2 workers x 2 rounds x (4 pages + 3 filters + login)
+        assertEquals(2 * 2 * 8, failing.requests());
+        assertEquals(2 * 2 * 7, failing.failures());
+    }
+
+    @Test
+    void shouldPrimePoolAndReferenceDataWithoutWebServer() throws SQLException {
+        // Given
+        Course course = new Course("Java", "Programação");
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(courseRepository.findAll()).thenReturn(List.of(course));
+        when(courseRepository.findByNome("Java")).thenReturn(Optional.of(course));
+
+        // When
+        startupWarmUp.run(null);
+
+        // Then
+        verify(dataSource, times(3)).getConnection();
+        verify(connection, times(3)).close();
+        verify(profileRepository).findByNome("USUARIO");
+        verify(courseRepository).findByNome("Java");
+        assertEquals(1, meterRegistry.timer("forum.warmup").count());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    void shouldNotFailStartupWhenDatabaseIsUnavailable() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenThrow(new SQLException("Communications link failure"));
+        when(profileRepository.findAll()).thenThrow(new IllegalStateException("no database"));
+
+        // When / Then
+        assertDoesNotThrow(() -> startupWarmUp.run(null));
+        assertEquals(1, meterRegistry.timer("forum.warmup").count());
+    }
+
+    private URI baseUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String path = exchange.getRequestURI().toString();
+        requests.add((exchange.getRequestMethod() + " " + path + " " + body).trim());
+
+        int status = 200;
+        String response = "{}";
+        if (path.startsWith("/topicos") && !path.startsWith("/topicos/")) {
+            status = listingStatus;
+            response = "{\"content\":[{\"id\":7},{\"id\":8}]}";
+        } else if (path.endsWith("/solucao")) {
+            status = 404;
+        } else if (path.equals("/auth/login")) {
+            status = 401;
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.forum.webhook;
+
+import com.example.forum.domain.WebhookDeadLetter;
+import com.example.forum.domain.WebhookEvent;
+import com.example.forum.domain.WebhookOutboxEntry;
+import com.example.forum.domain.WebhookSubscription;
+import com.example.forum.repository.WebhookDeadLetterRepository;
+import com.example.forum.repository.WebhookOutboxRepository;
+import com.example.forum.repository.WebhookSubscriptionRepository;
+import com.example.forum.service.SchedulerLeaseService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Delivers to a stub HTTP server on a local port, so requests, signatures and concurrency are real
+@ExtendWith(MockitoExtension.class)
+class WebhookDeliveryWorkerTest {
+
+    @Mock
+    private WebhookOutboxRepository outboxRepository;
+
+    @Mock
+    private WebhookSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private WebhookDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private SchedulerLeaseService leaseService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StubEndpoint stub = new StubEndpoint();
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private WebhookDeliveryWorker worker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", stub::handle);
+        server.setExecutor(serverThreads);
+        server.start();
+
+        worker = new WebhookDeliveryWorker(outboxRepository, subscriptionRepository, deadLetterRepository,
+                leaseService, transactionTemplate, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(worker, "fetchSize", 500);
+        ReflectionTestUtils.setField(worker, "batchSize", 2);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 10);
+        ReflectionTestUtils.setField(worker, "initialBackoff", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(worker, "maxBackoff", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(worker, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(worker, "requestTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(worker, "deliveryThreads", 4);
+        ReflectionTestUtils.setField(worker, "lease", Duration.ofMinutes(1));
+        worker.start();
+
+        when(leaseService.tryAcquire(eq(WebhookDeliveryWorker.LEASE_NAME), any())).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void shouldSendSignedBatchesAndDeleteDeliveredEntries() throws Exception {
+        // Given
+        WebhookSubscription subscription = subscription(1L, "/lms", 1);
+        List<WebhookOutboxEntry> due = List.of(entry(1L, 1L), entry(2L, 1L), entry(3L, 1L));
+        when(outboxRepository.findDue(any(), any())).thenReturn(due);
+        when(subscriptionRepository.findAllById(any())).thenReturn(List.of(subscription));
+
+        // When
+        WebhookDeliveryWorker.RunResult result = worker.run();
+
+        // Then
+        assertEquals(new WebhookDeliveryWorker.RunResult("completed", 3, 0, 0), result);
+        assertEquals(2, stub.requests.size());
+        StubEndpoint.Request first = stub.requests.get(0);
+        assertEquals("sha256=" + WebhookDeliveryWorker.sign("segredo", first.body()), first.signature());
+        JsonNode entregas = objectMapper.readTree(first.body()).path("entregas");
+        assertEquals(2, entregas.size());
+        assertEquals(1, entregas.get(0).path("id").asLong());
+        assertEquals("TOPIC_CREATED", entregas.get(0).path("evento").asText());
+        assertEquals(5, entregas.get(0).path("dados").path("topicoId").asLong());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(outboxRepository, never()).postpone(any(), any());
+        verify(leaseService).release(WebhookDeliveryWorker.LEASE_NAME);
+    }
+
+    @Test
+    void shouldBackOffFailedBatchAndDeadLetterExhaustedEntries() {
+        // Given: the endpoint is down; entry 2 is on its last attempt
+        stub.status = 503;
+        WebhookSubscription subscription = subscription(1L, "/lms", 1);
+        WebhookOutboxEntry fresh = entry(1L, 1L);
+        WebhookOutboxEntry exhausted = entry(2L, 1L);
+        ReflectionTestUtils.setField(exhausted, "tentativas", 9);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(fresh, exhausted, entry(3L, 1L)));
+        when(subscriptionRepository.findAllById(any())).thenReturn(List.of(subscription));
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        WebhookDeliveryWorker.RunResult result = worker.run();
+
+        // Then: one request, after which the rest of the endpoint's entries wait for the retry
+        assertEquals(new WebhookDeliveryWorker.RunResult("completed", 0, 2, 1), result);
+        assertEquals(1, stub.requests.size());
+        assertEquals(1, fresh.getTentativas());
+        assertEquals("HTTP 503", fresh.getUltimoErro());
+        assertFalse(fresh.getProximaTentativa().isBefore(before.plusSeconds(10)));
+        assertTrue(fresh.getProximaTentativa().isBefore(LocalDateTime.now().plusSeconds(11)));
+        verify(outboxRepository).saveAll(List.of(fresh));
+
+        ArgumentCaptor<List<WebhookDeadLetter>> deadLetters = ArgumentCaptor.forClass(List.class);
+        verify(deadLetterRepository).saveAll(deadLetters.capture());
+        assertEquals(1, deadLetters.getValue().size());
+        assertEquals(10, deadLetters.getValue().get(0).getTentativas());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L));
+        verify(outboxRepository).postpone(List.of(3L), fresh.getProximaTentativa());
+        assertEquals(Duration.ofSeconds(40), worker.backoff(3));
+        assertEquals(Duration.ofMinutes(1), worker.backoff(60));
+    }
+
+    @Test
+    void shouldRespectConcurrencyLimitOfEachEndpoint() {
+        // Given: slow responses, six batches for an endpoint allowing two requests and three for one allowing one
+        stub.delayMillis = 100;
+        ReflectionTestUtils.setField(worker, "batchSize", 1);
+        List<WebhookOutboxEntry> due = new ArrayList<>();
+        for (long id = 1; id <= 9; id++) {
+            due.add(entry(id, id <= 6 ? 1L : 2L));
+        }
+        when(outboxRepository.findDue(any(), any())).thenReturn(due);
+        when(subscriptionRepository.findAllById(any()))
+                .thenReturn(List.of(subscription(1L, "/lms", 2), subscription(2L, "/chat", 1)));
+
+        // When
+        WebhookDeliveryWorker.RunResult result = worker.run();
+
+        // Then
+        assertEquals(9, result.delivered());
+        assertEquals(6, stub.requestsTo("/lms"));
+        assertEquals(3, stub.requestsTo("/chat"));
+        assertEquals(2, stub.maxInFlight.get("/lms").get());
+        assertEquals(1, stub.maxInFlight.get("/chat").get());
+        verify(outboxRepository, times(9)).deleteAllByIdInBatch(anyList());
+    }
+
+    private WebhookSubscription subscription(Long id, String path, int maxConcorrencia) {
+        WebhookSubscription subscription = new WebhookSubscription("http://127.0.0.1:" + server.getAddress().getPort() + path,
+                "segredo", Set.of(WebhookEvent.TOPIC_CREATED), maxConcorrencia);
+        ReflectionTestUtils.setField(subscription, "id", id);
+        return subscription;
+    }
+
+    private static WebhookOutboxEntry entry(Long id, Long subscriptionId) {
+        WebhookOutboxEntry entry = new WebhookOutboxEntry(subscriptionId, WebhookEvent.TOPIC_CREATED,
+                "{\"topicoId\":5,\"cursoId\":3}");
+        ReflectionTestUtils.setField(entry, "id", id);
+        return entry;
+    }
+
+    // Records what it receives and how many requests per path were open at the same time
+    private static final class StubEndpoint {
+
+        record Request(String path, String signature, byte[] body) {}
+
+        private final List<Request> requests = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> maxInFlight = new ConcurrentHashMap<>();
+        private volatile int status = 204;
+        private volatile long delayMillis;
+
+        void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            AtomicInteger open = inFlight.computeIfAbsent(path, ignored -> new AtomicInteger());
+            maxInFlight.computeIfAbsent(path, ignored -> new AtomicInteger()).accumulateAndGet(open.incrementAndGet(), Math::max);
+            try {
+                requests.add(new Request(path, exchange.getRequestHeaders().getFirst(WebhookDeliveryWorker.SIGNATURE_HEADER),
+                        exchange.getRequestBody().readAllBytes()));
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // Before answering: the worker may send the next request as soon as it has the response
+                open.decrementAndGet();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        }
+
+        long requestsTo(String path) {
+            synchronized (requests) {
+                return requests.stream().filter(request -> request.path().equals(path)).count();
+            }
+        }
+    }
+}